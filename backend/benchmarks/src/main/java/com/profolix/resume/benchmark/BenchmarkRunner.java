@@ -0,0 +1,41 @@
+package com.profolix.resume.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of {@code benchmarks.jar}. Runs with the GC profiler attached so
+ * every result reports allocation rate next to throughput; any standard JMH
+ * option (benchmark regex, {@code -p size=...}, {@code -f}, {@code -wi}, ...)
+ * passed on the command line takes precedence over the defaults here.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        // Values set on the builder win over the parent, so only fill in what the command line left out
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cli).addProfiler(GCProfiler.class);
+        if (!cli.getForkCount().hasValue()) {
+            options.forks(1);
+        }
+        if (!cli.getWarmupIterations().hasValue()) {
+            options.warmupIterations(3);
+        }
+        if (!cli.getMeasurementIterations().hasValue()) {
+            options.measurementIterations(5);
+        }
+        if (!cli.getResult().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON).result("target/jmh-result.json");
+        }
+        new Runner(options.build()).run();
+    }
+}
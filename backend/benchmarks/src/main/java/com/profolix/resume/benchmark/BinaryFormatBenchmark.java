@@ -0,0 +1,112 @@
+package com.profolix.resume.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.Parser;
+import com.profolix.resume.cache.BodyFormat;
+import com.profolix.resume.cache.CachedBody;
+import com.profolix.resume.cache.ContentCodings;
+import com.profolix.resume.cache.ResumeProtobuf;
+import com.profolix.resume.proto.*;
+import com.profolix.resume.service.ResumeSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode cost of each {@link BodyFormat} per endpoint. Jackson
+ * formats decode to a tree, Protobuf to the message classes generated from
+ * {@code resume.proto}, which is also a check that the hand-written encoder
+ * matches the schema.
+ *
+ * <p>Payload sizes do not depend on the measurement, so they are printed once
+ * per trial, raw and with each compression the server would offer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BinaryFormatBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Payload {
+
+        @Param({"JSON", "CBOR", "SMILE", "PROTOBUF"})
+        public BodyFormat format;
+
+        @Param({"resume", "profile", "experiences", "skillsByCategory", "projects", "achievements"})
+        public String endpoint;
+
+        Object value;
+        ObjectMapper mapper;
+        Parser<? extends MessageLite> parser;
+        byte[] encoded;
+
+        @Setup(Level.Trial)
+        public void encodeOnce(ResumeContextState state) throws IOException {
+            value = body(state.snapshot, endpoint);
+            mapper = switch (format) {
+                case JSON, PROTOBUF -> state.objectMapper;
+                case CBOR -> state.objectMapper.copyWith(new CBORFactory());
+                case SMILE -> state.objectMapper.copyWith(new SmileFactory());
+            };
+            parser = parser(endpoint);
+            encoded = write(this);
+            if (format == BodyFormat.PROTOBUF) {
+                // Fails the trial if the encoder has drifted from the schema
+                parser.parseFrom(encoded);
+            }
+
+            CachedBody body = new CachedBody(0, encoded);
+            System.out.printf("%npayload size=%d endpoint=%s format=%s: %d bytes, gzip %s, br %s%n", state.size,
+                    endpoint, format, encoded.length, compressedLength(body, ContentCodings.GZIP),
+                    compressedLength(body, ContentCodings.BROTLI));
+        }
+
+        private static Object body(ResumeSnapshot snapshot, String endpoint) {
+            return switch (endpoint) {
+                case "resume" -> snapshot.getResume();
+                case "profile" -> snapshot.getProfile().orElseThrow();
+                case "experiences" -> snapshot.getExperiences();
+                case "skillsByCategory" -> snapshot.getSkillsByCategory();
+                case "projects" -> snapshot.getProjects();
+                case "achievements" -> snapshot.getAchievements();
+                default -> throw new IllegalArgumentException(endpoint);
+            };
+        }
+
+        private static Parser<? extends MessageLite> parser(String endpoint) {
+            return switch (endpoint) {
+                case "resume" -> Resume.parser();
+                case "profile" -> Profile.parser();
+                case "experiences" -> ExperienceList.parser();
+                case "skillsByCategory" -> SkillsByCategory.parser();
+                case "projects" -> ProjectList.parser();
+                case "achievements" -> AchievementList.parser();
+                default -> throw new IllegalArgumentException(endpoint);
+            };
+        }
+
+        private static String compressedLength(CachedBody body, String coding) {
+            byte[] compressed = body.getBytes(coding);
+            return compressed == null ? "-" : String.valueOf(compressed.length);
+        }
+    }
+
+    @Benchmark
+    public byte[] encode(Payload payload) throws IOException {
+        return write(payload);
+    }
+
+    @Benchmark
+    public Object decode(Payload payload) throws IOException {
+        return payload.format == BodyFormat.PROTOBUF ? payload.parser.parseFrom(payload.encoded)
+                : payload.mapper.readTree(payload.encoded);
+    }
+
+    private static byte[] write(Payload payload) throws IOException {
+        return payload.format == BodyFormat.PROTOBUF ? ResumeProtobuf.encode(payload.value)
+                : payload.mapper.writeValueAsBytes(payload.value);
+    }
+}
@@ -0,0 +1,65 @@
+package com.profolix.resume.benchmark;
+
+import com.profolix.resume.service.CompactSnapshotStore;
+import com.profolix.resume.service.ResumeSnapshot;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.unit.DataSize;
+
+import java.lang.ref.Reference;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of keeping a portfolio in the {@link CompactSnapshotStore}: encoding
+ * a snapshot into it and decoding one back out.
+ *
+ * <p>Memory does not depend on the measurement, so it is printed once per
+ * trial: the bytes the record takes off-heap against the heap retained by a
+ * decoded snapshot, measured over a batch of copies between full GCs. Decoded
+ * copies share dictionary strings, so the heap figure is if anything low.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CompactSnapshotBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Store {
+
+        CompactSnapshotStore store;
+        long profileId;
+
+        @Setup(Level.Trial)
+        public void storeOnce(ResumeContextState state) {
+            store = new CompactSnapshotStore(DataSize.ofMegabytes(256), DataSize.ofMegabytes(64), 65536);
+            profileId = state.snapshot.getProfileId();
+            store.put(state.snapshot, store.generation());
+            long offHeap = store.getUsedBytes();
+            long onHeap = heapPerSnapshot(store, profileId, Math.max(1, 20_000 / state.size));
+            System.out.printf("%nsnapshot size=%d: %d bytes off-heap, %d bytes on the heap (%.1fx)%n", state.size,
+                    offHeap, onHeap, (double) onHeap / offHeap);
+        }
+
+        private static long heapPerSnapshot(CompactSnapshotStore store, long profileId, int copies) {
+            Runtime runtime = Runtime.getRuntime();
+            System.gc();
+            long before = runtime.totalMemory() - runtime.freeMemory();
+            ResumeSnapshot[] held = new ResumeSnapshot[copies];
+            for (int i = 0; i < copies; i++) {
+                held[i] = store.get(profileId).orElseThrow();
+            }
+            System.gc();
+            long after = runtime.totalMemory() - runtime.freeMemory();
+            Reference.reachabilityFence(held);
+            return (after - before) / copies;
+        }
+    }
+
+    @Benchmark
+    public void put(Store store, ResumeContextState state) {
+        store.store.put(state.snapshot, store.store.generation());
+    }
+
+    @Benchmark
+    public ResumeSnapshot get(Store store) {
+        return store.store.get(store.profileId).orElseThrow();
+    }
+}
@@ -0,0 +1,91 @@
+package com.profolix.resume.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Full {@code DispatcherServlet} dispatch through {@code ResumeController}
+ * via MockMvc: handler mapping, argument resolution, the response cache and
+ * body writing, without a network socket.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ControllerBenchmark {
+
+    @Benchmark
+    public MockHttpServletResponse resume(ResumeContextState state) throws Exception {
+        return perform(state, "/api/resume");
+    }
+
+    @Benchmark
+    public MockHttpServletResponse resumeGzip(ResumeContextState state) throws Exception {
+        return state.mockMvc.perform(get("/api/resume").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andReturn().getResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse resumeNotModified(ResumeContextState state) throws Exception {
+        String etag = perform(state, "/api/resume").getHeader(HttpHeaders.ETAG);
+        return state.mockMvc.perform(get("/api/resume").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andReturn().getResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse profile(ResumeContextState state) throws Exception {
+        return perform(state, "/api/profile");
+    }
+
+    @Benchmark
+    public MockHttpServletResponse experiences(ResumeContextState state) throws Exception {
+        return perform(state, "/api/experiences");
+    }
+
+    @Benchmark
+    public MockHttpServletResponse experienceById(ResumeContextState state) throws Exception {
+        return perform(state, "/api/experiences/" + state.experienceId);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse skills(ResumeContextState state) throws Exception {
+        return perform(state, "/api/skills");
+    }
+
+    @Benchmark
+    public MockHttpServletResponse skillsByCategory(ResumeContextState state) throws Exception {
+        return perform(state, "/api/skills/categories");
+    }
+
+    @Benchmark
+    public MockHttpServletResponse projects(ResumeContextState state) throws Exception {
+        return perform(state, "/api/projects");
+    }
+
+    @Benchmark
+    public MockHttpServletResponse featuredProjects(ResumeContextState state) throws Exception {
+        return perform(state, "/api/projects/featured");
+    }
+
+    @Benchmark
+    public MockHttpServletResponse projectById(ResumeContextState state) throws Exception {
+        return perform(state, "/api/projects/" + state.projectId);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse education(ResumeContextState state) throws Exception {
+        return perform(state, "/api/education");
+    }
+
+    @Benchmark
+    public MockHttpServletResponse achievements(ResumeContextState state) throws Exception {
+        return perform(state, "/api/achievements");
+    }
+
+    private static MockHttpServletResponse perform(ResumeContextState state, String path) throws Exception {
+        return state.mockMvc.perform(get(path)).andReturn().getResponse();
+    }
+}
@@ -0,0 +1,78 @@
+package com.profolix.resume.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.profolix.resume.service.ResumeSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The application's {@code ObjectMapper}, which writes the models with the
+ * hand-written serializers of {@code ResumeJsonModule}, against a plain
+ * {@code ObjectMapper} that introspects them as beans. Setup fails the trial
+ * if the two disagree on a single byte.
+ *
+ * <p>{@code write} is what the response cache does and includes growing and
+ * copying the result array; {@code stream} writes into a reused buffer, which
+ * leaves the serializers' own cost and allocation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JsonSerializerBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Writer {
+
+        @Param({"specialized", "reflective"})
+        public String serializers;
+
+        @Param({"resume", "profile", "experiences", "skills", "skillsByCategory", "projects", "education",
+                "achievements"})
+        public String endpoint;
+
+        ObjectMapper mapper;
+        Object value;
+        ByteArrayOutputStream buffer;
+
+        @Setup(Level.Trial)
+        public void setUp(ResumeContextState state) throws JsonProcessingException {
+            ObjectMapper reflective = new ObjectMapper();
+            mapper = serializers.equals("specialized") ? state.objectMapper : reflective;
+            value = body(state.snapshot, endpoint);
+            buffer = new ByteArrayOutputStream(state.objectMapper.writeValueAsBytes(value).length);
+            if (!Arrays.equals(state.objectMapper.writeValueAsBytes(value), reflective.writeValueAsBytes(value))) {
+                throw new IllegalStateException("Specialized and reflective JSON differ for " + endpoint);
+            }
+        }
+
+        private static Object body(ResumeSnapshot snapshot, String endpoint) {
+            return switch (endpoint) {
+                case "resume" -> snapshot.getResume();
+                case "profile" -> snapshot.getProfile().orElseThrow();
+                case "experiences" -> snapshot.getExperiences();
+                case "skills" -> snapshot.getSkills();
+                case "skillsByCategory" -> snapshot.getSkillsByCategory();
+                case "projects" -> snapshot.getProjects();
+                case "education" -> snapshot.getEducation();
+                case "achievements" -> snapshot.getAchievements();
+                default -> throw new IllegalArgumentException(endpoint);
+            };
+        }
+    }
+
+    @Benchmark
+    public byte[] write(Writer writer) throws JsonProcessingException {
+        return writer.mapper.writeValueAsBytes(writer.value);
+    }
+
+    @Benchmark
+    public int stream(Writer writer) throws IOException {
+        writer.buffer.reset();
+        writer.mapper.writeValue(writer.buffer, writer.value);
+        return writer.buffer.size();
+    }
+}
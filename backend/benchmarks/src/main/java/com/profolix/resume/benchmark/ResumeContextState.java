@@ -0,0 +1,76 @@
+package com.profolix.resume.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.profolix.resume.ResumeApplication;
+import com.profolix.resume.controller.ResumeController;
+import com.profolix.resume.service.ResumeService;
+import com.profolix.resume.service.ResumeSnapshot;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Boots the application against a freshly seeded SQLite file of the given
+ * size, once per trial. Every benchmark class shares this state.
+ */
+@State(Scope.Benchmark)
+public class ResumeContextState {
+
+    /**
+     * Rows per list table (experiences, projects, skills), with a tenth as many
+     * education and achievement rows, generated by the application's
+     * {@code SyntheticDataGenerator} into the default portfolio.
+     */
+    @Param({"10", "1000", "10000"})
+    public int size;
+
+    ConfigurableApplicationContext context;
+    ResumeService resumeService;
+    ObjectMapper objectMapper;
+    MockMvc mockMvc;
+    ResumeSnapshot snapshot;
+    long experienceId;
+    long projectId;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        Path db = Path.of("target", "bench-data", "resume-" + size + ".db").toAbsolutePath();
+        Files.createDirectories(db.getParent());
+        Files.deleteIfExists(db);
+
+        // Passed as command-line arguments so they take precedence over application.properties
+        context = new SpringApplicationBuilder(ResumeApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:sqlite:" + db,
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=warn",
+                        "--profolix.seed.synthetic.enabled=true",
+                        "--profolix.seed.synthetic.profiles=0",
+                        "--profolix.seed.synthetic.experiences=" + size,
+                        "--profolix.seed.synthetic.projects=" + size,
+                        "--profolix.seed.synthetic.skills=" + size,
+                        "--profolix.seed.synthetic.education=" + Math.max(1, size / 10),
+                        "--profolix.seed.synthetic.achievements=" + Math.max(1, size / 10));
+
+        resumeService = context.getBean(ResumeService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        mockMvc = MockMvcBuilders.standaloneSetup(context.getBean(ResumeController.class)).build();
+        resumeService.reload();
+        snapshot = resumeService.getSnapshot();
+        experienceId = snapshot.getExperiences().get(snapshot.getExperiences().size() / 2).getId();
+        projectId = snapshot.getProjects().get(snapshot.getProjects().size() / 2).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+}
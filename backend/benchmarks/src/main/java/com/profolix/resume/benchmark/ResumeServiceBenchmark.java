@@ -0,0 +1,78 @@
+package com.profolix.resume.benchmark;
+
+import com.profolix.resume.model.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every {@code ResumeService} read method, plus {@code reload()}, which with
+ * nothing written since the last one only checks the store's data version.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ResumeServiceBenchmark {
+
+    @Benchmark
+    public long reload(ResumeContextState state) {
+        return state.resumeService.reload();
+    }
+
+    @Benchmark
+    public Resume getResume(ResumeContextState state) {
+        return state.resumeService.getResume();
+    }
+
+    @Benchmark
+    public Optional<Profile> getProfile(ResumeContextState state) {
+        return state.resumeService.getProfile();
+    }
+
+    @Benchmark
+    public List<Experience> getAllExperiences(ResumeContextState state) {
+        return state.resumeService.getAllExperiences();
+    }
+
+    @Benchmark
+    public Optional<Experience> getExperienceById(ResumeContextState state) {
+        return state.resumeService.getExperienceById(state.snapshot.getProfileId(), state.experienceId);
+    }
+
+    @Benchmark
+    public List<Skill> getAllSkills(ResumeContextState state) {
+        return state.resumeService.getAllSkills();
+    }
+
+    @Benchmark
+    public Map<String, List<Skill>> getSkillsByCategory(ResumeContextState state) {
+        return state.resumeService.getSkillsByCategory();
+    }
+
+    @Benchmark
+    public List<Project> getAllProjects(ResumeContextState state) {
+        return state.resumeService.getAllProjects();
+    }
+
+    @Benchmark
+    public List<Project> getFeaturedProjects(ResumeContextState state) {
+        return state.resumeService.getFeaturedProjects();
+    }
+
+    @Benchmark
+    public Optional<Project> getProjectById(ResumeContextState state) {
+        return state.resumeService.getProjectById(state.snapshot.getProfileId(), state.projectId);
+    }
+
+    @Benchmark
+    public List<Education> getAllEducation(ResumeContextState state) {
+        return state.resumeService.getAllEducation();
+    }
+
+    @Benchmark
+    public List<Achievement> getAllAchievements(ResumeContextState state) {
+        return state.resumeService.getAllAchievements();
+    }
+}
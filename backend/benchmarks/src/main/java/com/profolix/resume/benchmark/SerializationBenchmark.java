@@ -0,0 +1,56 @@
+package com.profolix.resume.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of each entity list with the application's configured
+ * {@code ObjectMapper}, i.e. the cost paid once per data version by the
+ * response cache.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SerializationBenchmark {
+
+    @Benchmark
+    public byte[] resume(ResumeContextState state) throws JsonProcessingException {
+        return state.objectMapper.writeValueAsBytes(state.snapshot.getResume());
+    }
+
+    @Benchmark
+    public byte[] profile(ResumeContextState state) throws JsonProcessingException {
+        return state.objectMapper.writeValueAsBytes(state.snapshot.getProfile().orElseThrow());
+    }
+
+    @Benchmark
+    public byte[] experiences(ResumeContextState state) throws JsonProcessingException {
+        return state.objectMapper.writeValueAsBytes(state.snapshot.getExperiences());
+    }
+
+    @Benchmark
+    public byte[] skills(ResumeContextState state) throws JsonProcessingException {
+        return state.objectMapper.writeValueAsBytes(state.snapshot.getSkills());
+    }
+
+    @Benchmark
+    public byte[] skillsByCategory(ResumeContextState state) throws JsonProcessingException {
+        return state.objectMapper.writeValueAsBytes(state.snapshot.getSkillsByCategory());
+    }
+
+    @Benchmark
+    public byte[] projects(ResumeContextState state) throws JsonProcessingException {
+        return state.objectMapper.writeValueAsBytes(state.snapshot.getProjects());
+    }
+
+    @Benchmark
+    public byte[] education(ResumeContextState state) throws JsonProcessingException {
+        return state.objectMapper.writeValueAsBytes(state.snapshot.getEducation());
+    }
+
+    @Benchmark
+    public byte[] achievements(ResumeContextState state) throws JsonProcessingException {
+        return state.objectMapper.writeValueAsBytes(state.snapshot.getAchievements());
+    }
+}
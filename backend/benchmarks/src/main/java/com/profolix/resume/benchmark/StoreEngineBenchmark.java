@@ -0,0 +1,169 @@
+package com.profolix.resume.benchmark;
+
+import com.profolix.resume.ResumeApplication;
+import com.profolix.resume.model.Experience;
+import com.profolix.resume.store.Portfolio;
+import com.profolix.resume.store.ResumeStore;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The two {@link ResumeStore} engines side by side, on the same generated
+ * data: {@code portfolios} tenants of 26 rows each, written through the
+ * store by the application's {@code SyntheticDataGenerator}.
+ * <ul>
+ * <li>{@code startup}: booting the application on the data and reading one
+ * portfolio, once per iteration. The log engine maps its snapshot and replays
+ * whatever the log holds past it.</li>
+ * <li>{@code load} and {@code page}: reading a random portfolio whole, and the
+ * first page of its experiences, straight from the store with the caches in
+ * front of it left out.</li>
+ * <li>{@code write}: committing ten experiences to a random portfolio, forced
+ * to disk by both engines.</li>
+ * </ul>
+ */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StoreEngineBenchmark {
+
+    /** Data generated once per trial, in a directory of the engine's own. */
+    @State(Scope.Benchmark)
+    public static class Data {
+
+        @Param({"sqlite", "log"})
+        public String engine;
+
+        @Param({"1000"})
+        public int portfolios;
+
+        Path directory;
+
+        @Setup(Level.Trial)
+        public void generate() throws IOException {
+            directory = Path.of("target", "bench-data", "store-" + engine + "-" + portfolios).toAbsolutePath();
+            FileSystemUtils.deleteRecursively(directory);
+            Files.createDirectories(directory);
+            boot("--profolix.seed.synthetic.enabled=true",
+                    "--profolix.seed.synthetic.profiles=" + portfolios,
+                    "--profolix.seed.synthetic.experiences=" + 5 * portfolios,
+                    "--profolix.seed.synthetic.projects=" + 5 * portfolios,
+                    "--profolix.seed.synthetic.skills=" + 10 * portfolios,
+                    "--profolix.seed.synthetic.education=" + 2 * portfolios,
+                    "--profolix.seed.synthetic.achievements=" + 2 * portfolios).close();
+        }
+
+        ConfigurableApplicationContext boot(String... extra) {
+            List<String> args = new ArrayList<>(List.of(
+                    "--spring.datasource.url=jdbc:sqlite:" + directory.resolve("resume.db"),
+                    "--spring.main.banner-mode=off",
+                    "--logging.level.root=warn",
+                    // startup measures the store, not the warm-up in front of readiness
+                    "--profolix.warmup.enabled=false",
+                    "--profolix.store.engine=" + engine,
+                    "--profolix.store.log.directory=" + directory.resolve("resume-store")));
+            args.addAll(List.of(extra));
+            return new SpringApplicationBuilder(ResumeApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .run(args.toArray(String[]::new));
+        }
+    }
+
+    /** The application running on the generated data. */
+    @State(Scope.Benchmark)
+    public static class Running {
+
+        ConfigurableApplicationContext context;
+        ResumeStore store;
+        long firstTenant;
+        int tenants;
+
+        @Setup(Level.Trial)
+        public void start(Data data) {
+            context = data.boot();
+            store = context.getBean(ResumeStore.class);
+            // The seeded profile comes first; the generated tenants take the ids after it
+            firstTenant = store.findFirstProfileId().orElseThrow() + 1;
+            tenants = data.portfolios;
+            if (store.load(firstTenant + tenants - 1).profile() == null) {
+                throw new IllegalStateException("Tenant ids are not contiguous");
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            context.close();
+        }
+
+        long tenant(SplittableRandom random) {
+            return firstTenant + random.nextInt(tenants);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Requests {
+        final SplittableRandom random = new SplittableRandom(42);
+    }
+
+    /** Closes the context a {@code startup} invocation booted, outside the measured time. */
+    @State(Scope.Thread)
+    public static class Booted {
+        ConfigurableApplicationContext context;
+
+        @TearDown(Level.Invocation)
+        public void stop() {
+            if (context != null) {
+                context.close();
+                context = null;
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Portfolio startup(Data data, Booted booted) {
+        booted.context = data.boot();
+        ResumeStore store = booted.context.getBean(ResumeStore.class);
+        return store.load(store.findFirstProfileId().orElseThrow() + 1);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    public Portfolio load(Running running, Requests requests) {
+        return running.store.load(running.tenant(requests.random));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    public List<Experience> page(Running running, Requests requests) {
+        return running.store.findExperiencePage(running.tenant(requests.random), Integer.MIN_VALUE, 0, 20);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void write(Running running, Requests requests) {
+        long owner = running.tenant(requests.random);
+        running.store.write(false, writer -> {
+            for (int i = 0; i < 10; i++) {
+                Experience e = new Experience();
+                e.setProfileId(owner);
+                e.setCompany("Benchmark Co");
+                e.setRole("Engineer");
+                e.setDescription("Written by the store engine benchmark.");
+                e.setSortOrder(1000 + i);
+                writer.insert(e);
+            }
+        });
+    }
+}
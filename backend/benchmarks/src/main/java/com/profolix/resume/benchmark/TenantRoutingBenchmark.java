@@ -0,0 +1,119 @@
+package com.profolix.resume.benchmark;
+
+import com.profolix.resume.ResumeApplication;
+import com.profolix.resume.controller.ResumeController;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Latency distribution of {@code GET /api/{slug}/resume} as the number of
+ * hosted portfolios grows. Each portfolio has a handful of rows, and the
+ * snapshot and body caches are sized well below what 10^5 portfolios need, so
+ * at that scale the caches have to choose what to keep.
+ *
+ * <p>{@code zipf} requests portfolios with Zipf-distributed popularity, as
+ * real traffic does; {@code uniform} spreads requests evenly and shows the
+ * cost of a cache miss, which loads the portfolio on the request thread. Run
+ * in sample-time mode and read the p0.99 row.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TenantRoutingBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Tenants {
+
+        @Param({"1000", "100000"})
+        public int tenants;
+
+        /** Zipf exponent for the {@code zipf} benchmark; 1 is the classic web-traffic skew. */
+        @Param({"1.0"})
+        public double skew;
+
+        ConfigurableApplicationContext context;
+        MockMvc mockMvc;
+        String[] paths;
+        double[] cumulative;
+
+        @Setup(Level.Trial)
+        public void start() throws IOException {
+            Path db = Path.of("target", "bench-data", "tenants-" + tenants + ".db").toAbsolutePath();
+            Files.createDirectories(db.getParent());
+            Files.deleteIfExists(db);
+
+            context = new SpringApplicationBuilder(ResumeApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .run(
+                            "--spring.datasource.url=jdbc:sqlite:" + db,
+                            "--spring.main.banner-mode=off",
+                            "--logging.level.root=warn",
+                            "--profolix.tenants.snapshot-cache-size=32MB",
+                            "--profolix.response-cache.max-size=32MB",
+                            "--profolix.seed.synthetic.enabled=true",
+                            "--profolix.seed.synthetic.profiles=" + tenants,
+                            "--profolix.seed.synthetic.experiences=" + tenants,
+                            "--profolix.seed.synthetic.projects=" + tenants,
+                            "--profolix.seed.synthetic.skills=" + 3 * tenants,
+                            "--profolix.seed.synthetic.education=" + tenants,
+                            "--profolix.seed.synthetic.achievements=" + tenants);
+
+            mockMvc = MockMvcBuilders.standaloneSetup(context.getBean(ResumeController.class)).build();
+            // The seeded profile is the default portfolio; the generated ones are the tenants
+            List<String> slugs = context.getBean(JdbcTemplate.class)
+                    .queryForList("SELECT slug FROM profiles WHERE id > 1 ORDER BY id", String.class);
+            paths = slugs.stream().map(slug -> "/api/" + slug + "/resume").toArray(String[]::new);
+
+            cumulative = new double[paths.length];
+            double sum = 0;
+            for (int rank = 0; rank < paths.length; rank++) {
+                sum += 1 / Math.pow(rank + 1, skew);
+                cumulative[rank] = sum;
+            }
+            for (int rank = 0; rank < paths.length; rank++) {
+                cumulative[rank] /= sum;
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            context.close();
+        }
+
+        String zipf(SplittableRandom random) {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble());
+            return paths[Math.min(rank < 0 ? -rank - 1 : rank, paths.length - 1)];
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Requests {
+        final SplittableRandom random = new SplittableRandom(42);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse zipf(Tenants tenants, Requests requests) throws Exception {
+        return tenants.mockMvc.perform(get(tenants.zipf(requests.random))).andReturn().getResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse uniform(Tenants tenants, Requests requests) throws Exception {
+        String path = tenants.paths[requests.random.nextInt(tenants.paths.length)];
+        return tenants.mockMvc.perform(get(path)).andReturn().getResponse();
+    }
+}
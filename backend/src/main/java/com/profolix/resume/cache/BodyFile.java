@@ -0,0 +1,262 @@
+package com.profolix.resume.cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * The file behind {@link DiskBodyCache}: serialized bodies as written by one
+ * checkpoint, mapped read-only and copied out on use.
+ *
+ * <pre>
+ * header  magic "PFXB", format, fingerprint (32 bytes), body count,
+ *         entry bytes, header crc32c
+ * entries [int length][int crc32c][entry], each:
+ *           data version, tenant, format ordinal, name (short length, UTF-8),
+ *           ETag (short length), coding count, per coding its name (byte
+ *           length) and bytes (int length), identity bytes (int length)
+ * </pre>
+ *
+ * The fingerprint identifies the build and store the bodies were written by;
+ * the file does not interpret it. Every entry is checked once, by
+ * {@link #forEach}, when the file is opened. Files are at most 2GB, one
+ * mapping.
+ */
+final class BodyFile {
+
+    static final int FINGERPRINT = 32;
+
+    private static final int MAGIC = 0x50465842;
+    private static final int FORMAT = 1;
+    private static final int HEADER = 4 + 4 + FINGERPRINT + 4 + 8 + 4;
+    private static final int ENTRY_HEADER = 2 * Integer.BYTES;
+    private static final BodyFormat[] FORMATS = BodyFormat.values();
+
+    private final Path path;
+    private final MappedByteBuffer map;
+    private final byte[] fingerprint;
+    private final int bodies;
+
+    private BodyFile(Path path, MappedByteBuffer map, byte[] fingerprint, int bodies) {
+        this.path = path;
+        this.map = map;
+        this.fingerprint = fingerprint;
+        this.bodies = bodies;
+    }
+
+    /**
+     * Maps {@code path} and checks its header.
+     *
+     * @throws IOException if it is not a complete body file
+     */
+    static BodyFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER || size > Integer.MAX_VALUE) {
+                throw new IOException("Body file " + path + " is " + size + " bytes");
+            }
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            CRC32C crc = new CRC32C();
+            crc.update(map.slice(0, HEADER - 4));
+            if (map.getInt(0) != MAGIC || map.getInt(4) != FORMAT || map.getInt(HEADER - 4) != (int) crc.getValue()) {
+                throw new IOException("Body file " + path + " has a damaged header");
+            }
+            byte[] fingerprint = new byte[FINGERPRINT];
+            map.get(8, fingerprint);
+            int bodies = map.getInt(8 + FINGERPRINT);
+            if (HEADER + map.getLong(12 + FINGERPRINT) != size) {
+                throw new IOException("Body file " + path + " is truncated");
+            }
+            return new BodyFile(path, map, fingerprint, bodies);
+        }
+    }
+
+    boolean hasFingerprint(byte[] expected) {
+        return Arrays.equals(fingerprint, expected);
+    }
+
+    int length() {
+        return map.capacity();
+    }
+
+    /** Entries, first to last. */
+    interface Visitor {
+        void body(long version, BodyKey key, int offset);
+    }
+
+    /**
+     * Checks and visits every entry.
+     *
+     * @throws IOException at the first entry that is damaged, after visiting those before it
+     */
+    void forEach(Visitor visitor) throws IOException {
+        CRC32C crc = new CRC32C();
+        int offset = HEADER;
+        for (int i = 0; i < bodies; i++) {
+            int length = offset + ENTRY_HEADER <= map.capacity() ? map.getInt(offset) : -1;
+            if (length < 0 || length > map.capacity() - offset - ENTRY_HEADER) {
+                throw new IOException("Body file " + path + " is damaged at " + offset);
+            }
+            crc.reset();
+            crc.update(map.slice(offset + ENTRY_HEADER, length));
+            if ((int) crc.getValue() != map.getInt(offset + Integer.BYTES)) {
+                throw new IOException("Body file " + path + " is damaged at " + offset);
+            }
+            ByteBuffer entry = map.slice(offset + ENTRY_HEADER, length);
+            long version = entry.getLong();
+            long tenant = entry.getLong();
+            BodyFormat format = FORMATS[entry.get()];
+            visitor.body(version, new BodyKey(tenant, string(entry, entry.getShort()), format), offset);
+            offset += ENTRY_HEADER + length;
+        }
+    }
+
+    /** The body at {@code offset}, served as current for {@code version}. */
+    CachedBody read(int offset, long version) {
+        ByteBuffer entry = map.slice(offset + ENTRY_HEADER, map.getInt(offset));
+        // Version, tenant and format
+        entry.position(2 * Long.BYTES + 1);
+        int name = entry.getShort();
+        entry.position(entry.position() + name);
+        String etag = string(entry, entry.getShort());
+        int codings = entry.get();
+        Map<String, byte[]> encoded = new LinkedHashMap<>();
+        for (int i = 0; i < codings; i++) {
+            String coding = string(entry, entry.get());
+            encoded.put(coding, bytes(entry, entry.getInt()));
+        }
+        return new CachedBody(version, bytes(entry, entry.getInt()), etag, Collections.unmodifiableMap(encoded));
+    }
+
+    private static String string(ByteBuffer entry, int length) {
+        return new String(bytes(entry, length), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] bytes(ByteBuffer entry, int length) {
+        byte[] bytes = new byte[length];
+        entry.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Writes a body file: entries as they come, up to a size limit, and the
+     * header last.
+     */
+    static final class Writer implements AutoCloseable {
+
+        private static final int BUFFER_SIZE = 1 << 20;
+
+        private final FileChannel channel;
+        private final byte[] fingerprint;
+        private final long limit;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private final CRC32C crc = new CRC32C();
+        private long written = HEADER;
+        private int bodies;
+
+        Writer(Path path, byte[] fingerprint, long limit) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE);
+            this.fingerprint = fingerprint;
+            this.limit = Math.min(limit, Integer.MAX_VALUE);
+        }
+
+        /** Appends {@code body} and returns its offset, or -1 if it would take the file past its limit. */
+        int write(BodyKey key, CachedBody body) throws IOException {
+            byte[] name = key.name().getBytes(StandardCharsets.UTF_8);
+            if (name.length > Short.MAX_VALUE) {
+                return -1;
+            }
+            byte[] etag = body.getEtag().getBytes(StandardCharsets.US_ASCII);
+            int length = 2 * Long.BYTES + 1 + Short.BYTES + name.length + Short.BYTES + etag.length + 1
+                    + Integer.BYTES + body.getBytes().length;
+            for (String coding : body.getEncodings()) {
+                length += 1 + coding.length() + Integer.BYTES + body.getBytes(coding).length;
+            }
+            ByteBuffer entry = ByteBuffer.allocate(length);
+            entry.putLong(body.getVersion()).putLong(key.tenant()).put((byte) key.format().ordinal())
+                    .putShort((short) name.length).put(name)
+                    .putShort((short) etag.length).put(etag)
+                    .put((byte) body.getEncodings().size());
+            for (String coding : body.getEncodings()) {
+                byte[] variant = body.getBytes(coding);
+                entry.put((byte) coding.length()).put(coding.getBytes(StandardCharsets.US_ASCII))
+                        .putInt(variant.length).put(variant);
+            }
+            entry.putInt(body.getBytes().length).put(body.getBytes());
+            return append(entry.array());
+        }
+
+        /**
+         * Appends the entry at {@code offset} of another file, restamped with
+         * {@code version}, and returns its new offset, or -1 if it would take
+         * the file past its limit.
+         */
+        int copy(BodyFile from, int offset, long version) throws IOException {
+            byte[] entry = new byte[from.map.getInt(offset)];
+            from.map.get(offset + ENTRY_HEADER, entry);
+            ByteBuffer.wrap(entry).putLong(0, version);
+            return append(entry);
+        }
+
+        /** Writes out the header and forces the file to disk. */
+        void finish() throws IOException {
+            flush();
+            ByteBuffer header = ByteBuffer.allocate(HEADER);
+            header.putInt(MAGIC).putInt(FORMAT).put(fingerprint).putInt(bodies).putLong(written - HEADER);
+            crc.reset();
+            crc.update(header.array(), 0, HEADER - 4);
+            header.putInt((int) crc.getValue()).flip();
+            write(header, 0);
+            channel.force(true);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        private int append(byte[] entry) throws IOException {
+            long offset = written + buffer.position();
+            if (offset + ENTRY_HEADER + entry.length > limit) {
+                return -1;
+            }
+            crc.reset();
+            crc.update(entry);
+            if (ENTRY_HEADER + entry.length > buffer.remaining()) {
+                flush();
+            }
+            if (ENTRY_HEADER + entry.length > buffer.capacity()) {
+                ByteBuffer large = ByteBuffer.allocate(ENTRY_HEADER + entry.length);
+                large.putInt(entry.length).putInt((int) crc.getValue()).put(entry).flip();
+                written = write(large, written);
+            } else {
+                buffer.putInt(entry.length).putInt((int) crc.getValue()).put(entry);
+            }
+            bodies++;
+            return (int) offset;
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            written = write(buffer, written);
+            buffer.clear();
+        }
+
+        private long write(ByteBuffer bytes, long position) throws IOException {
+            while (bytes.hasRemaining()) {
+                position += channel.write(bytes, position);
+            }
+            return position;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.profolix.resume.cache;
+
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+/**
+ * The representations a cached body can be serialized to, negotiated from the
+ * {@code Accept} header. JSON stays the default, so clients that send no
+ * {@code Accept}, or a wildcard, see no change.
+ */
+public enum BodyFormat {
+    JSON(MediaType.APPLICATION_JSON),
+    CBOR(MediaType.parseMediaType("application/cbor")),
+    SMILE(MediaType.parseMediaType("application/x-jackson-smile")),
+    PROTOBUF(MediaType.parseMediaType("application/x-protobuf"));
+
+    private static final BodyFormat[] VALUES = values();
+
+    private final MediaType mediaType;
+
+    BodyFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Picks the format for the media ranges of an {@code Accept} header. Each
+     * format takes the quality of the most specific range that includes it;
+     * the highest quality wins and ties go to declaration order. Falls back to
+     * JSON when nothing is acceptable, as the endpoints always did.
+     */
+    public static BodyFormat negotiate(List<MediaType> accepted) {
+        if (accepted.isEmpty()) {
+            return JSON;
+        }
+        BodyFormat best = JSON;
+        double bestQ = 0;
+        for (BodyFormat format : VALUES) {
+            double q = quality(format.mediaType, accepted);
+            if (q > bestQ) {
+                best = format;
+                bestQ = q;
+            }
+        }
+        return best;
+    }
+
+    private static double quality(MediaType mediaType, List<MediaType> accepted) {
+        MediaType match = null;
+        for (MediaType range : accepted) {
+            if (range.includes(mediaType) && (match == null || specificity(range) > specificity(match))) {
+                match = range;
+            }
+        }
+        return match == null ? 0 : match.getQualityValue();
+    }
+
+    private static int specificity(MediaType range) {
+        return range.isWildcardType() ? 0 : range.isWildcardSubtype() ? 1 : 2;
+    }
+}
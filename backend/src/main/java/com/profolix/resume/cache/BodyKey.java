@@ -0,0 +1,8 @@
+package com.profolix.resume.cache;
+
+/**
+ * What a cached body is stored under: the portfolio it belongs to, the
+ * endpoint's name within it, and the format it is serialized in.
+ */
+record BodyKey(long tenant, String name, BodyFormat format) {
+}
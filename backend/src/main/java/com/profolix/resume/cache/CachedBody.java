@@ -0,0 +1,88 @@
+package com.profolix.resume.cache;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A response body serialized once for a given data version, together with the
+ * strong ETag derived from its content and its pre-compressed variants.
+ */
+public class CachedBody {
+
+    private final long version;
+    private final byte[] bytes;
+    private final String etag;
+    private final Map<String, byte[]> encoded;
+
+    public CachedBody(long version, byte[] bytes) {
+        this.version = version;
+        this.bytes = bytes;
+        this.etag = contentHash(bytes);
+        this.encoded = ContentCodings.encodeAll(bytes);
+    }
+
+    /**
+     * A body whose ETag and variants are already known: read back from disk,
+     * or built a step at a time by {@link ResponseBodyCache} to time each.
+     */
+    CachedBody(long version, byte[] bytes, String etag, Map<String, byte[]> encoded) {
+        this.version = version;
+        this.bytes = bytes;
+        this.etag = etag;
+        this.encoded = encoded;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public Set<String> getEncodings() {
+        return encoded.keySet();
+    }
+
+    /** Bytes held for this body, identity and compressed variants together. */
+    public int getRetainedSize() {
+        int size = bytes.length;
+        for (byte[] variant : encoded.values()) {
+            size += variant.length;
+        }
+        return size;
+    }
+
+    /**
+     * Returns the body compressed with {@code coding}, or the identity bytes
+     * when {@code coding} is {@code null}.
+     */
+    public byte[] getBytes(String coding) {
+        return coding == null ? bytes : encoded.get(coding);
+    }
+
+    /**
+     * Each encoding is a distinct representation, so it gets its own strong
+     * ETag derived from the identity one.
+     */
+    public String getEtag(String coding) {
+        return coding == null ? etag : etag.substring(0, etag.length() - 1) + "-" + coding + "\"";
+    }
+
+    static String contentHash(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            // 128 bits is plenty to tell two versions of the same endpoint apart
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.profolix.resume.cache;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses cached bodies and negotiates {@code Accept-Encoding}. Compression
+ * runs once per body at maximum level, since the result is reused for every
+ * request until the data version changes.
+ */
+public final class ContentCodings {
+
+    public static final String BROTLI = "br";
+    public static final String GZIP = "gzip";
+
+    // Bodies smaller than this are not worth the Content-Encoding overhead
+    private static final int MIN_SIZE = 256;
+
+    private static final boolean BROTLI_AVAILABLE = Brotli4jLoader.isAvailable();
+
+    private ContentCodings() {
+    }
+
+    /**
+     * Encodes {@code bytes} with every supported coding that actually shrinks
+     * it, in server preference order.
+     */
+    static Map<String, byte[]> encodeAll(byte[] bytes) {
+        if (bytes.length < MIN_SIZE) {
+            return Map.of();
+        }
+        Map<String, byte[]> encoded = new LinkedHashMap<>();
+        if (BROTLI_AVAILABLE) {
+            putIfSmaller(encoded, BROTLI, brotli(bytes), bytes.length);
+        }
+        putIfSmaller(encoded, GZIP, gzip(bytes), bytes.length);
+        return Collections.unmodifiableMap(encoded);
+    }
+
+    /**
+     * Picks the coding to send for an {@code Accept-Encoding} header, or
+     * {@code null} for identity. Higher q-values win; ties go to the order of
+     * {@code available}.
+     */
+    public static String negotiate(String acceptEncoding, Set<String> available) {
+        if (acceptEncoding == null || available.isEmpty()) {
+            return null;
+        }
+        Map<String, Double> accepted = parse(acceptEncoding);
+        String best = null;
+        double bestQ = 0;
+        for (String coding : available) {
+            double q = accepted.getOrDefault(coding, accepted.getOrDefault("*", 0.0));
+            if (q > bestQ) {
+                best = coding;
+                bestQ = q;
+            }
+        }
+        return best;
+    }
+
+    private static Map<String, Double> parse(String acceptEncoding) {
+        Map<String, Double> accepted = new HashMap<>();
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.split(";");
+            String coding = params[0].trim().toLowerCase(Locale.ROOT);
+            if (coding.isEmpty()) {
+                continue;
+            }
+            double q = 1.0;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        q = Double.parseDouble(param.substring(2));
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            accepted.put(coding, q);
+        }
+        return accepted;
+    }
+
+    private static void putIfSmaller(Map<String, byte[]> encoded, String coding, byte[] bytes, int originalLength) {
+        if (bytes.length < originalLength) {
+            encoded.put(coding, bytes);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] brotli(byte[] bytes) {
+        try {
+            return Encoder.compress(bytes, new Encoder.Parameters().setQuality(11));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
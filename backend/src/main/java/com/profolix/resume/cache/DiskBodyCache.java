@@ -0,0 +1,311 @@
+package com.profolix.resume.cache;
+
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.profolix.resume.store.ResumeStore;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.info.BuildProperties;
+import org.springframework.boot.system.ApplicationHome;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.EnumerablePropertySource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.ZipFile;
+
+/**
+ * The second tier of {@link ResponseBodyCache}: serialized bodies kept in a
+ * memory-mapped {@link BodyFile}, so a restarted instance serves its first
+ * requests without serializing or compressing anything.
+ *
+ * <p>The file is rewritten whole by {@link #checkpoint}, which
+ * {@code ResponseBodyCache} calls periodically and on shutdown with the bodies
+ * it holds; bodies only in the file are carried over, up to
+ * {@code profolix.response-cache.disk.max-size}. The new file replaces the old
+ * one by rename, so a crash leaves one or the other whole.
+ *
+ * <p>On startup the file is checked against the store before anything is
+ * served from it. It is dropped whole if it was written by another build, for
+ * another {@link ResumeStore#storeId store}, or holds a version the store has
+ * not reached. Otherwise, bodies of portfolios written since the
+ * oldest body in the file are dropped and the rest are served as current for
+ * the store's version.
+ *
+ * <p>The build is told apart by its {@link BuildProperties}, when the jar has
+ * them, and by the content of the application's classes: every file of an
+ * exploded class directory, or the CRC of every entry of the jar. The
+ * serialization settings are part of it too, the {@code spring.jackson.*}
+ * properties and the features and modules of the {@code ObjectMapper}, as are
+ * the {@link BodyFormat}s, since entries store a format by ordinal.
+ */
+@Component
+@ConditionalOnProperty(prefix = "profolix.response-cache.disk", name = "enabled", havingValue = "true",
+        matchIfMissing = true)
+public class DiskBodyCache implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(DiskBodyCache.class);
+
+    private static final String JACKSON_PROPERTIES = "spring.jackson.";
+
+    private final ResumeStore store;
+    private final ObjectMapper objectMapper;
+    private final ConfigurableEnvironment environment;
+    // Empty when the jar was built without build-info
+    private final Optional<BuildProperties> build;
+    private final Path path;
+    private final long maxSize;
+    // Set once the store is open
+    private byte[] fingerprint;
+    private final ReentrantLock checkpointLock = new ReentrantLock();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong checkpoints = new AtomicLong();
+    private volatile Contents contents = Contents.EMPTY;
+
+    /** Where each body in {@code file} is, and the version it is current for. */
+    private record Contents(BodyFile file, Map<BodyKey, Slot> slots) {
+        static final Contents EMPTY = new Contents(null, Map.of());
+    }
+
+    private record Slot(long version, int offset) {
+    }
+
+    public DiskBodyCache(ResumeStore store, ObjectMapper objectMapper, ConfigurableEnvironment environment,
+            Optional<BuildProperties> build,
+            @Value("${profolix.response-cache.disk.path:response-cache.dat}") Path path,
+            @Value("${profolix.response-cache.disk.max-size:512MB}") DataSize maxSize) {
+        if (maxSize.toBytes() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("profolix.response-cache.disk.max-size must be under 2GB");
+        }
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.environment = environment;
+        this.build = build;
+        this.path = path;
+        this.maxSize = maxSize.toBytes();
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        fingerprint = fingerprint();
+        // Left by a checkpoint that did not finish
+        Files.deleteIfExists(temporary());
+        if (!Files.exists(path)) {
+            return;
+        }
+        BodyFile file;
+        Map<BodyKey, Slot> stored = new HashMap<>();
+        try {
+            file = BodyFile.open(path);
+            if (!file.hasFingerprint(fingerprint)) {
+                logger.info("Response cache: {} was written by another build or store, ignoring it", path);
+                return;
+            }
+            file.forEach((version, key, offset) -> stored.put(key, new Slot(version, offset)));
+        } catch (IOException e) {
+            logger.warn("Response cache: ignoring {}: {}", path, e.getMessage());
+            return;
+        }
+        long current = store.currentVersion();
+        long oldest = Long.MAX_VALUE;
+        for (Slot slot : stored.values()) {
+            if (slot.version() > current) {
+                logger.info("Response cache: {} is ahead of the store, ignoring it", path);
+                return;
+            }
+            oldest = Math.min(oldest, slot.version());
+        }
+        Set<Long> changed = oldest < current ? store.tenantsChangedSince(oldest).profileIds() : Set.of();
+        Map<BodyKey, Slot> slots = new HashMap<>();
+        stored.forEach((key, slot) -> {
+            // Changed at some version after the oldest body; unless this one was built since, it may be stale
+            if (slot.version() == current || !changed.contains(key.tenant())) {
+                slots.put(key, new Slot(current, slot.offset()));
+            }
+        });
+        contents = new Contents(file, slots);
+        logger.info("Response cache: {} of {} bodies in {} current at version {}", slots.size(), stored.size(),
+                path, current);
+    }
+
+    /**
+     * Returns the body stored under {@code key} if it is current for
+     * {@code version} or a later one, copied out of the file.
+     */
+    CachedBody get(BodyKey key, long version) {
+        Contents current = contents;
+        Slot slot = current.slots().get(key);
+        if (slot == null || slot.version() < version) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return current.file().read(slot.offset(), slot.version());
+    }
+
+    /**
+     * Rewrites the file with {@code bodies}, then whatever else the file held
+     * that still fits. A failure is reported and leaves the previous file in
+     * place.
+     */
+    void checkpoint(Map<BodyKey, CachedBody> bodies) {
+        checkpointLock.lock();
+        try {
+            Contents previous = contents;
+            Path tmp = temporary();
+            Map<BodyKey, Slot> slots = new HashMap<>();
+            try (BodyFile.Writer writer = new BodyFile.Writer(tmp, fingerprint, maxSize)) {
+                for (Map.Entry<BodyKey, CachedBody> e : bodies.entrySet()) {
+                    Slot stored = previous.slots().get(e.getKey());
+                    CachedBody body = e.getValue();
+                    if (stored == null || stored.version() <= body.getVersion()) {
+                        put(slots, e.getKey(), body.getVersion(), writer.write(e.getKey(), body));
+                    }
+                }
+                for (Map.Entry<BodyKey, Slot> e : previous.slots().entrySet()) {
+                    Slot slot = e.getValue();
+                    if (!slots.containsKey(e.getKey())) {
+                        put(slots, e.getKey(), slot.version(), writer.copy(previous.file(), slot.offset(),
+                                slot.version()));
+                    }
+                }
+                writer.finish();
+            }
+            // Not made durable with a directory fsync: losing the rename only costs a colder start
+            Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            contents = new Contents(BodyFile.open(path), slots);
+            checkpoints.incrementAndGet();
+        } catch (IOException e) {
+            logger.warn("Response cache checkpoint failed", e);
+            try {
+                Files.deleteIfExists(temporary());
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+        } finally {
+            checkpointLock.unlock();
+        }
+    }
+
+    /** Stops serving from the file; the next checkpoint writes only what it is given. */
+    void clear() {
+        contents = Contents.EMPTY;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("profolix.response-cache.disk.bodies", this, cache -> cache.contents.slots().size())
+                .description("Bodies that can be served from the response cache file")
+                .register(registry);
+        Gauge.builder("profolix.response-cache.disk.size", this, DiskBodyCache::getFileBytes)
+                .description("Bytes in the memory-mapped response cache file")
+                .baseUnit("bytes")
+                .register(registry);
+        FunctionCounter.builder("profolix.response-cache.disk.hits", hits, AtomicLong::get)
+                .description("Bodies missing from the heap that were served from the file")
+                .register(registry);
+        FunctionCounter.builder("profolix.response-cache.disk.misses", misses, AtomicLong::get)
+                .description("Bodies missing from both the heap and the file")
+                .register(registry);
+        FunctionCounter.builder("profolix.response-cache.disk.checkpoints", checkpoints, AtomicLong::get)
+                .description("Rewrites of the response cache file")
+                .register(registry);
+    }
+
+    private long getFileBytes() {
+        BodyFile file = contents.file();
+        return file == null ? 0 : file.length();
+    }
+
+    private Path temporary() {
+        return path.resolveSibling(path.getFileName() + ".tmp");
+    }
+
+    private static void put(Map<BodyKey, Slot> slots, BodyKey key, long version, int offset) {
+        if (offset >= 0) {
+            slots.put(key, new Slot(version, offset));
+        }
+    }
+
+    private byte[] fingerprint() throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        update(digest, store.storeId());
+        build.ifPresent(info -> update(digest, info.getGroup() + ":" + info.getArtifact() + ":" + info.getVersion()
+                + " " + info.getTime()));
+        File classes = new ApplicationHome(DiskBodyCache.class).getSource();
+        if (classes != null) {
+            digestClasses(digest, classes.toPath());
+        }
+        // Dependency jars are named by version; the application's own jar holds them when run from it
+        update(digest, System.getProperty("java.class.path"));
+
+        SortedMap<String, String> jackson = new TreeMap<>();
+        for (var source : environment.getPropertySources()) {
+            if (source instanceof EnumerablePropertySource<?> enumerable) {
+                for (String name : enumerable.getPropertyNames()) {
+                    if (name.startsWith(JACKSON_PROPERTIES)) {
+                        // The resolved value, so a source taking precedence over this one wins
+                        jackson.putIfAbsent(name, environment.getProperty(name));
+                    }
+                }
+            }
+        }
+        update(digest, jackson.toString());
+        var config = objectMapper.getSerializationConfig();
+        update(digest, config.getSerializationFeatures() + " " + config.getSerializationInclusion() + " "
+                + new TreeSet<>(objectMapper.getRegisteredModuleIds().stream().map(String::valueOf).toList()));
+        for (MapperFeature feature : MapperFeature.values()) {
+            update(digest, feature + "=" + config.isEnabled(feature));
+        }
+        update(digest, Arrays.toString(BodyFormat.values()));
+        return digest.digest();
+    }
+
+    /** Adds the content of an exploded class directory, or of a jar by its entries' CRCs. */
+    private static void digestClasses(MessageDigest digest, Path classes) throws IOException {
+        if (Files.isDirectory(classes)) {
+            List<Path> files;
+            try (Stream<Path> walk = Files.walk(classes)) {
+                files = walk.filter(Files::isRegularFile).sorted().toList();
+            }
+            for (Path file : files) {
+                update(digest, classes.relativize(file).toString());
+                digest.update(Files.readAllBytes(file));
+            }
+        } else if (Files.isRegularFile(classes)) {
+            // Read from the central directory, so a large jar costs no more than listing it
+            try (ZipFile jar = new ZipFile(classes.toFile())) {
+                jar.stream().forEach(entry -> update(digest, entry.getName() + " " + entry.getCrc()));
+            }
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(("\n" + value).getBytes(StandardCharsets.UTF_8));
+    }
+}
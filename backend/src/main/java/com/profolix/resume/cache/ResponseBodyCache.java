@@ -0,0 +1,178 @@
+package com.profolix.resume.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.profolix.resume.metrics.RequestTimings;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Holds the serialized bodies of each endpoint, keyed by portfolio, endpoint
+ * name and {@link BodyFormat}. A body is rebuilt only when the data version it was built
+ * for is no longer current, so steady-state requests are served without
+ * touching the repositories or Jackson. Versions are compared per key, since
+ * each portfolio's bodies move with its own snapshot.
+ *
+ * <p>The cache is bounded by the bytes it holds, {@code profolix.response-cache.max-size};
+ * with many portfolios, the bodies of rarely requested ones are evicted first.
+ * Behind it, unless {@code profolix.response-cache.disk.enabled=false}, is a
+ * {@link DiskBodyCache}: a body missing here is looked for there before it is
+ * built, and what is held here is checkpointed to it every
+ * {@code profolix.response-cache.disk.checkpoint-interval} in which a body was
+ * built, and on shutdown.
+ *
+ * <p>CBOR and Smile are written by copies of the application's
+ * {@code ObjectMapper}, so they carry the same modules and features as JSON;
+ * Protobuf is written by {@link ResumeProtobuf}.
+ *
+ * <p>Concurrent requests for a body that is still being built wait on the same
+ * future instead of building it again. Waiting on a future rather than a
+ * monitor keeps virtual threads from pinning their carrier while the loader
+ * blocks on JDBC.
+ */
+@Component
+public class ResponseBodyCache {
+
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper cborMapper;
+    private final ObjectMapper smileMapper;
+    private final AsyncCache<BodyKey, CachedBody> bodies;
+    // Null with profolix.response-cache.disk.enabled=false
+    private final DiskBodyCache disk;
+    private final AtomicLong built = new AtomicLong();
+    private volatile long checkpointed;
+
+    public ResponseBodyCache(ObjectMapper objectMapper, MeterRegistry meterRegistry, Optional<DiskBodyCache> disk,
+            @Value("${profolix.response-cache.max-size:128MB}") DataSize maxSize) {
+        this.objectMapper = objectMapper;
+        this.disk = disk.orElse(null);
+        this.cborMapper = objectMapper.copyWith(new CBORFactory());
+        this.smileMapper = objectMapper.copyWith(new SmileFactory());
+        this.bodies = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((BodyKey key, CachedBody body) -> body.getRetainedSize())
+                .recordStats()
+                .buildAsync(), "response.bodies");
+    }
+
+    /**
+     * Returns the body cached under {@code key} of the portfolio {@code tenant}
+     * for {@code version} in {@code format}, from the heap, else from disk,
+     * else by serializing the loader's result. A loader
+     * returning {@code null} means there is nothing to serve; {@code null} is
+     * returned and nothing is cached.
+     *
+     * @throws UnsupportedFormatException if the loader's result has no
+     *         representation in {@code format}
+     */
+    public CachedBody get(long tenant, String key, BodyFormat format, long version, Supplier<?> loader) {
+        BodyKey cacheKey = new BodyKey(tenant, key, format);
+        while (true) {
+            CompletableFuture<CachedBody> cached = bodies.getIfPresent(cacheKey);
+            if (cached != null) {
+                CachedBody body = cached.join();
+                // A newer body is as good as the requested one, and a request holding an older snapshot
+                // must not replace it
+                if (body == null || body.getVersion() >= version) {
+                    return body;
+                }
+            }
+            CompletableFuture<CachedBody> created = new CompletableFuture<>();
+            boolean installed = cached == null ? bodies.asMap().putIfAbsent(cacheKey, created) == null
+                    : bodies.asMap().replace(cacheKey, cached, created);
+            if (!installed) {
+                continue;
+            }
+            try {
+                CachedBody body = disk == null ? null : disk.get(cacheKey, version);
+                if (body == null) {
+                    Object value = loader.get();
+                    // A null body is dropped from the cache as soon as it completes
+                    body = value == null ? null : build(format, version, value);
+                }
+                created.complete(body);
+                return body;
+            } catch (RuntimeException | Error e) {
+                bodies.asMap().remove(cacheKey, created);
+                created.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    public void clear() {
+        bodies.synchronous().invalidateAll();
+        if (disk != null) {
+            disk.clear();
+        }
+    }
+
+    /** Writes the bodies held here to disk, if any was built since the last time. */
+    @Scheduled(fixedDelayString = "${profolix.response-cache.disk.checkpoint-interval:PT1M}",
+            initialDelayString = "${profolix.response-cache.disk.checkpoint-interval:PT1M}")
+    public void checkpoint() {
+        long count = built.get();
+        if (disk == null || count == checkpointed) {
+            return;
+        }
+        checkpointed = count;
+        Map<BodyKey, CachedBody> held = new HashMap<>();
+        bodies.asMap().forEach((key, future) -> {
+            // Skips bodies still being built, failed builds and nulls
+            CachedBody body = future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+            if (body != null) {
+                held.put(key, body);
+            }
+        });
+        disk.checkpoint(held);
+    }
+
+    @PreDestroy
+    public void close() {
+        checkpoint();
+    }
+
+    private CachedBody build(BodyFormat format, long version, Object value) {
+        long start = System.nanoTime();
+        byte[] bytes = serialize(format, value);
+        long serialized = System.nanoTime();
+        String etag = CachedBody.contentHash(bytes);
+        long hashed = System.nanoTime();
+        CachedBody body = new CachedBody(version, bytes, etag, ContentCodings.encodeAll(bytes));
+        built.incrementAndGet();
+        RequestTimings.recordSerialization(serialized - start);
+        RequestTimings.recordHashing(hashed - serialized);
+        RequestTimings.recordCompression(System.nanoTime() - hashed);
+        return body;
+    }
+
+    private byte[] serialize(BodyFormat format, Object value) {
+        try {
+            return switch (format) {
+                case JSON -> objectMapper.writeValueAsBytes(value);
+                case CBOR -> cborMapper.writeValueAsBytes(value);
+                case SMILE -> smileMapper.writeValueAsBytes(value);
+                case PROTOBUF -> ResumeProtobuf.encode(value);
+            };
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
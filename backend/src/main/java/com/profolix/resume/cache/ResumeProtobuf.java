@@ -0,0 +1,391 @@
+package com.profolix.resume.cache;
+
+import com.google.protobuf.CodedOutputStream;
+import com.profolix.resume.model.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes the resume models in the wire format of {@code src/main/proto/resume.proto}.
+ * The bodies are written straight from the entities rather than through
+ * generated message classes, which would mean copying every row into a
+ * builder first and running {@code protoc} in the build.
+ *
+ * <p>Each message is written in two passes: its size is computed up front so
+ * nested messages can be length-prefixed without buffering. As in proto3,
+ * fields holding their default value (null or empty string, zero, false) are
+ * omitted.
+ */
+public final class ResumeProtobuf {
+
+    private ResumeProtobuf() {
+    }
+
+    /**
+     * Encodes a body the read endpoints serve: one of the six models, a list of
+     * them, skills grouped by category, or the whole {@link Resume}.
+     *
+     * @throws UnsupportedFormatException for any other value
+     */
+    public static byte[] encode(Object value) {
+        Message<Object> message = messageFor(value);
+        byte[] bytes = new byte[message.size(value)];
+        CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+        try {
+            message.write(out, value);
+            out.checkNoSpaceLeft();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Message<Object> messageFor(Object value) {
+        Message<?> message;
+        if (value instanceof Resume) {
+            message = RESUME;
+        } else if (value instanceof SkillsByCategory) {
+            message = SKILLS_BY_CATEGORY;
+        } else if (value instanceof List<?> list) {
+            message = list.isEmpty() ? EMPTY : listOf(singleFor(list.get(0)), list);
+        } else {
+            message = singleFor(value);
+        }
+        if (message == null) {
+            throw new UnsupportedFormatException("No protobuf message for " + value.getClass().getSimpleName());
+        }
+        return (Message<Object>) message;
+    }
+
+    private static Message<?> singleFor(Object value) {
+        if (value instanceof Profile) {
+            return PROFILE;
+        } else if (value instanceof Experience) {
+            return EXPERIENCE;
+        } else if (value instanceof Skill) {
+            return SKILL;
+        } else if (value instanceof Project) {
+            return PROJECT;
+        } else if (value instanceof Education) {
+            return EDUCATION;
+        } else if (value instanceof Achievement) {
+            return ACHIEVEMENT;
+        }
+        return null;
+    }
+
+    private static Message<?> listOf(Message<?> element, List<?> list) {
+        if (element == null) {
+            return null;
+        }
+        for (Object item : list) {
+            if (singleFor(item) != element) {
+                return null;
+            }
+        }
+        return new Repeated<>(element);
+    }
+
+    /** Size and encoding of one message type, without its tag and length prefix. */
+    private interface Message<T> {
+
+        int size(T value);
+
+        void write(CodedOutputStream out, T value) throws IOException;
+    }
+
+    /** A message whose only field, number 1, repeats {@code element}: the {@code *List} messages. */
+    private record Repeated<T>(Message<T> element) implements Message<List<T>> {
+
+        @Override
+        public int size(List<T> items) {
+            return repeatedSize(1, element, items);
+        }
+
+        @Override
+        public void write(CodedOutputStream out, List<T> items) throws IOException {
+            writeRepeated(out, 1, element, items);
+        }
+    }
+
+    private static final Message<Object> EMPTY = new Message<>() {
+
+        @Override
+        public int size(Object value) {
+            return 0;
+        }
+
+        @Override
+        public void write(CodedOutputStream out, Object value) {
+        }
+    };
+
+    private static final Message<Profile> PROFILE = new Message<>() {
+
+        @Override
+        public int size(Profile p) {
+            return int64Size(1, p.getId()) + stringSize(2, p.getFullName()) + stringSize(3, p.getTitle())
+                    + stringSize(4, p.getSubtitle()) + stringSize(5, p.getEmail()) + stringSize(6, p.getPhone())
+                    + stringSize(7, p.getLocation()) + stringSize(8, p.getLinkedIn()) + stringSize(9, p.getGithub())
+                    + stringSize(10, p.getPortfolio()) + stringSize(11, p.getBio())
+                    + stringSize(12, p.getProfileImageUrl()) + int32Size(13, p.getYearsOfExperience())
+                    + int32Size(14, p.getProjectsCompleted()) + int32Size(15, p.getCompaniesWorked())
+                    + int32Size(16, p.getCertificationsEarned()) + stringSize(17, p.getSlug());
+        }
+
+        @Override
+        public void write(CodedOutputStream out, Profile p) throws IOException {
+            writeInt64(out, 1, p.getId());
+            writeString(out, 2, p.getFullName());
+            writeString(out, 3, p.getTitle());
+            writeString(out, 4, p.getSubtitle());
+            writeString(out, 5, p.getEmail());
+            writeString(out, 6, p.getPhone());
+            writeString(out, 7, p.getLocation());
+            writeString(out, 8, p.getLinkedIn());
+            writeString(out, 9, p.getGithub());
+            writeString(out, 10, p.getPortfolio());
+            writeString(out, 11, p.getBio());
+            writeString(out, 12, p.getProfileImageUrl());
+            writeInt32(out, 13, p.getYearsOfExperience());
+            writeInt32(out, 14, p.getProjectsCompleted());
+            writeInt32(out, 15, p.getCompaniesWorked());
+            writeInt32(out, 16, p.getCertificationsEarned());
+            writeString(out, 17, p.getSlug());
+        }
+    };
+
+    private static final Message<Experience> EXPERIENCE = new Message<>() {
+
+        @Override
+        public int size(Experience e) {
+            return int64Size(1, e.getId()) + stringSize(2, e.getCompany()) + stringSize(3, e.getRole())
+                    + stringSize(4, e.getStartDate()) + stringSize(5, e.getEndDate()) + stringSize(6, e.getLocation())
+                    + stringSize(7, e.getDescription()) + stringSize(8, e.getTechnologies())
+                    + stringSize(9, e.getLogoUrl()) + boolSize(10, e.isCurrent()) + int32Size(11, e.getSortOrder());
+        }
+
+        @Override
+        public void write(CodedOutputStream out, Experience e) throws IOException {
+            writeInt64(out, 1, e.getId());
+            writeString(out, 2, e.getCompany());
+            writeString(out, 3, e.getRole());
+            writeString(out, 4, e.getStartDate());
+            writeString(out, 5, e.getEndDate());
+            writeString(out, 6, e.getLocation());
+            writeString(out, 7, e.getDescription());
+            writeString(out, 8, e.getTechnologies());
+            writeString(out, 9, e.getLogoUrl());
+            writeBool(out, 10, e.isCurrent());
+            writeInt32(out, 11, e.getSortOrder());
+        }
+    };
+
+    private static final Message<Skill> SKILL = new Message<>() {
+
+        @Override
+        public int size(Skill s) {
+            return int64Size(1, s.getId()) + stringSize(2, s.getName()) + stringSize(3, s.getCategory())
+                    + int32Size(4, s.getProficiency()) + stringSize(5, s.getIconName());
+        }
+
+        @Override
+        public void write(CodedOutputStream out, Skill s) throws IOException {
+            writeInt64(out, 1, s.getId());
+            writeString(out, 2, s.getName());
+            writeString(out, 3, s.getCategory());
+            writeInt32(out, 4, s.getProficiency());
+            writeString(out, 5, s.getIconName());
+        }
+    };
+
+    private static final Message<Project> PROJECT = new Message<>() {
+
+        @Override
+        public int size(Project p) {
+            return int64Size(1, p.getId()) + stringSize(2, p.getTitle()) + stringSize(3, p.getDescription())
+                    + stringSize(4, p.getTechnologies()) + stringSize(5, p.getImageUrl())
+                    + stringSize(6, p.getLiveUrl()) + stringSize(7, p.getGithubUrl()) + boolSize(8, p.isFeatured())
+                    + int32Size(9, p.getSortOrder());
+        }
+
+        @Override
+        public void write(CodedOutputStream out, Project p) throws IOException {
+            writeInt64(out, 1, p.getId());
+            writeString(out, 2, p.getTitle());
+            writeString(out, 3, p.getDescription());
+            writeString(out, 4, p.getTechnologies());
+            writeString(out, 5, p.getImageUrl());
+            writeString(out, 6, p.getLiveUrl());
+            writeString(out, 7, p.getGithubUrl());
+            writeBool(out, 8, p.isFeatured());
+            writeInt32(out, 9, p.getSortOrder());
+        }
+    };
+
+    private static final Message<Education> EDUCATION = new Message<>() {
+
+        @Override
+        public int size(Education e) {
+            return int64Size(1, e.getId()) + stringSize(2, e.getInstitution()) + stringSize(3, e.getDegree())
+                    + stringSize(4, e.getField()) + stringSize(5, e.getStartYear()) + stringSize(6, e.getEndYear())
+                    + stringSize(7, e.getGrade()) + stringSize(8, e.getLogoUrl()) + int32Size(9, e.getSortOrder());
+        }
+
+        @Override
+        public void write(CodedOutputStream out, Education e) throws IOException {
+            writeInt64(out, 1, e.getId());
+            writeString(out, 2, e.getInstitution());
+            writeString(out, 3, e.getDegree());
+            writeString(out, 4, e.getField());
+            writeString(out, 5, e.getStartYear());
+            writeString(out, 6, e.getEndYear());
+            writeString(out, 7, e.getGrade());
+            writeString(out, 8, e.getLogoUrl());
+            writeInt32(out, 9, e.getSortOrder());
+        }
+    };
+
+    private static final Message<Achievement> ACHIEVEMENT = new Message<>() {
+
+        @Override
+        public int size(Achievement a) {
+            return int64Size(1, a.getId()) + stringSize(2, a.getTitle()) + stringSize(3, a.getDescription())
+                    + stringSize(4, a.getIcon()) + stringSize(5, a.getYear()) + int32Size(6, a.getSortOrder());
+        }
+
+        @Override
+        public void write(CodedOutputStream out, Achievement a) throws IOException {
+            writeInt64(out, 1, a.getId());
+            writeString(out, 2, a.getTitle());
+            writeString(out, 3, a.getDescription());
+            writeString(out, 4, a.getIcon());
+            writeString(out, 5, a.getYear());
+            writeInt32(out, 6, a.getSortOrder());
+        }
+    };
+
+    private static final Message<Map.Entry<String, List<Skill>>> SKILL_CATEGORY = new Message<>() {
+
+        @Override
+        public int size(Map.Entry<String, List<Skill>> category) {
+            return stringSize(1, category.getKey()) + repeatedSize(2, SKILL, category.getValue());
+        }
+
+        @Override
+        public void write(CodedOutputStream out, Map.Entry<String, List<Skill>> category) throws IOException {
+            writeString(out, 1, category.getKey());
+            writeRepeated(out, 2, SKILL, category.getValue());
+        }
+    };
+
+    private static final Message<Map<String, List<Skill>>> SKILLS_BY_CATEGORY = new Message<>() {
+
+        @Override
+        public int size(Map<String, List<Skill>> categories) {
+            return repeatedSize(1, SKILL_CATEGORY, categories.entrySet());
+        }
+
+        @Override
+        public void write(CodedOutputStream out, Map<String, List<Skill>> categories) throws IOException {
+            writeRepeated(out, 1, SKILL_CATEGORY, categories.entrySet());
+        }
+    };
+
+    private static final Message<Resume> RESUME = new Message<>() {
+
+        @Override
+        public int size(Resume r) {
+            return (r.getProfile() == null ? 0 : messageSize(1, PROFILE, r.getProfile()))
+                    + repeatedSize(2, EXPERIENCE, r.getExperiences())
+                    + repeatedSize(3, SKILL_CATEGORY, r.getSkills().entrySet())
+                    + repeatedSize(4, PROJECT, r.getProjects())
+                    + repeatedSize(5, EDUCATION, r.getEducation())
+                    + repeatedSize(6, ACHIEVEMENT, r.getAchievements());
+        }
+
+        @Override
+        public void write(CodedOutputStream out, Resume r) throws IOException {
+            if (r.getProfile() != null) {
+                writeMessage(out, 1, PROFILE, r.getProfile());
+            }
+            writeRepeated(out, 2, EXPERIENCE, r.getExperiences());
+            writeRepeated(out, 3, SKILL_CATEGORY, r.getSkills().entrySet());
+            writeRepeated(out, 4, PROJECT, r.getProjects());
+            writeRepeated(out, 5, EDUCATION, r.getEducation());
+            writeRepeated(out, 6, ACHIEVEMENT, r.getAchievements());
+        }
+    };
+
+    private static <T> int messageSize(int field, Message<T> message, T value) {
+        int length = message.size(value);
+        return CodedOutputStream.computeTagSize(field) + CodedOutputStream.computeUInt32SizeNoTag(length) + length;
+    }
+
+    private static <T> void writeMessage(CodedOutputStream out, int field, Message<T> message, T value)
+            throws IOException {
+        out.writeTag(field, 2);
+        out.writeUInt32NoTag(message.size(value));
+        message.write(out, value);
+    }
+
+    private static <T> int repeatedSize(int field, Message<T> message, Iterable<? extends T> values) {
+        int size = 0;
+        for (T value : values) {
+            int length = message.size(value);
+            size += CodedOutputStream.computeTagSize(field) + CodedOutputStream.computeUInt32SizeNoTag(length) + length;
+        }
+        return size;
+    }
+
+    private static <T> void writeRepeated(CodedOutputStream out, int field, Message<T> message,
+            Iterable<? extends T> values) throws IOException {
+        for (T value : values) {
+            writeMessage(out, field, message, value);
+        }
+    }
+
+    private static int stringSize(int field, String value) {
+        return value == null || value.isEmpty() ? 0 : CodedOutputStream.computeStringSize(field, value);
+    }
+
+    private static void writeString(CodedOutputStream out, int field, String value) throws IOException {
+        if (value != null && !value.isEmpty()) {
+            out.writeString(field, value);
+        }
+    }
+
+    private static int int64Size(int field, Long value) {
+        return value == null || value == 0 ? 0 : CodedOutputStream.computeInt64Size(field, value);
+    }
+
+    private static void writeInt64(CodedOutputStream out, int field, Long value) throws IOException {
+        if (value != null && value != 0) {
+            out.writeInt64(field, value);
+        }
+    }
+
+    private static int int32Size(int field, int value) {
+        return value == 0 ? 0 : CodedOutputStream.computeInt32Size(field, value);
+    }
+
+    private static void writeInt32(CodedOutputStream out, int field, int value) throws IOException {
+        if (value != 0) {
+            out.writeInt32(field, value);
+        }
+    }
+
+    private static int boolSize(int field, boolean value) {
+        return value ? CodedOutputStream.computeBoolSize(field, true) : 0;
+    }
+
+    private static void writeBool(CodedOutputStream out, int field, boolean value) throws IOException {
+        if (value) {
+            out.writeBool(field, true);
+        }
+    }
+}
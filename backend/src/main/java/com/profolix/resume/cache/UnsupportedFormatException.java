@@ -0,0 +1,12 @@
+package com.profolix.resume.cache;
+
+/**
+ * Thrown when a body cannot be represented in the negotiated {@link BodyFormat},
+ * which the controllers answer with 406 Not Acceptable.
+ */
+public class UnsupportedFormatException extends RuntimeException {
+
+    public UnsupportedFormatException(String message) {
+        super(message);
+    }
+}
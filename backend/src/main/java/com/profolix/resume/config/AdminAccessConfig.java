@@ -0,0 +1,62 @@
+package com.profolix.resume.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Guards the endpoints that rewrite or rebuild data. They are off unless
+ * {@code profolix.admin.enabled} is set, and answer {@code 404} until then;
+ * once on, each request must carry {@code Authorization: Bearer} with
+ * {@code profolix.admin.token}, or gets {@code 401}.
+ */
+@Configuration
+public class AdminAccessConfig implements WebMvcConfigurer, HandlerInterceptor {
+
+    private static final String[] ADMIN_PATHS = { "/api/reload", "/api/import" };
+
+    private static final String BEARER = "Bearer ";
+
+    private final boolean enabled;
+    private final byte[] token;
+
+    public AdminAccessConfig(@Value("${profolix.admin.enabled:false}") boolean enabled,
+            @Value("${profolix.admin.token:}") String token) {
+        if (enabled && token.isBlank()) {
+            throw new IllegalStateException("profolix.admin.enabled needs profolix.admin.token");
+        }
+        this.enabled = enabled;
+        this.token = token.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this).addPathPatterns(ADMIN_PATHS);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws Exception {
+        if (!enabled) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return false;
+        }
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        // Compared in constant time, so the token cannot be guessed a byte at a time
+        if (authorization == null || !authorization.startsWith(BEARER) || !MessageDigest.isEqual(token,
+                authorization.substring(BEARER.length()).getBytes(StandardCharsets.UTF_8))) {
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,70 @@
+package com.profolix.resume.config;
+
+import com.profolix.resume.metrics.RequestTimings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executor used by {@code ResumeService} to fan out the repository loads
+ * behind the resume snapshot, one task per table. With
+ * {@code spring.threads.virtual.enabled=true} on Java 21 each task gets its own
+ * virtual thread, matching Tomcat's request threads in that mode. Tasks
+ * carry the submitting request's {@link RequestTimings} with them.
+ *
+ * <p>A second executor writes queued change events out to
+ * {@code /api/stream} subscribers, so the publisher never waits on them. The
+ * writes are non-blocking, so its tasks are short; each subscriber has at most
+ * one queued or running, which bounds the queue at one slot per subscriber. Scheduling is enabled here for the
+ * stream's heartbeat and the response cache's checkpoints.
+ */
+@Configuration
+@EnableScheduling
+public class AsyncConfig {
+
+    @Bean("resumeLoadExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor resumeLoadExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(6);
+        executor.setMaxPoolSize(12);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("resume-load-");
+        executor.setTaskDecorator(RequestTimings::propagate);
+        return executor;
+    }
+
+    @Bean("resumeLoadExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualResumeLoadExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("resume-load-");
+        executor.setVirtualThreads(true);
+        executor.setTaskDecorator(RequestTimings::propagate);
+        return executor;
+    }
+
+    @Bean("changeStreamExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor changeStreamExecutor(
+            @Value("${profolix.stream.max-subscribers:50000}") int maxSubscribers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(8);
+        executor.setMaxPoolSize(8);
+        executor.setQueueCapacity(maxSubscribers);
+        executor.setThreadNamePrefix("change-stream-");
+        return executor;
+    }
+
+    @Bean("changeStreamExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualChangeStreamExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("change-stream-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+}
@@ -0,0 +1,103 @@
+package com.profolix.resume.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Installs the SQLite objects behind delta sync, after Hibernate has brought
+ * the tables up to date:
+ * <ul>
+ * <li>{@code change_clock}, a single row holding the last version handed out;</li>
+ * <li>{@code store_identity}, a single row holding a random id made with the
+ * clock, so versions of a database recreated since are not taken for this
+ * one's;</li>
+ * <li>{@code tombstones}, one row per deleted entity with the profile that
+ * owned it, indexed by version and by owner;</li>
+ * <li>triggers on each resume table that stamp inserted and updated rows
+ * with the next version in {@code change_version}, and record deletes as
+ * tombstones.</li>
+ * </ul>
+ * Stamping inside the writing transaction means versions are assigned in
+ * commit order: SQLite holds its write lock from a transaction's first write
+ * to its commit, so no later reader can see version n+1 before version n.
+ *
+ * <p>A row inserted with the id of an earlier tombstone clears it, so a
+ * client never sees a delete for something that exists again.
+ */
+@Component
+public class ChangeTrackingSchema {
+
+    /** Table name to the entity type used in tombstones and change events. */
+    public static final Map<String, String> TABLES = Map.of(
+            "profiles", "profile",
+            "experiences", "experience",
+            "skills", "skill",
+            "projects", "project",
+            "education", "education",
+            "achievements", "achievement");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Depends on the EntityManagerFactory so Hibernate's schema update runs first
+    public ChangeTrackingSchema(DataSource dataSource, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @PostConstruct
+    public void install() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS change_clock (id INTEGER PRIMARY KEY CHECK (id = 1), "
+                + "version INTEGER NOT NULL)");
+        jdbcTemplate.execute("INSERT OR IGNORE INTO change_clock (id, version) VALUES (1, 0)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS store_identity (id INTEGER PRIMARY KEY CHECK (id = 1), "
+                + "uuid TEXT NOT NULL)");
+        jdbcTemplate.update("INSERT OR IGNORE INTO store_identity (id, uuid) VALUES (1, ?)",
+                UUID.randomUUID().toString());
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS tombstones (version INTEGER NOT NULL, "
+                + "entity_type TEXT NOT NULL, entity_id INTEGER NOT NULL)");
+        if (!hasColumn("tombstones", "profile_id")) {
+            jdbcTemplate.execute("ALTER TABLE tombstones ADD COLUMN profile_id INTEGER");
+        }
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_tombstones_version ON tombstones (version)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_tombstones_profile ON tombstones (profile_id, version)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_tombstones_entity ON tombstones (entity_type, entity_id)");
+
+        for (Map.Entry<String, String> table : TABLES.entrySet()) {
+            String name = table.getKey();
+            String type = table.getValue();
+            String stamp = "UPDATE change_clock SET version = version + 1; "
+                    + "UPDATE " + name + " SET change_version = (SELECT version FROM change_clock) WHERE id = NEW.id; ";
+            jdbcTemplate.execute("CREATE TRIGGER IF NOT EXISTS " + name + "_change_insert AFTER INSERT ON " + name
+                    + " BEGIN " + stamp
+                    + "DELETE FROM tombstones WHERE entity_type = '" + type + "' AND entity_id = NEW.id; END");
+            // The WHEN clause skips the trigger's own stamping update
+            jdbcTemplate.execute("CREATE TRIGGER IF NOT EXISTS " + name + "_change_update AFTER UPDATE ON " + name
+                    + " WHEN NEW.change_version IS OLD.change_version BEGIN " + stamp + "END");
+            // Replaced rather than kept, as triggers from before tombstones had an owner lack profile_id
+            String owner = name.equals("profiles") ? "OLD.id" : "OLD.profile_id";
+            jdbcTemplate.execute("DROP TRIGGER IF EXISTS " + name + "_change_delete");
+            jdbcTemplate.execute("CREATE TRIGGER " + name + "_change_delete AFTER DELETE ON " + name
+                    + " BEGIN UPDATE change_clock SET version = version + 1; "
+                    + "INSERT INTO tombstones (version, entity_type, entity_id, profile_id) "
+                    + "VALUES ((SELECT version FROM change_clock), '" + type + "', OLD.id, " + owner + "); END");
+            // Rows written before the triggers existed share one version, stamped directly since
+            // the update trigger ignores writes to change_version itself
+            Integer unstamped = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM " + name + " WHERE change_version IS NULL", Integer.class);
+            if (unstamped != null && unstamped > 0) {
+                jdbcTemplate.update("UPDATE change_clock SET version = version + 1");
+                jdbcTemplate.update("UPDATE " + name + " SET change_version = (SELECT version FROM change_clock) "
+                        + "WHERE change_version IS NULL");
+            }
+        }
+    }
+
+    private boolean hasColumn(String table, String column) {
+        return jdbcTemplate.queryForList("SELECT name FROM pragma_table_info(?)", String.class, table).contains(column);
+    }
+}
@@ -1,48 +1,50 @@
 package com.profolix.resume.config;
 
 import com.profolix.resume.model.*;
-import com.profolix.resume.repository.*;
+import com.profolix.resume.service.ResumeService;
+import com.profolix.resume.store.ResumeStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
 @Component
+@Order(1)
 public class DataSeeder implements CommandLineRunner {
 
-        private final ProfileRepository profileRepository;
-        private final ExperienceRepository experienceRepository;
-        private final SkillRepository skillRepository;
-        private final ProjectRepository projectRepository;
-        private final EducationRepository educationRepository;
-        private final AchievementRepository achievementRepository;
-
-        public DataSeeder(ProfileRepository profileRepository, ExperienceRepository experienceRepository,
-                        SkillRepository skillRepository, ProjectRepository projectRepository,
-                        EducationRepository educationRepository, AchievementRepository achievementRepository) {
-                this.profileRepository = profileRepository;
-                this.experienceRepository = experienceRepository;
-                this.skillRepository = skillRepository;
-                this.projectRepository = projectRepository;
-                this.educationRepository = educationRepository;
-                this.achievementRepository = achievementRepository;
+        private static final Logger logger = LoggerFactory.getLogger(DataSeeder.class);
+
+        private final ResumeStore store;
+        private final ResumeService resumeService;
+
+        public DataSeeder(ResumeStore store, ResumeService resumeService) {
+                this.store = store;
+                this.resumeService = resumeService;
         }
 
         @Override
         public void run(String... args) {
-                if (profileRepository.count() > 0)
+                if (store.findFirstProfileId().isPresent())
                         return;
 
-                seedProfile();
-                seedExperiences();
-                seedSkills();
-                seedProjects();
-                seedEducation();
-                seedAchievements();
-
-                System.out.println("✅ Database seeded with Atul Gupta's resume data!");
+                // One write, so the store commits once
+                store.write(false, writer -> {
+                        long owner = seedProfile(writer);
+                        seedExperiences(writer, owner);
+                        seedSkills(writer, owner);
+                        seedProjects(writer, owner);
+                        seedEducation(writer, owner);
+                        seedAchievements(writer, owner);
+                });
+                resumeService.reload();
+
+                logger.info("Database seeded with Atul Gupta's resume data");
         }
 
-        private void seedProfile() {
+        private long seedProfile(ResumeStore.Writer writer) {
                 Profile p = new Profile();
+                p.setSlug("atul-gupta");
                 p.setFullName("Atul Ajit Gupta");
                 p.setTitle("React Native & MERN Stack Developer");
                 p.setSubtitle("Building scalable, secure & user-friendly applications");
@@ -59,10 +61,11 @@ public class DataSeeder implements CommandLineRunner {
                 p.setProjectsCompleted(5);
                 p.setCompaniesWorked(2);
                 p.setCertificationsEarned(3);
-                profileRepository.save(p);
+                writer.insert(p);
+                return p.getId();
         }
 
-        private void seedExperiences() {
+        private void seedExperiences(ResumeStore.Writer writer, long owner) {
                 Experience e1 = new Experience();
                 e1.setCompany("Stoic & Salamander Corporation Pvt. Ltd.");
                 e1.setRole("React Native & MERN Stack Developer");
@@ -75,7 +78,7 @@ public class DataSeeder implements CommandLineRunner {
                 e1.setLogoUrl("https://ui-avatars.com/api/?name=SS&background=6C63FF&color=fff&size=64");
                 e1.setCurrent(true);
                 e1.setSortOrder(1);
-                experienceRepository.save(e1);
+                writer.insert(owned(e1, owner));
 
                 Experience e2 = new Experience();
                 e2.setCompany("Webdroid Edutech LLP");
@@ -90,39 +93,39 @@ public class DataSeeder implements CommandLineRunner {
                 e2.setLogoUrl("https://ui-avatars.com/api/?name=WE&background=00C9A7&color=fff&size=64");
                 e2.setCurrent(false);
                 e2.setSortOrder(2);
-                experienceRepository.save(e2);
+                writer.insert(owned(e2, owner));
         }
 
-        private void seedSkills() {
+        private void seedSkills(ResumeStore.Writer writer, long owner) {
                 // Frontend
-                skillRepository.save(new Skill("React.js", "FRONTEND", 90, "react"));
-                skillRepository.save(new Skill("JavaScript", "FRONTEND", 88, "javascript"));
-                skillRepository.save(new Skill("HTML5", "FRONTEND", 92, "html5"));
-                skillRepository.save(new Skill("CSS3", "FRONTEND", 90, "css3"));
-                skillRepository.save(new Skill("Ant Design", "FRONTEND", 80, "antdesign"));
+                writer.insert(owned(new Skill("React.js", "FRONTEND", 90, "react"), owner));
+                writer.insert(owned(new Skill("JavaScript", "FRONTEND", 88, "javascript"), owner));
+                writer.insert(owned(new Skill("HTML5", "FRONTEND", 92, "html5"), owner));
+                writer.insert(owned(new Skill("CSS3", "FRONTEND", 90, "css3"), owner));
+                writer.insert(owned(new Skill("Ant Design", "FRONTEND", 80, "antdesign"), owner));
 
                 // Mobile
-                skillRepository.save(new Skill("React Native", "MOBILE", 85, "react"));
-                skillRepository.save(new Skill("Cross-Platform Development", "MOBILE", 82, "mobile"));
+                writer.insert(owned(new Skill("React Native", "MOBILE", 85, "react"), owner));
+                writer.insert(owned(new Skill("Cross-Platform Development", "MOBILE", 82, "mobile"), owner));
 
                 // Backend
-                skillRepository.save(new Skill("Node.js", "BACKEND", 88, "nodejs"));
-                skillRepository.save(new Skill("Express.js", "BACKEND", 87, "express"));
-                skillRepository.save(new Skill("REST APIs", "BACKEND", 90, "api"));
-                skillRepository.save(new Skill("Spring Boot", "BACKEND", 75, "spring"));
+                writer.insert(owned(new Skill("Node.js", "BACKEND", 88, "nodejs"), owner));
+                writer.insert(owned(new Skill("Express.js", "BACKEND", 87, "express"), owner));
+                writer.insert(owned(new Skill("REST APIs", "BACKEND", 90, "api"), owner));
+                writer.insert(owned(new Skill("Spring Boot", "BACKEND", 75, "spring"), owner));
 
                 // Database
-                skillRepository.save(new Skill("MongoDB", "DATABASE", 88, "mongodb"));
-                skillRepository.save(new Skill("SQL", "DATABASE", 80, "sql"));
-                skillRepository.save(new Skill("SQLite", "DATABASE", 75, "sqlite"));
+                writer.insert(owned(new Skill("MongoDB", "DATABASE", 88, "mongodb"), owner));
+                writer.insert(owned(new Skill("SQL", "DATABASE", 80, "sql"), owner));
+                writer.insert(owned(new Skill("SQLite", "DATABASE", 75, "sqlite"), owner));
 
                 // Languages
-                skillRepository.save(new Skill("Java", "LANGUAGES", 78, "java"));
-                skillRepository.save(new Skill("C++", "LANGUAGES", 72, "cpp"));
-                skillRepository.save(new Skill("C", "LANGUAGES", 70, "c"));
+                writer.insert(owned(new Skill("Java", "LANGUAGES", 78, "java"), owner));
+                writer.insert(owned(new Skill("C++", "LANGUAGES", 72, "cpp"), owner));
+                writer.insert(owned(new Skill("C", "LANGUAGES", 70, "c"), owner));
         }
 
-        private void seedProjects() {
+        private void seedProjects(ResumeStore.Writer writer, long owner) {
                 Project p1 = new Project();
                 p1.setTitle("Expense Management System");
                 p1.setDescription(
@@ -133,7 +136,7 @@ public class DataSeeder implements CommandLineRunner {
                 p1.setGithubUrl("https://github.com/atulgupta05");
                 p1.setFeatured(true);
                 p1.setSortOrder(1);
-                projectRepository.save(p1);
+                writer.insert(owned(p1, owner));
 
                 Project p2 = new Project();
                 p2.setTitle("Food Ordering App");
@@ -145,7 +148,7 @@ public class DataSeeder implements CommandLineRunner {
                 p2.setGithubUrl("https://github.com/atulgupta05");
                 p2.setFeatured(true);
                 p2.setSortOrder(2);
-                projectRepository.save(p2);
+                writer.insert(owned(p2, owner));
 
                 Project p3 = new Project();
                 p3.setTitle("Product Stock Collection App");
@@ -157,7 +160,7 @@ public class DataSeeder implements CommandLineRunner {
                 p3.setGithubUrl("https://github.com/atulgupta05");
                 p3.setFeatured(true);
                 p3.setSortOrder(3);
-                projectRepository.save(p3);
+                writer.insert(owned(p3, owner));
 
                 Project p4 = new Project();
                 p4.setTitle("Real-Estate Web Page");
@@ -169,7 +172,7 @@ public class DataSeeder implements CommandLineRunner {
                 p4.setGithubUrl("https://github.com/atulgupta05");
                 p4.setFeatured(false);
                 p4.setSortOrder(4);
-                projectRepository.save(p4);
+                writer.insert(owned(p4, owner));
 
                 Project p5 = new Project();
                 p5.setTitle("Fitness-Club Web Page");
@@ -181,10 +184,10 @@ public class DataSeeder implements CommandLineRunner {
                 p5.setGithubUrl("https://github.com/atulgupta05");
                 p5.setFeatured(false);
                 p5.setSortOrder(5);
-                projectRepository.save(p5);
+                writer.insert(owned(p5, owner));
         }
 
-        private void seedEducation() {
+        private void seedEducation(ResumeStore.Writer writer, long owner) {
                 Education ed1 = new Education();
                 ed1.setInstitution("Priyadarshini College of Engineering, Nagpur");
                 ed1.setDegree("Bachelor of Engineering");
@@ -194,7 +197,7 @@ public class DataSeeder implements CommandLineRunner {
                 ed1.setGrade("8.8 CGPA");
                 ed1.setLogoUrl("https://ui-avatars.com/api/?name=PCE&background=1A237E&color=fff&size=64");
                 ed1.setSortOrder(1);
-                educationRepository.save(ed1);
+                writer.insert(owned(ed1, owner));
 
                 Education ed2 = new Education();
                 ed2.setInstitution("Guru Nanak College of Science, Ballarpur");
@@ -205,7 +208,7 @@ public class DataSeeder implements CommandLineRunner {
                 ed2.setGrade("65.08%");
                 ed2.setLogoUrl("https://ui-avatars.com/api/?name=GNC&background=0D47A1&color=fff&size=64");
                 ed2.setSortOrder(2);
-                educationRepository.save(ed2);
+                writer.insert(owned(ed2, owner));
 
                 Education ed3 = new Education();
                 ed3.setInstitution("Adarsh HSS Sahatwar, Ballia");
@@ -216,28 +219,34 @@ public class DataSeeder implements CommandLineRunner {
                 ed3.setGrade("74%");
                 ed3.setLogoUrl("https://ui-avatars.com/api/?name=AHS&background=283593&color=fff&size=64");
                 ed3.setSortOrder(3);
-                educationRepository.save(ed3);
+                writer.insert(owned(ed3, owner));
         }
 
-        private void seedAchievements() {
-                saveAchievement("ReactJS for Frontend Development",
+        private void seedAchievements(ResumeStore.Writer writer, long owner) {
+                saveAchievement(writer, owner, "ReactJS for Frontend Development",
                                 "Udemy Certification — Comprehensive React.js course covering hooks, state management, routing, and component architecture.",
                                 "verified", "Sep 2024", 1);
-                saveAchievement("SQL for Data Analytics",
+                saveAchievement(writer, owner, "SQL for Data Analytics",
                                 "Udemy Certification — In-depth SQL course covering queries, joins, subqueries, and data analytics techniques.",
                                 "verified", "Oct 2022", 2);
-                saveAchievement("Java Programming",
+                saveAchievement(writer, owner, "Java Programming",
                                 "Udemy Certification — Core Java programming course covering OOP concepts, data structures, and application development.",
                                 "verified", "Jul 2022", 3);
         }
 
-        private void saveAchievement(String title, String description, String icon, String year, int sortOrder) {
+        private void saveAchievement(ResumeStore.Writer writer, long owner, String title, String description,
+                        String icon, String year, int sortOrder) {
                 Achievement a = new Achievement();
                 a.setTitle(title);
                 a.setDescription(description);
                 a.setIcon(icon);
                 a.setYear(year);
                 a.setSortOrder(sortOrder);
-                achievementRepository.save(a);
+                writer.insert(owned(a, owner));
+        }
+
+        private static <T extends ProfileOwned> T owned(T row, long owner) {
+                row.setProfileId(owner);
+                return row;
         }
 }
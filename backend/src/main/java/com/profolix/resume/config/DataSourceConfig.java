@@ -0,0 +1,91 @@
+package com.profolix.resume.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Splits SQLite access into a single-connection writer pool and a read-only
+ * pool. The database runs in WAL mode, so readers never block on the writer
+ * and can proceed in parallel. Transactions marked
+ * {@code @Transactional(readOnly = true)} are routed to the read pool; all
+ * others, including schema updates, go to the writer.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    private static final int BUSY_TIMEOUT_MILLIS = 5_000;
+
+    /**
+     * SQLite allows one writer at a time, so a single connection serializes
+     * writes in the pool instead of in SQLite's busy handler.
+     */
+    @Bean(destroyMethod = "close")
+    public HikariDataSource writeDataSource(DataSourceProperties properties) {
+        SQLiteConfig sqlite = new SQLiteConfig();
+        sqlite.setJournalMode(SQLiteConfig.JournalMode.WAL);
+        sqlite.setSynchronous(SQLiteConfig.SynchronousMode.NORMAL);
+        sqlite.setBusyTimeout(BUSY_TIMEOUT_MILLIS);
+
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("sqlite-write");
+        config.setDataSource(sqliteDataSource(properties, sqlite));
+        config.setMaximumPoolSize(1);
+        // Constructing with a config opens the pool now, creating the file and switching it to WAL
+        // before any read-only connection tries to open it
+        return new HikariDataSource(config);
+    }
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource readDataSource(DataSourceProperties properties,
+            @Qualifier("writeDataSource") HikariDataSource writeDataSource,
+            @Value("${profolix.datasource.read-pool-size:0}") int readPoolSize) {
+        SQLiteConfig sqlite = new SQLiteConfig();
+        sqlite.setReadOnly(true);
+        sqlite.setBusyTimeout(BUSY_TIMEOUT_MILLIS);
+
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("sqlite-read");
+        config.setDataSource(sqliteDataSource(properties, sqlite));
+        // Must match the open mode, since the SQLite driver cannot flip it on a live connection
+        config.setReadOnly(true);
+        config.setMaximumPoolSize(readPoolSize > 0 ? readPoolSize : Runtime.getRuntime().availableProcessors());
+        return new HikariDataSource(config);
+    }
+
+    /**
+     * The data source handed to JPA. Connections are only fetched from a pool
+     * on first use, by which time a read-only transaction has marked the
+     * connection read-only and is sent to the read pool. Each pool sits behind
+     * a {@link GatedDataSource}.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("writeDataSource") HikariDataSource writeDataSource,
+            @Qualifier("readDataSource") HikariDataSource readDataSource, MeterRegistry meterRegistry,
+            @Value("${profolix.datasource.gate-timeout:30s}") Duration gateTimeout) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(new GatedDataSource(
+                writeDataSource, "write", writeDataSource.getMaximumPoolSize(), gateTimeout, meterRegistry));
+        dataSource.setReadOnlyDataSource(new GatedDataSource(
+                readDataSource, "read", readDataSource.getMaximumPoolSize(), gateTimeout, meterRegistry));
+        return dataSource;
+    }
+
+    private static SQLiteDataSource sqliteDataSource(DataSourceProperties properties, SQLiteConfig config) {
+        SQLiteDataSource dataSource = new SQLiteDataSource(config);
+        dataSource.setUrl(properties.determineUrl());
+        return dataSource;
+    }
+}
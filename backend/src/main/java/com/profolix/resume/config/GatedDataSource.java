@@ -0,0 +1,102 @@
+package com.profolix.resume.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Puts a fair semaphore in front of a connection pool, with one permit per
+ * pooled connection. With virtual threads there is no request thread limit, so
+ * without the gate thousands of callers would queue inside the pool itself;
+ * here they park cheaply, in arrival order, and the time spent waiting is
+ * recorded as {@code profolix.jdbc.gate.wait}.
+ */
+public class GatedDataSource extends DelegatingDataSource {
+
+    private final String pool;
+    private final Semaphore permits;
+    private final Duration timeout;
+    private final Timer waitTimer;
+
+    public GatedDataSource(DataSource target, String pool, int permits, Duration timeout, MeterRegistry registry) {
+        super(target);
+        this.pool = pool;
+        this.permits = new Semaphore(permits, true);
+        this.timeout = timeout;
+        this.waitTimer = Timer.builder("profolix.jdbc.gate.wait")
+                .description("Time spent waiting for a connection permit")
+                .tag("pool", pool)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+        Gauge.builder("profolix.jdbc.gate.waiting", this.permits, Semaphore::getQueueLength)
+                .description("Callers waiting for a connection permit")
+                .tag("pool", pool)
+                .register(registry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void acquire() throws SQLException {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException(pool + ": interrupted waiting for a connection", e);
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (!acquired) {
+            throw new SQLTransientConnectionException(pool + ": no connection available after " + timeout);
+        }
+    }
+
+    private Connection releasingOnClose(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(GatedDataSource.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    } finally {
+                        if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                            permits.release();
+                        }
+                    }
+                });
+    }
+}
@@ -0,0 +1,74 @@
+package com.profolix.resume.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Builds the JCache (Caffeine) cache manager behind Hibernate's second-level
+ * and query caches, with every region created up front from
+ * {@link SecondLevelCacheProperties}, and hands it to Hibernate.
+ *
+ * <p>The update-timestamps region is never bounded or expired: Hibernate uses
+ * it to tell whether a cached query result predates a write to its tables, and
+ * losing an entry there would let stale results through.
+ */
+@Configuration
+@EnableConfigurationProperties(SecondLevelCacheProperties.class)
+public class SecondLevelCacheConfig {
+
+    static final List<String> ENTITY_REGIONS = List.of("profiles", "experiences", "skills", "projects", "education",
+            "achievements");
+    static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(SecondLevelCacheProperties properties) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+        for (String region : ENTITY_REGIONS) {
+            create(cacheManager, region, bounded(properties, region));
+        }
+        create(cacheManager, QUERY_RESULTS_REGION, bounded(properties, QUERY_RESULTS_REGION));
+        create(cacheManager, UPDATE_TIMESTAMPS_REGION, new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> bounded(SecondLevelCacheProperties properties, String region) {
+        SecondLevelCacheProperties.Region settings = properties.getRegions().get(region);
+        long maxSize = settings != null && settings.getMaxSize() != null
+                ? settings.getMaxSize() : properties.getDefaultMaxSize();
+        Duration ttl = settings != null && settings.getTtl() != null ? settings.getTtl() : properties.getDefaultTtl();
+
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        return configuration;
+    }
+
+    private static void create(CacheManager cacheManager, String region,
+            CaffeineConfiguration<Object, Object> configuration) {
+        // The provider hands out one manager per class loader, which may outlive an earlier context
+        if (cacheManager.getCache(region) != null) {
+            cacheManager.destroyCache(region);
+        }
+        configuration.setStatisticsEnabled(true);
+        cacheManager.createCache(region, configuration);
+    }
+}
@@ -0,0 +1,66 @@
+package com.profolix.resume.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size and time-to-live of each Hibernate second-level cache region, e.g.
+ * {@code profolix.cache.regions.experiences.max-size=20000}. Regions without
+ * their own entry use the defaults.
+ */
+@ConfigurationProperties(prefix = "profolix.cache")
+public class SecondLevelCacheProperties {
+
+    private long defaultMaxSize = 10_000;
+    private Duration defaultTtl = Duration.ofMinutes(10);
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    public static class Region {
+
+        private Long maxSize;
+        private Duration ttl;
+
+        public Long getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(Long maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+
+    public long getDefaultMaxSize() {
+        return defaultMaxSize;
+    }
+
+    public void setDefaultMaxSize(long defaultMaxSize) {
+        this.defaultMaxSize = defaultMaxSize;
+    }
+
+    public Duration getDefaultTtl() {
+        return defaultTtl;
+    }
+
+    public void setDefaultTtl(Duration defaultTtl) {
+        this.defaultTtl = defaultTtl;
+    }
+
+    public Map<String, Region> getRegions() {
+        return regions;
+    }
+
+    public void setRegions(Map<String, Region> regions) {
+        this.regions = regions;
+    }
+}
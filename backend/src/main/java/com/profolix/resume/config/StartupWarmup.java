@@ -0,0 +1,161 @@
+package com.profolix.resume.config;
+
+import com.profolix.resume.cache.BodyFormat;
+import com.profolix.resume.service.ResumeService;
+import com.profolix.resume.store.ResumeStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warms the application up before it reports ready. It runs as the last
+ * runner, after the seeders, and Spring Boot publishes
+ * {@code ReadinessState.ACCEPTING_TRAFFIC} only once every runner has
+ * returned, so {@code /actuator/health/readiness} stays {@code OUT_OF_SERVICE}
+ * until the warm-up is done:
+ * <ol>
+ * <li>every endpoint served from the response body cache is requested, in
+ * each of {@code profolix.warmup.formats}, from the application's own port,
+ * for the default portfolio and up to {@code profolix.warmup.portfolios}
+ * others, lowest ids first; each portfolio is loaded into
+ * {@link ResumeService} and each body built;</li>
+ * <li>the default portfolio's endpoints are requested
+ * {@code profolix.warmup.iterations} more times, so Tomcat, Spring MVC and the
+ * cache lookups are compiled before real requests arrive.</li>
+ * </ol>
+ * Without a web server, as in the benchmarks, the portfolios are only loaded.
+ * A failed request is reported and ends the warm-up; the application then
+ * becomes ready anyway, only colder. The time taken is logged and exported as
+ * the {@code profolix.warmup.duration} gauge.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "profolix.warmup", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class StartupWarmup implements ApplicationRunner, MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupWarmup.class);
+
+    // A hung request must not keep the instance out of service for good
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    // Relative to /api/ or /api/{slug}/
+    private static final List<String> CACHED_ENDPOINTS = List.of("resume", "profile", "experiences",
+            "experiences/technologies", "skills", "skills/categories", "projects", "projects/technologies",
+            "projects/featured", "education", "achievements");
+
+    private final ResumeService resumeService;
+    private final ResumeStore store;
+    private final ApplicationContext context;
+    private final int portfolios;
+    private final List<BodyFormat> formats;
+    private final int iterations;
+    private volatile long durationMillis;
+
+    public StartupWarmup(ResumeService resumeService, ResumeStore store, ApplicationContext context,
+            @Value("${profolix.warmup.portfolios:100}") int portfolios,
+            @Value("${profolix.warmup.formats:JSON}") List<BodyFormat> formats,
+            @Value("${profolix.warmup.iterations:100}") int iterations) {
+        this.resumeService = resumeService;
+        this.store = store;
+        this.context = context;
+        this.portfolios = portfolios;
+        this.formats = formats;
+        this.iterations = iterations;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        resumeService.getSnapshot();
+        List<String> slugs = store.findSlugs(portfolios);
+        int port = context instanceof WebServerApplicationContext web && web.getWebServer() != null
+                ? web.getWebServer().getPort() : -1;
+        long requests = 0;
+        if (port <= 0) {
+            for (String slug : slugs) {
+                resumeService.findSnapshot(slug);
+            }
+        } else {
+            HttpClient client = HttpClient.newHttpClient();
+            String api = "http://localhost:" + port + "/api/";
+            // The requests load the portfolios too, as many at a time as there are cores
+            int batch = Runtime.getRuntime().availableProcessors();
+            try {
+                requests += request(client, List.of(api), formats);
+                for (int i = 0; i < slugs.size(); i += batch) {
+                    requests += request(client, slugs.subList(i, Math.min(i + batch, slugs.size())).stream()
+                            .map(slug -> api + slug + "/")
+                            .toList(), formats);
+                }
+                for (int i = 0; i < iterations; i++) {
+                    requests += request(client, List.of(api), List.of(BodyFormat.JSON));
+                }
+            } catch (IOException e) {
+                logger.warn("Warm-up stopped after {} requests: {}", requests, e.toString());
+            }
+        }
+        durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        logger.info("Warm-up took {} ms: the default portfolio and the first {} by id, {} requests", durationMillis,
+                slugs.size(), requests);
+    }
+
+    /** Requests every cached endpoint under each of {@code bases} in each format, concurrently. */
+    private static int request(HttpClient client, List<String> bases, List<BodyFormat> formats)
+            throws IOException {
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>();
+        for (String base : bases) {
+            for (BodyFormat format : formats) {
+                for (String endpoint : CACHED_ENDPOINTS) {
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(base + endpoint))
+                            .header(HttpHeaders.ACCEPT, format.getMediaType().toString())
+                            .timeout(REQUEST_TIMEOUT)
+                            .build();
+                    responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+                }
+            }
+        }
+        try {
+            for (CompletableFuture<HttpResponse<Void>> pending : responses) {
+                HttpResponse<Void> response = pending.join();
+                // Formats that cannot represent an endpoint answer 406, which is expected
+                if (response.statusCode() >= 500) {
+                    throw new IOException(response.uri() + " answered " + response.statusCode());
+                }
+            }
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+        }
+        return responses.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        TimeGauge.builder("profolix.warmup.duration", this, TimeUnit.MILLISECONDS, warmup -> warmup.durationMillis)
+                .description("Time the startup warm-up took before the application reported ready")
+                .register(registry);
+    }
+}
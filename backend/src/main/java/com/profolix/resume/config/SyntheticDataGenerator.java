@@ -0,0 +1,236 @@
+package com.profolix.resume.config;
+
+import com.profolix.resume.model.*;
+import com.profolix.resume.service.ResumeService;
+import com.profolix.resume.service.Slugs;
+import com.profolix.resume.store.ResumeStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Random;
+import java.util.function.IntFunction;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Appends large volumes of generated resume data for scale testing. Runs after
+ * {@link DataSeeder}, so the hand-written resume stays the first profile.
+ * Rows are inserted in chunks of {@code batch-size}, one store write per chunk.
+ *
+ * <p>Generated rows are dealt round-robin to the generated profiles, each its
+ * own portfolio; with {@code profiles=0} they all go to the first profile, so
+ * the default portfolio grows instead.
+ */
+@Component
+@Order(2)
+@ConditionalOnProperty(prefix = "profolix.seed.synthetic", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(SyntheticDataProperties.class)
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    // Ordered roughly by popularity; picks are skewed towards the front of the list
+    private static final String[] TECHNOLOGIES = {
+            "JavaScript", "React.js", "Node.js", "TypeScript", "React Native", "Java", "Spring Boot", "MongoDB",
+            "Express.js", "PostgreSQL", "REST APIs", "Docker", "AWS", "Python", "MySQL", "Redis", "GraphQL",
+            "Kubernetes", "Kotlin", "Swift", "Next.js", "Firebase", "SQLite", "Go", "Angular", "Vue.js",
+            "Django", "Flutter", "Kafka", "Elasticsearch", "Terraform", "Rust", "C++", "Azure", "GCP" };
+    private static final String[] CATEGORIES = { "FRONTEND", "BACKEND", "MOBILE", "DATABASE", "LANGUAGES", "DEVOPS" };
+    private static final String[] ROLES = {
+            "Software Engineer", "Senior Software Engineer", "Frontend Developer", "Backend Developer",
+            "Full Stack Developer", "Mobile Developer", "Tech Lead", "Software Intern" };
+    private static final String[] FIRST_NAMES = {
+            "Aarav", "Priya", "Rohan", "Ananya", "Vikram", "Sneha", "Arjun", "Kavya", "Rahul", "Isha" };
+    private static final String[] LAST_NAMES = {
+            "Sharma", "Patel", "Gupta", "Iyer", "Reddy", "Nair", "Singh", "Das", "Mehta", "Joshi" };
+    private static final String[] CITIES = {
+            "Pune, India", "Bengaluru, India", "Hyderabad, India", "Mumbai, India", "Nagpur, India", "Remote" };
+    private static final String[] WORDS = {
+            "developed", "designed", "implemented", "scalable", "secure", "cross-platform", "application",
+            "services", "RESTful", "APIs", "integrated", "optimized", "queries", "performance", "users",
+            "collaborated", "with", "cross-functional", "teams", "to", "deliver", "features", "using", "and",
+            "the", "mobile", "web", "dashboard", "real-time", "data", "workflows", "reduced", "latency", "by",
+            "migrated", "legacy", "modules", "automated", "testing", "deployment", "pipeline", "for" };
+    private static final String[] MONTHS = {
+            "Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec" };
+
+    private final ResumeStore store;
+    private final ResumeService resumeService;
+    private final SyntheticDataProperties properties;
+
+    public SyntheticDataGenerator(ResumeStore store, ResumeService resumeService,
+            SyntheticDataProperties properties) {
+        this.store = store;
+        this.resumeService = resumeService;
+        this.properties = properties;
+    }
+
+    @Override
+    public void run(String... args) {
+        Random random = new Random(properties.getSeed());
+        long start = System.nanoTime();
+
+        int tenants = properties.getProfiles();
+        long[] ids = new long[tenants];
+        Long fallbackOwner = store.findFirstProfileId().orElse(null);
+        IntFunction<Long> owner = i -> tenants > 0 ? ids[i % tenants] : fallbackOwner;
+
+        long rows = insertInBatches(tenants, (writer, i) -> {
+            Profile p = profile(random, i, writer);
+            writer.insert(p);
+            ids[i] = p.getId();
+        })
+                + insertInBatches(properties.getExperiences(),
+                        (writer, i) -> writer.insert(owned(experience(random, i), owner.apply(i))))
+                + insertInBatches(properties.getProjects(),
+                        (writer, i) -> writer.insert(owned(project(random, i), owner.apply(i))))
+                + insertInBatches(properties.getSkills(),
+                        (writer, i) -> writer.insert(owned(skill(random, i), owner.apply(i))))
+                + insertInBatches(properties.getEducation(),
+                        (writer, i) -> writer.insert(owned(education(random, i), owner.apply(i))))
+                + insertInBatches(properties.getAchievements(),
+                        (writer, i) -> writer.insert(owned(achievement(random, i), owner.apply(i))));
+        resumeService.reload();
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        logger.info("Generated {} synthetic rows in {}s ({} rows/s)", rows, String.format("%.1f", seconds),
+                String.format("%.0f", rows / seconds));
+    }
+
+    private long insertInBatches(int count, ObjIntConsumer<ResumeStore.Writer> insert) {
+        int batchSize = Math.max(1, properties.getBatchSize());
+        for (int from = 0; from < count; from += batchSize) {
+            int to = Math.min(count, from + batchSize);
+            int first = from;
+            store.write(false, writer -> {
+                for (int i = first; i < to; i++) {
+                    insert.accept(writer, i);
+                }
+            });
+        }
+        return count;
+    }
+
+    private static <T extends ProfileOwned> T owned(T row, Long owner) {
+        row.setProfileId(owner);
+        return row;
+    }
+
+    private static Profile profile(Random random, int i, ResumeStore.Writer writer) {
+        String first = pick(random, FIRST_NAMES);
+        String last = pick(random, LAST_NAMES);
+        String handle = (first + "-" + last + "-" + i).toLowerCase();
+        Profile p = new Profile();
+        // Checked against the store, since the generator may run again on the same data
+        p.setSlug(Slugs.unique(handle, writer::slugExists));
+        p.setFullName(first + " " + last);
+        p.setTitle(pick(random, ROLES));
+        p.setSubtitle(sentence(random, 40, 90));
+        p.setEmail(handle + "@example.com");
+        p.setPhone("+91 9" + String.format("%09d", random.nextInt(1_000_000_000)));
+        p.setLocation(pick(random, CITIES));
+        p.setLinkedIn("https://linkedin.com/in/" + handle);
+        p.setGithub("https://github.com/" + handle);
+        p.setPortfolio("https://" + handle + ".pages.dev/");
+        p.setBio(sentence(random, 300, 2000));
+        p.setProfileImageUrl("https://ui-avatars.com/api/?name=" + first + "+" + last + "&size=300");
+        p.setYearsOfExperience(random.nextInt(15));
+        p.setProjectsCompleted(random.nextInt(40));
+        p.setCompaniesWorked(1 + random.nextInt(6));
+        p.setCertificationsEarned(random.nextInt(10));
+        return p;
+    }
+
+    private static Experience experience(Random random, int i) {
+        int startYear = 2008 + random.nextInt(17);
+        boolean current = random.nextInt(5) == 0;
+        Experience e = new Experience();
+        e.setCompany("Company " + (i % 5000) + " Pvt. Ltd.");
+        e.setRole(pick(random, ROLES));
+        e.setStartDate(pick(random, MONTHS) + " " + startYear);
+        e.setEndDate(current ? "Present" : pick(random, MONTHS) + " " + (startYear + 1 + random.nextInt(4)));
+        e.setLocation(pick(random, CITIES));
+        e.setDescription(sentence(random, 400, 3000));
+        e.setTechnologies(technologies(random, 3, 10));
+        e.setLogoUrl("https://ui-avatars.com/api/?name=C" + (i % 5000) + "&size=64");
+        e.setCurrent(current);
+        e.setSortOrder(i);
+        return e;
+    }
+
+    private static Project project(Random random, int i) {
+        Project p = new Project();
+        p.setTitle("Project " + i);
+        p.setDescription(sentence(random, 200, 2000));
+        p.setTechnologies(technologies(random, 2, 8));
+        p.setImageUrl("https://picsum.photos/seed/p" + i + "/800/500");
+        p.setLiveUrl(random.nextBoolean() ? "https://project-" + i + ".example.com" : "");
+        p.setGithubUrl("https://github.com/example/project-" + i);
+        p.setFeatured(random.nextInt(10) == 0);
+        p.setSortOrder(i);
+        return p;
+    }
+
+    private static Skill skill(Random random, int i) {
+        String name = TECHNOLOGIES[skewedIndex(random, TECHNOLOGIES.length)];
+        return new Skill(name, pick(random, CATEGORIES), 40 + random.nextInt(61), name.toLowerCase());
+    }
+
+    private static Education education(Random random, int i) {
+        int startYear = 2004 + random.nextInt(18);
+        Education e = new Education();
+        e.setInstitution("Institute of Technology " + (i % 2000));
+        e.setDegree(random.nextBoolean() ? "Bachelor of Engineering" : "Master of Computer Applications");
+        e.setField("Computer Science");
+        e.setStartYear(String.valueOf(startYear));
+        e.setEndYear(String.valueOf(startYear + 2 + random.nextInt(3)));
+        e.setGrade(String.format("%.1f CGPA", 6 + random.nextDouble() * 4));
+        e.setLogoUrl("https://ui-avatars.com/api/?name=IT&size=64");
+        e.setSortOrder(i);
+        return e;
+    }
+
+    private static Achievement achievement(Random random, int i) {
+        Achievement a = new Achievement();
+        a.setTitle(TECHNOLOGIES[skewedIndex(random, TECHNOLOGIES.length)] + " Certification");
+        a.setDescription(sentence(random, 80, 1000));
+        a.setIcon("verified");
+        a.setYear(pick(random, MONTHS) + " " + (2015 + random.nextInt(11)));
+        a.setSortOrder(i);
+        return a;
+    }
+
+    private static String technologies(Random random, int min, int max) {
+        int count = min + random.nextInt(max - min + 1);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(TECHNOLOGIES[skewedIndex(random, TECHNOLOGIES.length)]);
+        }
+        return sb.toString();
+    }
+
+    private static String sentence(Random random, int minLength, int maxLength) {
+        int length = minLength + random.nextInt(maxLength - minLength + 1);
+        StringBuilder sb = new StringBuilder(length + 16);
+        while (sb.length() < length) {
+            sb.append(pick(random, WORDS)).append(' ');
+        }
+        sb.setLength(length - 1);
+        return sb.append('.').toString();
+    }
+
+    private static int skewedIndex(Random random, int size) {
+        return (int) (Math.pow(random.nextDouble(), 2.5) * size);
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
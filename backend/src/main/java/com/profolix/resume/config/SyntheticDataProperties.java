@@ -0,0 +1,94 @@
+package com.profolix.resume.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Volumes for {@link SyntheticDataGenerator}. Enable with the {@code synthetic}
+ * profile or {@code --profolix.seed.synthetic.enabled=true}; any count can be
+ * overridden the same way, e.g. {@code --profolix.seed.synthetic.projects=1000000}.
+ */
+@ConfigurationProperties(prefix = "profolix.seed.synthetic")
+public class SyntheticDataProperties {
+
+    private boolean enabled;
+    private int profiles = 1000;
+    private int experiences = 100_000;
+    private int projects = 100_000;
+    private int skills = 100_000;
+    private int education = 10_000;
+    private int achievements = 10_000;
+    private int batchSize = 5_000;
+    private long seed = 42;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getProfiles() {
+        return profiles;
+    }
+
+    public void setProfiles(int profiles) {
+        this.profiles = profiles;
+    }
+
+    public int getExperiences() {
+        return experiences;
+    }
+
+    public void setExperiences(int experiences) {
+        this.experiences = experiences;
+    }
+
+    public int getProjects() {
+        return projects;
+    }
+
+    public void setProjects(int projects) {
+        this.projects = projects;
+    }
+
+    public int getSkills() {
+        return skills;
+    }
+
+    public void setSkills(int skills) {
+        this.skills = skills;
+    }
+
+    public int getEducation() {
+        return education;
+    }
+
+    public void setEducation(int education) {
+        this.education = education;
+    }
+
+    public int getAchievements() {
+        return achievements;
+    }
+
+    public void setAchievements(int achievements) {
+        this.achievements = achievements;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+}
@@ -0,0 +1,78 @@
+package com.profolix.resume.config;
+
+import com.profolix.resume.service.Slugs;
+import jakarta.annotation.PostConstruct;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Brings a database from before multi-tenancy up to date, after Hibernate has
+ * added the {@code slug} and {@code profile_id} columns:
+ * <ul>
+ * <li>drops the old single-tenant page indexes, which Hibernate's schema
+ * update leaves behind;</li>
+ * <li>gives every profile without one a slug derived from its name;</li>
+ * <li>hands rows without an owner to the first profile, which is the
+ * portfolio they used to be served as;</li>
+ * <li>installs a trigger that deletes a profile's rows with it, so the
+ * change triggers record a tombstone for each.</li>
+ * </ul>
+ */
+@Component
+public class TenantSchema {
+
+    private static final List<String> OWNED_TABLES = List.of("experiences", "skills", "projects", "education",
+            "achievements");
+    private static final List<String> SINGLE_TENANT_INDEXES = List.of("idx_experiences_page", "idx_skills_page",
+            "idx_projects_page", "idx_achievements_page");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Depends on the change-tracking schema so the backfill below is stamped like any other write
+    public TenantSchema(DataSource dataSource, ChangeTrackingSchema changeTrackingSchema) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @PostConstruct
+    public void install() {
+        SINGLE_TENANT_INDEXES.forEach(index -> jdbcTemplate.execute("DROP INDEX IF EXISTS " + index));
+        backfillSlugs();
+
+        Long first = jdbcTemplate.queryForObject("SELECT MIN(id) FROM profiles", Long.class);
+        if (first != null) {
+            for (String table : OWNED_TABLES) {
+                jdbcTemplate.update("UPDATE " + table + " SET profile_id = ? WHERE profile_id IS NULL", first);
+            }
+        }
+
+        StringBuilder cascade = new StringBuilder("CREATE TRIGGER IF NOT EXISTS profiles_cascade_delete "
+                + "AFTER DELETE ON profiles BEGIN ");
+        OWNED_TABLES.forEach(table -> cascade.append("DELETE FROM ").append(table)
+                .append(" WHERE profile_id = OLD.id; "));
+        jdbcTemplate.execute(cascade.append("END").toString());
+    }
+
+    private void backfillSlugs() {
+        List<Map<String, Object>> missing = jdbcTemplate.queryForList(
+                "SELECT id, full_name FROM profiles WHERE slug IS NULL ORDER BY id");
+        if (missing.isEmpty()) {
+            return;
+        }
+        Set<String> taken = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT slug FROM profiles WHERE slug IS NOT NULL", String.class));
+        List<Object[]> updates = new ArrayList<>(missing.size());
+        for (Map<String, Object> row : missing) {
+            String slug = Slugs.unique(Slugs.slugify((String) row.get("full_name")), taken::contains);
+            taken.add(slug);
+            updates.add(new Object[] { slug, row.get("id") });
+        }
+        jdbcTemplate.batchUpdate("UPDATE profiles SET slug = ? WHERE id = ?", updates);
+    }
+}
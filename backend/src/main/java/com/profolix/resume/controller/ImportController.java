@@ -0,0 +1,45 @@
+package com.profolix.resume.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.profolix.resume.service.BulkImportService;
+import com.profolix.resume.service.ImportResult;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api")
+public class ImportController {
+
+    private final BulkImportService bulkImportService;
+
+    public ImportController(BulkImportService bulkImportService) {
+        this.bulkImportService = bulkImportService;
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ImportResult> importJson(InputStream body,
+            @RequestParam(defaultValue = "false") boolean replace) {
+        return ResponseEntity.ok(bulkImportService.importJson(body, replace));
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ImportResult> importNdjson(InputStream body,
+            @RequestParam(defaultValue = "false") boolean replace) {
+        return ResponseEntity.ok(bulkImportService.importNdjson(body, replace));
+    }
+
+    @ExceptionHandler({ IllegalArgumentException.class, JsonProcessingException.class })
+    public ResponseEntity<Map<String, String>> badRequest(Exception e) {
+        return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(e.getMessage())));
+    }
+
+    @ExceptionHandler(UncheckedIOException.class)
+    public ResponseEntity<Map<String, String>> unreadableBody(UncheckedIOException e) {
+        return badRequest(e.getCause());
+    }
+}
@@ -1,76 +1,335 @@
 package com.profolix.resume.controller;
 
-import com.profolix.resume.model.*;
+import com.profolix.resume.cache.BodyFormat;
+import com.profolix.resume.cache.CachedBody;
+import com.profolix.resume.cache.ContentCodings;
+import com.profolix.resume.cache.ResponseBodyCache;
+import com.profolix.resume.cache.UnsupportedFormatException;
+import com.profolix.resume.service.ChangeFeedService;
+import com.profolix.resume.service.ChangeSet;
+import com.profolix.resume.service.FieldProjectionService;
+import com.profolix.resume.service.FieldProjectionService.Listing;
 import com.profolix.resume.service.ResumeService;
+import com.profolix.resume.service.ResumeSnapshot;
+import com.profolix.resume.service.TenantNotFoundException;
+import com.profolix.resume.store.EngineFeatureUnavailableException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
+/**
+ * Every read endpoint serves the default portfolio at {@code /api/...} and any
+ * other at {@code /api/{slug}/...}, from the snapshots of {@link ResumeService};
+ * an unknown slug is a 404.
+ *
+ * <p>Read endpoints are served from {@link ResponseBodyCache}: each body carries a
+ * strong ETag, and a matching {@code If-None-Match} is answered with 304 by
+ * Spring before any body is written. Compressed variants are stored alongside
+ * the JSON and picked by {@code Accept-Encoding}.
+ *
+ * <p>{@code Accept} selects CBOR, Smile or Protobuf instead of JSON (see
+ * {@link BodyFormat}); each format is cached like JSON, with its own ETag.
+ * Responses built outside the cache, such as pages and filtered lists, go
+ * through Spring's message converters, which know CBOR and Smile but not
+ * Protobuf.
+ *
+ * <p>List endpoints also accept {@code cursor} and {@code limit}, which switch
+ * them to keyset-paginated pages read straight from the database. They also
+ * accept {@code fields} or {@code view=summary}, which select only those
+ * columns through {@link FieldProjectionService}.
+ *
+ * <p>Projections and {@code /api/changes} query SQLite directly, so with
+ * another store engine they answer 501 Not Implemented.
+ */
 @RestController
 @RequestMapping("/api")
 public class ResumeController {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
     private final ResumeService resumeService;
+    private final ResponseBodyCache responseBodyCache;
+    // Both null unless profolix.store.engine=sqlite
+    private final FieldProjectionService fieldProjectionService;
+    private final ChangeFeedService changeFeedService;
 
-    public ResumeController(ResumeService resumeService) {
+    public ResumeController(ResumeService resumeService, ResponseBodyCache responseBodyCache,
+            Optional<FieldProjectionService> fieldProjectionService, Optional<ChangeFeedService> changeFeedService) {
         this.resumeService = resumeService;
+        this.responseBodyCache = responseBodyCache;
+        this.fieldProjectionService = fieldProjectionService.orElse(null);
+        this.changeFeedService = changeFeedService.orElse(null);
+    }
+
+    @GetMapping({ "/resume", "/{slug}/resume" })
+    public ResponseEntity<byte[]> getResume(@PathVariable(required = false) String slug,
+            @RequestHeader HttpHeaders headers) {
+        return cached(tenant(slug), "resume", ResumeSnapshot::getResume, headers);
+    }
+
+    @GetMapping({ "/profile", "/{slug}/profile" })
+    public ResponseEntity<byte[]> getProfile(@PathVariable(required = false) String slug,
+            @RequestHeader HttpHeaders headers) {
+        return cached(tenant(slug), "profile", snapshot -> snapshot.getProfile().orElse(null), headers);
+    }
+
+    @GetMapping({ "/experiences", "/{slug}/experiences" })
+    public ResponseEntity<?> getExperiences(@PathVariable(required = false) String slug,
+            @RequestParam(required = false) List<String> tech,
+            @RequestParam(defaultValue = "all") String match,
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields, @RequestParam(required = false) String view,
+            @RequestHeader HttpHeaders headers) {
+        ResumeSnapshot tenant = tenant(slug);
+        List<String> selected = FieldProjectionService.select(Listing.EXPERIENCES, fields, view);
+        if (selected != null) {
+            return projected(tenant, Listing.EXPERIENCES, "experiences", selected, tech, cursor, limit, headers);
+        }
+        if (cursor != null || limit != null) {
+            if (tech != null && !tech.isEmpty()) {
+                throw new IllegalArgumentException("tech cannot be combined with cursor or limit");
+            }
+            return ResponseEntity.ok(resumeService.getExperiencePage(tenant.getProfileId(), cursor, pageLimit(limit)));
+        }
+        if (tech != null && !tech.isEmpty()) {
+            return ResponseEntity.ok(tenant.getExperienceTechnologies().filter(tech, matchAll(match)));
+        }
+        return cached(tenant, "experiences", ResumeSnapshot::getExperiences, headers);
+    }
+
+    @GetMapping({ "/experiences/technologies", "/{slug}/experiences/technologies" })
+    public ResponseEntity<?> getExperienceTechnologies(@PathVariable(required = false) String slug,
+            @RequestParam(required = false) List<String> tech,
+            @RequestParam(defaultValue = "all") String match, @RequestHeader HttpHeaders headers) {
+        ResumeSnapshot tenant = tenant(slug);
+        if (tech != null && !tech.isEmpty()) {
+            return ResponseEntity.ok(tenant.getExperienceTechnologies().facets(tech, matchAll(match)));
+        }
+        return cached(tenant, "experiences/technologies",
+                snapshot -> snapshot.getExperienceTechnologies().facets(List.of(), true), headers);
+    }
+
+    @GetMapping({ "/experiences/{id}", "/{slug}/experiences/{id}" })
+    public ResponseEntity<byte[]> getExperienceById(@PathVariable(required = false) String slug,
+            @PathVariable Long id, @RequestHeader HttpHeaders headers) {
+        ResumeSnapshot tenant = tenant(slug);
+        return cachedLoad(tenant, "experiences/" + id,
+                () -> resumeService.getExperienceById(tenant.getProfileId(), id).orElse(null), headers);
+    }
+
+    @GetMapping({ "/skills", "/{slug}/skills" })
+    public ResponseEntity<?> getSkills(@PathVariable(required = false) String slug,
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields, @RequestParam(required = false) String view,
+            @RequestHeader HttpHeaders headers) {
+        ResumeSnapshot tenant = tenant(slug);
+        List<String> selected = FieldProjectionService.select(Listing.SKILLS, fields, view);
+        if (selected != null) {
+            return projected(tenant, Listing.SKILLS, "skills", selected, null, cursor, limit, headers);
+        }
+        if (cursor != null || limit != null) {
+            return ResponseEntity.ok(resumeService.getSkillPage(tenant.getProfileId(), cursor, pageLimit(limit)));
+        }
+        return cached(tenant, "skills", ResumeSnapshot::getSkills, headers);
+    }
+
+    @GetMapping({ "/skills/categories", "/{slug}/skills/categories" })
+    public ResponseEntity<byte[]> getSkillsByCategory(@PathVariable(required = false) String slug,
+            @RequestHeader HttpHeaders headers) {
+        return cached(tenant(slug), "skills/categories", ResumeSnapshot::getSkillsByCategory, headers);
+    }
+
+    @GetMapping({ "/projects", "/{slug}/projects" })
+    public ResponseEntity<?> getProjects(@PathVariable(required = false) String slug,
+            @RequestParam(required = false) List<String> tech,
+            @RequestParam(defaultValue = "all") String match,
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields, @RequestParam(required = false) String view,
+            @RequestHeader HttpHeaders headers) {
+        ResumeSnapshot tenant = tenant(slug);
+        List<String> selected = FieldProjectionService.select(Listing.PROJECTS, fields, view);
+        if (selected != null) {
+            return projected(tenant, Listing.PROJECTS, "projects", selected, tech, cursor, limit, headers);
+        }
+        if (cursor != null || limit != null) {
+            if (tech != null && !tech.isEmpty()) {
+                throw new IllegalArgumentException("tech cannot be combined with cursor or limit");
+            }
+            return ResponseEntity.ok(resumeService.getProjectPage(tenant.getProfileId(), cursor, pageLimit(limit)));
+        }
+        if (tech != null && !tech.isEmpty()) {
+            return ResponseEntity.ok(tenant.getProjectTechnologies().filter(tech, matchAll(match)));
+        }
+        return cached(tenant, "projects", ResumeSnapshot::getProjects, headers);
+    }
+
+    @GetMapping({ "/projects/technologies", "/{slug}/projects/technologies" })
+    public ResponseEntity<?> getProjectTechnologies(@PathVariable(required = false) String slug,
+            @RequestParam(required = false) List<String> tech,
+            @RequestParam(defaultValue = "all") String match, @RequestHeader HttpHeaders headers) {
+        ResumeSnapshot tenant = tenant(slug);
+        if (tech != null && !tech.isEmpty()) {
+            return ResponseEntity.ok(tenant.getProjectTechnologies().facets(tech, matchAll(match)));
+        }
+        return cached(tenant, "projects/technologies",
+                snapshot -> snapshot.getProjectTechnologies().facets(List.of(), true), headers);
+    }
+
+    @GetMapping({ "/projects/featured", "/{slug}/projects/featured" })
+    public ResponseEntity<byte[]> getFeaturedProjects(@PathVariable(required = false) String slug,
+            @RequestHeader HttpHeaders headers) {
+        return cached(tenant(slug), "projects/featured", ResumeSnapshot::getFeaturedProjects, headers);
+    }
+
+    @GetMapping({ "/projects/{id}", "/{slug}/projects/{id}" })
+    public ResponseEntity<byte[]> getProjectById(@PathVariable(required = false) String slug,
+            @PathVariable Long id, @RequestHeader HttpHeaders headers) {
+        ResumeSnapshot tenant = tenant(slug);
+        return cachedLoad(tenant, "projects/" + id,
+                () -> resumeService.getProjectById(tenant.getProfileId(), id).orElse(null), headers);
+    }
+
+    @GetMapping({ "/education", "/{slug}/education" })
+    public ResponseEntity<byte[]> getEducation(@PathVariable(required = false) String slug,
+            @RequestHeader HttpHeaders headers) {
+        return cached(tenant(slug), "education", ResumeSnapshot::getEducation, headers);
+    }
+
+    @GetMapping({ "/achievements", "/{slug}/achievements" })
+    public ResponseEntity<?> getAchievements(@PathVariable(required = false) String slug,
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields, @RequestParam(required = false) String view,
+            @RequestHeader HttpHeaders headers) {
+        ResumeSnapshot tenant = tenant(slug);
+        List<String> selected = FieldProjectionService.select(Listing.ACHIEVEMENTS, fields, view);
+        if (selected != null) {
+            return projected(tenant, Listing.ACHIEVEMENTS, "achievements", selected, null, cursor, limit, headers);
+        }
+        if (cursor != null || limit != null) {
+            return ResponseEntity.ok(resumeService.getAchievementPage(tenant.getProfileId(), cursor,
+                    pageLimit(limit)));
+        }
+        return cached(tenant, "achievements", ResumeSnapshot::getAchievements, headers);
+    }
+
+    @GetMapping({ "/changes", "/{slug}/changes" })
+    public ResponseEntity<ChangeSet> getChanges(@PathVariable(required = false) String slug,
+            @RequestParam long since) {
+        ResumeSnapshot tenant = tenant(slug);
+        if (changeFeedService == null) {
+            throw new EngineFeatureUnavailableException("The change feed");
+        }
+        return ResponseEntity.ok(changeFeedService.changesSince(tenant.getProfileId(), since));
+    }
+
+    @PostMapping("/reload")
+    public ResponseEntity<Map<String, Long>> reload() {
+        return ResponseEntity.ok(Map.of("version", resumeService.reload()));
+    }
+
+    /**
+     * Serves a sparse fieldset. Whole lists are cached per field set like any
+     * other body; pages are read fresh, as for whole entities.
+     */
+    private ResponseEntity<?> projected(ResumeSnapshot tenant, Listing listing, String key, List<String> fields,
+            List<String> tech, String cursor, Integer limit, HttpHeaders headers) {
+        if (tech != null && !tech.isEmpty()) {
+            throw new IllegalArgumentException("tech cannot be combined with fields or view");
+        }
+        if (fieldProjectionService == null) {
+            throw new EngineFeatureUnavailableException("The fields and view projection");
+        }
+        long profileId = tenant.getProfileId();
+        if (cursor != null || limit != null) {
+            return ResponseEntity.ok(fieldProjectionService.page(listing, profileId, fields, cursor,
+                    pageLimit(limit)));
+        }
+        return cachedLoad(tenant, key + "?fields=" + String.join(",", fields),
+                () -> fieldProjectionService.list(listing, profileId, fields), headers);
     }
 
-    @GetMapping("/profile")
-    public ResponseEntity<Profile> getProfile() {
-        return resumeService.getProfile()
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    private static int pageLimit(Integer limit) {
+        return limit == null ? DEFAULT_PAGE_SIZE : limit;
     }
 
-    @GetMapping("/experiences")
-    public ResponseEntity<List<Experience>> getExperiences() {
-        return ResponseEntity.ok(resumeService.getAllExperiences());
+    /**
+     * Parses the {@code match} parameter of the technology filters. Filtered
+     * responses bypass the body cache, since technology combinations are
+     * unbounded and the bitmap lookup is cheap.
+     */
+    private static boolean matchAll(String match) {
+        if ("all".equalsIgnoreCase(match)) {
+            return true;
+        }
+        if ("any".equalsIgnoreCase(match)) {
+            return false;
+        }
+        throw new IllegalArgumentException("match must be 'all' or 'any'");
     }
 
-    @GetMapping("/experiences/{id}")
-    public ResponseEntity<Experience> getExperienceById(@PathVariable Long id) {
-        return resumeService.getExperienceById(id)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(e.getMessage())));
     }
 
-    @GetMapping("/skills")
-    public ResponseEntity<List<Skill>> getSkills() {
-        return ResponseEntity.ok(resumeService.getAllSkills());
+    @ExceptionHandler(UnsupportedFormatException.class)
+    public ResponseEntity<Void> notAcceptable() {
+        return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).build();
     }
 
-    @GetMapping("/skills/categories")
-    public ResponseEntity<Map<String, List<Skill>>> getSkillsByCategory() {
-        return ResponseEntity.ok(resumeService.getSkillsByCategory());
+    @ExceptionHandler(EngineFeatureUnavailableException.class)
+    public ResponseEntity<Map<String, String>> notImplemented(EngineFeatureUnavailableException e) {
+        return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).body(Map.of("error", e.getMessage()));
     }
 
-    @GetMapping("/projects")
-    public ResponseEntity<List<Project>> getProjects() {
-        return ResponseEntity.ok(resumeService.getAllProjects());
+    @ExceptionHandler(TenantNotFoundException.class)
+    public ResponseEntity<Map<String, String>> tenantNotFound(TenantNotFoundException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
     }
 
-    @GetMapping("/projects/featured")
-    public ResponseEntity<List<Project>> getFeaturedProjects() {
-        return ResponseEntity.ok(resumeService.getFeaturedProjects());
+    private ResumeSnapshot tenant(String slug) {
+        return resumeService.findSnapshot(slug).orElseThrow(() -> new TenantNotFoundException(slug));
     }
 
-    @GetMapping("/projects/{id}")
-    public ResponseEntity<Project> getProjectById(@PathVariable Long id) {
-        return resumeService.getProjectById(id)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    private ResponseEntity<byte[]> cached(ResumeSnapshot tenant, String key, Function<ResumeSnapshot, ?> view,
+            HttpHeaders headers) {
+        return cachedLoad(tenant, key, () -> view.apply(tenant), headers);
     }
 
-    @GetMapping("/education")
-    public ResponseEntity<List<Education>> getEducation() {
-        return ResponseEntity.ok(resumeService.getAllEducation());
+    /**
+     * Bodies are cached per portfolio, under its profile id rather than the
+     * slug, so {@code /api/...} and the default portfolio's slug share them.
+     */
+    private ResponseEntity<byte[]> cachedLoad(ResumeSnapshot tenant, String key, Supplier<?> loader,
+            HttpHeaders headers) {
+        BodyFormat format = BodyFormat.negotiate(headers.getAccept());
+        return respond(responseBodyCache.get(tenant.getProfileId(), key, format, tenant.getVersion(), loader),
+                format, headers);
     }
 
-    @GetMapping("/achievements")
-    public ResponseEntity<List<Achievement>> getAchievements() {
-        return ResponseEntity.ok(resumeService.getAllAchievements());
+    private ResponseEntity<byte[]> respond(CachedBody body, BodyFormat format, HttpHeaders headers) {
+        if (body == null) {
+            return ResponseEntity.notFound().build();
+        }
+        String acceptEncoding = headers.containsKey(HttpHeaders.ACCEPT_ENCODING)
+                ? String.join(",", headers.get(HttpHeaders.ACCEPT_ENCODING)) : null;
+        String coding = ContentCodings.negotiate(acceptEncoding, body.getEncodings());
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                .eTag(body.getEtag(coding));
+        if (coding != null) {
+            response.header(HttpHeaders.CONTENT_ENCODING, coding);
+        }
+        return response.body(body.getBytes(coding));
     }
 }
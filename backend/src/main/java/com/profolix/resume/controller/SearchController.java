@@ -0,0 +1,51 @@
+package com.profolix.resume.controller;
+
+import com.profolix.resume.search.SearchResults;
+import com.profolix.resume.search.SearchService;
+import com.profolix.resume.search.Suggestion;
+import com.profolix.resume.service.ResumeService;
+import com.profolix.resume.service.ResumeSnapshot;
+import com.profolix.resume.service.TenantNotFoundException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api")
+public class SearchController {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final SearchService searchService;
+    private final ResumeService resumeService;
+
+    public SearchController(SearchService searchService, ResumeService resumeService) {
+        this.searchService = searchService;
+        this.resumeService = resumeService;
+    }
+
+    @GetMapping({ "/search", "/{slug}/search" })
+    public ResponseEntity<SearchResults> search(@PathVariable(required = false) String slug, @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(searchService.search(tenant(slug), q, Math.max(1, Math.min(limit, MAX_LIMIT))));
+    }
+
+    @GetMapping({ "/suggest", "/{slug}/suggest" })
+    public ResponseEntity<List<Suggestion>> suggest(@PathVariable(required = false) String slug,
+            @RequestParam String prefix, @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(searchService.suggest(tenant(slug), prefix,
+                Math.max(1, Math.min(limit, searchService.getMaxSuggestions()))));
+    }
+
+    @ExceptionHandler(TenantNotFoundException.class)
+    public ResponseEntity<Map<String, String>> tenantNotFound(TenantNotFoundException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+    }
+
+    private ResumeSnapshot tenant(String slug) {
+        return resumeService.findSnapshot(slug).orElseThrow(() -> new TenantNotFoundException(slug));
+    }
+}
@@ -0,0 +1,41 @@
+package com.profolix.resume.controller;
+
+import com.profolix.resume.service.ResumeService;
+import com.profolix.resume.service.TenantNotFoundException;
+import com.profolix.resume.stream.ChangeStream;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api")
+public class StreamController {
+
+    private final ChangeStream changeStream;
+    private final ResumeService resumeService;
+
+    public StreamController(ChangeStream changeStream, ResumeService resumeService) {
+        this.changeStream = changeStream;
+        this.resumeService = resumeService;
+    }
+
+    @GetMapping(value = { "/stream", "/{slug}/stream" }, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public void stream(@PathVariable(required = false) String slug, HttpServletRequest request) throws IOException {
+        changeStream.subscribe(resumeService.findSnapshot(slug).orElseThrow(() -> new TenantNotFoundException(slug)),
+                request);
+    }
+
+    @ExceptionHandler(TenantNotFoundException.class)
+    public ResponseEntity<Map<String, String>> tenantNotFound(TenantNotFoundException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+    }
+}
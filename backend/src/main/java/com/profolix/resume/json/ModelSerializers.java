@@ -0,0 +1,325 @@
+package com.profolix.resume.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.profolix.resume.model.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hand-written serializers for the resume models. Each writes its fields in
+ * the order Jackson's bean introspection would, with the same names and
+ * nulls, so the JSON is byte-for-byte what the default path produced; they
+ * only skip the reflective property access and per-property lookups.
+ *
+ * <p>Field names are {@link SerializedString}s, which keep their quoted
+ * UTF-8 encoding after first use, so the generator copies them straight into
+ * its buffer. A new field on a model must be added here as well.
+ */
+final class ModelSerializers {
+
+    private ModelSerializers() {
+    }
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString TITLE = new SerializedString("title");
+    private static final SerializedString DESCRIPTION = new SerializedString("description");
+    private static final SerializedString TECHNOLOGIES = new SerializedString("technologies");
+    private static final SerializedString LOCATION = new SerializedString("location");
+    private static final SerializedString LOGO_URL = new SerializedString("logoUrl");
+    private static final SerializedString SORT_ORDER = new SerializedString("sortOrder");
+
+    static final class ProfileSerializer extends StdSerializer<Profile> {
+
+        private static final SerializedString SLUG = new SerializedString("slug");
+        private static final SerializedString FULL_NAME = new SerializedString("fullName");
+        private static final SerializedString SUBTITLE = new SerializedString("subtitle");
+        private static final SerializedString EMAIL = new SerializedString("email");
+        private static final SerializedString PHONE = new SerializedString("phone");
+        private static final SerializedString LINKED_IN = new SerializedString("linkedIn");
+        private static final SerializedString GITHUB = new SerializedString("github");
+        private static final SerializedString PORTFOLIO = new SerializedString("portfolio");
+        private static final SerializedString BIO = new SerializedString("bio");
+        private static final SerializedString PROFILE_IMAGE_URL = new SerializedString("profileImageUrl");
+        private static final SerializedString YEARS_OF_EXPERIENCE = new SerializedString("yearsOfExperience");
+        private static final SerializedString PROJECTS_COMPLETED = new SerializedString("projectsCompleted");
+        private static final SerializedString COMPANIES_WORKED = new SerializedString("companiesWorked");
+        private static final SerializedString CERTIFICATIONS_EARNED = new SerializedString("certificationsEarned");
+
+        ProfileSerializer() {
+            super(Profile.class);
+        }
+
+        @Override
+        public void serialize(Profile p, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(p);
+            writeId(gen, p.getId());
+            writeString(gen, SLUG, p.getSlug());
+            writeString(gen, FULL_NAME, p.getFullName());
+            writeString(gen, TITLE, p.getTitle());
+            writeString(gen, SUBTITLE, p.getSubtitle());
+            writeString(gen, EMAIL, p.getEmail());
+            writeString(gen, PHONE, p.getPhone());
+            writeString(gen, LOCATION, p.getLocation());
+            writeString(gen, LINKED_IN, p.getLinkedIn());
+            writeString(gen, GITHUB, p.getGithub());
+            writeString(gen, PORTFOLIO, p.getPortfolio());
+            writeString(gen, BIO, p.getBio());
+            writeString(gen, PROFILE_IMAGE_URL, p.getProfileImageUrl());
+            writeInt(gen, YEARS_OF_EXPERIENCE, p.getYearsOfExperience());
+            writeInt(gen, PROJECTS_COMPLETED, p.getProjectsCompleted());
+            writeInt(gen, COMPANIES_WORKED, p.getCompaniesWorked());
+            writeInt(gen, CERTIFICATIONS_EARNED, p.getCertificationsEarned());
+            gen.writeEndObject();
+        }
+    }
+
+    static final class ExperienceSerializer extends StdSerializer<Experience> {
+
+        private static final SerializedString COMPANY = new SerializedString("company");
+        private static final SerializedString ROLE = new SerializedString("role");
+        private static final SerializedString START_DATE = new SerializedString("startDate");
+        private static final SerializedString END_DATE = new SerializedString("endDate");
+        private static final SerializedString CURRENT = new SerializedString("current");
+
+        ExperienceSerializer() {
+            super(Experience.class);
+        }
+
+        @Override
+        public void serialize(Experience e, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(e);
+            writeId(gen, e.getId());
+            writeString(gen, COMPANY, e.getCompany());
+            writeString(gen, ROLE, e.getRole());
+            writeString(gen, START_DATE, e.getStartDate());
+            writeString(gen, END_DATE, e.getEndDate());
+            writeString(gen, LOCATION, e.getLocation());
+            writeString(gen, DESCRIPTION, e.getDescription());
+            writeString(gen, TECHNOLOGIES, e.getTechnologies());
+            writeString(gen, LOGO_URL, e.getLogoUrl());
+            gen.writeFieldName(CURRENT);
+            gen.writeBoolean(e.isCurrent());
+            writeInt(gen, SORT_ORDER, e.getSortOrder());
+            gen.writeEndObject();
+        }
+    }
+
+    static final class SkillSerializer extends StdSerializer<Skill> {
+
+        private static final SerializedString NAME = new SerializedString("name");
+        private static final SerializedString CATEGORY = new SerializedString("category");
+        private static final SerializedString PROFICIENCY = new SerializedString("proficiency");
+        private static final SerializedString ICON_NAME = new SerializedString("iconName");
+
+        SkillSerializer() {
+            super(Skill.class);
+        }
+
+        @Override
+        public void serialize(Skill s, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(s);
+            writeId(gen, s.getId());
+            writeString(gen, NAME, s.getName());
+            writeString(gen, CATEGORY, s.getCategory());
+            writeInt(gen, PROFICIENCY, s.getProficiency());
+            writeString(gen, ICON_NAME, s.getIconName());
+            gen.writeEndObject();
+        }
+    }
+
+    static final class ProjectSerializer extends StdSerializer<Project> {
+
+        private static final SerializedString IMAGE_URL = new SerializedString("imageUrl");
+        private static final SerializedString LIVE_URL = new SerializedString("liveUrl");
+        private static final SerializedString GITHUB_URL = new SerializedString("githubUrl");
+        private static final SerializedString FEATURED = new SerializedString("featured");
+
+        ProjectSerializer() {
+            super(Project.class);
+        }
+
+        @Override
+        public void serialize(Project p, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(p);
+            writeId(gen, p.getId());
+            writeString(gen, TITLE, p.getTitle());
+            writeString(gen, DESCRIPTION, p.getDescription());
+            writeString(gen, TECHNOLOGIES, p.getTechnologies());
+            writeString(gen, IMAGE_URL, p.getImageUrl());
+            writeString(gen, LIVE_URL, p.getLiveUrl());
+            writeString(gen, GITHUB_URL, p.getGithubUrl());
+            gen.writeFieldName(FEATURED);
+            gen.writeBoolean(p.isFeatured());
+            writeInt(gen, SORT_ORDER, p.getSortOrder());
+            gen.writeEndObject();
+        }
+    }
+
+    static final class EducationSerializer extends StdSerializer<Education> {
+
+        private static final SerializedString INSTITUTION = new SerializedString("institution");
+        private static final SerializedString DEGREE = new SerializedString("degree");
+        private static final SerializedString FIELD = new SerializedString("field");
+        private static final SerializedString START_YEAR = new SerializedString("startYear");
+        private static final SerializedString END_YEAR = new SerializedString("endYear");
+        private static final SerializedString GRADE = new SerializedString("grade");
+
+        EducationSerializer() {
+            super(Education.class);
+        }
+
+        @Override
+        public void serialize(Education e, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(e);
+            writeId(gen, e.getId());
+            writeString(gen, INSTITUTION, e.getInstitution());
+            writeString(gen, DEGREE, e.getDegree());
+            writeString(gen, FIELD, e.getField());
+            writeString(gen, START_YEAR, e.getStartYear());
+            writeString(gen, END_YEAR, e.getEndYear());
+            writeString(gen, GRADE, e.getGrade());
+            writeString(gen, LOGO_URL, e.getLogoUrl());
+            writeInt(gen, SORT_ORDER, e.getSortOrder());
+            gen.writeEndObject();
+        }
+    }
+
+    static final class AchievementSerializer extends StdSerializer<Achievement> {
+
+        private static final SerializedString ICON = new SerializedString("icon");
+        private static final SerializedString YEAR = new SerializedString("year");
+
+        AchievementSerializer() {
+            super(Achievement.class);
+        }
+
+        @Override
+        public void serialize(Achievement a, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(a);
+            writeId(gen, a.getId());
+            writeString(gen, TITLE, a.getTitle());
+            writeString(gen, DESCRIPTION, a.getDescription());
+            writeString(gen, ICON, a.getIcon());
+            writeString(gen, YEAR, a.getYear());
+            writeInt(gen, SORT_ORDER, a.getSortOrder());
+            gen.writeEndObject();
+        }
+    }
+
+    /** {@code GET /api/skills/categories}: category names to their skills, in order. */
+    static final class SkillsByCategorySerializer extends StdSerializer<SkillsByCategory> {
+
+        private final SkillSerializer skill;
+
+        SkillsByCategorySerializer(SkillSerializer skill) {
+            super(SkillsByCategory.class);
+            this.skill = skill;
+        }
+
+        @Override
+        public void serialize(SkillsByCategory categories, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            writeCategories(categories, gen, provider);
+        }
+
+        void writeCategories(Map<String, List<Skill>> categories, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            gen.writeStartObject(categories);
+            for (Map.Entry<String, List<Skill>> category : categories.entrySet()) {
+                gen.writeFieldName(category.getKey());
+                writeArray(gen, provider, skill, category.getValue());
+            }
+            gen.writeEndObject();
+        }
+    }
+
+    /** {@code GET /api/resume}, with every nested model written by the serializers above. */
+    static final class ResumeSerializer extends StdSerializer<Resume> {
+
+        private static final SerializedString PROFILE = new SerializedString("profile");
+        private static final SerializedString EXPERIENCES = new SerializedString("experiences");
+        private static final SerializedString SKILLS = new SerializedString("skills");
+        private static final SerializedString PROJECTS = new SerializedString("projects");
+        private static final SerializedString EDUCATION = new SerializedString("education");
+        private static final SerializedString ACHIEVEMENTS = new SerializedString("achievements");
+
+        private final ProfileSerializer profile;
+        private final ExperienceSerializer experience;
+        private final SkillsByCategorySerializer skills;
+        private final ProjectSerializer project;
+        private final EducationSerializer education;
+        private final AchievementSerializer achievement;
+
+        ResumeSerializer(ProfileSerializer profile, ExperienceSerializer experience,
+                SkillsByCategorySerializer skills, ProjectSerializer project, EducationSerializer education,
+                AchievementSerializer achievement) {
+            super(Resume.class);
+            this.profile = profile;
+            this.experience = experience;
+            this.skills = skills;
+            this.project = project;
+            this.education = education;
+            this.achievement = achievement;
+        }
+
+        @Override
+        public void serialize(Resume r, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(r);
+            gen.writeFieldName(PROFILE);
+            if (r.getProfile() == null) {
+                gen.writeNull();
+            } else {
+                profile.serialize(r.getProfile(), gen, provider);
+            }
+            gen.writeFieldName(EXPERIENCES);
+            writeArray(gen, provider, experience, r.getExperiences());
+            gen.writeFieldName(SKILLS);
+            skills.writeCategories(r.getSkills(), gen, provider);
+            gen.writeFieldName(PROJECTS);
+            writeArray(gen, provider, project, r.getProjects());
+            gen.writeFieldName(EDUCATION);
+            writeArray(gen, provider, education, r.getEducation());
+            gen.writeFieldName(ACHIEVEMENTS);
+            writeArray(gen, provider, achievement, r.getAchievements());
+            gen.writeEndObject();
+        }
+    }
+
+    private static <T> void writeArray(JsonGenerator gen, SerializerProvider provider, StdSerializer<T> element,
+            List<T> items) throws IOException {
+        gen.writeStartArray(items, items.size());
+        for (T item : items) {
+            element.serialize(item, gen, provider);
+        }
+        gen.writeEndArray();
+    }
+
+    private static void writeId(JsonGenerator gen, Long id) throws IOException {
+        gen.writeFieldName(ID);
+        if (id == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(id.longValue());
+        }
+    }
+
+    private static void writeString(JsonGenerator gen, SerializableString name, String value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(value);
+        }
+    }
+
+    private static void writeInt(JsonGenerator gen, SerializableString name, int value) throws IOException {
+        gen.writeFieldName(name);
+        gen.writeNumber(value);
+    }
+}
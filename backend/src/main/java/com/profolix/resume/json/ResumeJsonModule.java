@@ -0,0 +1,41 @@
+package com.profolix.resume.json;
+
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.profolix.resume.json.ModelSerializers.*;
+import com.profolix.resume.model.*;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registers {@link ModelSerializers} in place of bean introspection for the
+ * resume models. Spring Boot adds every {@code Module} bean to the application
+ * {@code ObjectMapper}, and the CBOR and Smile mappers are copies of it, so
+ * all three formats use them.
+ *
+ * <p>The serializers always write every field, nulls included, as the
+ * default configuration does; they do not honour
+ * {@code spring.jackson.default-property-inclusion} or mix-ins.
+ */
+@Component
+public class ResumeJsonModule extends SimpleModule {
+
+    public ResumeJsonModule() {
+        super("ResumeJsonModule");
+        ProfileSerializer profile = new ProfileSerializer();
+        ExperienceSerializer experience = new ExperienceSerializer();
+        SkillSerializer skill = new SkillSerializer();
+        ProjectSerializer project = new ProjectSerializer();
+        EducationSerializer education = new EducationSerializer();
+        AchievementSerializer achievement = new AchievementSerializer();
+        SkillsByCategorySerializer skillsByCategory = new SkillsByCategorySerializer(skill);
+
+        addSerializer(Profile.class, profile);
+        addSerializer(Experience.class, experience);
+        addSerializer(Skill.class, skill);
+        addSerializer(Project.class, project);
+        addSerializer(Education.class, education);
+        addSerializer(Achievement.class, achievement);
+        addSerializer(SkillsByCategory.class, skillsByCategory);
+        addSerializer(Resume.class,
+                new ResumeSerializer(profile, experience, skillsByCategory, project, education, achievement));
+    }
+}
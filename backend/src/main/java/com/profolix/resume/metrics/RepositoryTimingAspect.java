@@ -0,0 +1,25 @@
+package com.profolix.resume.metrics;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds the duration of every Spring Data repository call to the current
+ * request's timings.
+ */
+@Aspect
+@Component
+public class RepositoryTimingAspect {
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            RequestTimings.recordRepository(System.nanoTime() - start);
+        }
+    }
+}
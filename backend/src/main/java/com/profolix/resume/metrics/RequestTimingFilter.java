@@ -0,0 +1,135 @@
+package com.profolix.resume.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures each {@code /api} request: repository time, SQL statement count and
+ * time, entity hydration, JSON serialization, ETag hashing, compression and the
+ * total. The breakdown is sent back in a {@code Server-Timing} header and
+ * recorded as the {@code profolix.request.phase} timers and the
+ * {@code profolix.request.sql.statements} summary, tagged by endpoint.
+ */
+@Component
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    public RequestTimingFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestTimings timings = new RequestTimings();
+        ServerTimingResponse timedResponse = new ServerTimingResponse(response, timings);
+        RequestTimings.bind(timings);
+        try {
+            chain.doFilter(request, timedResponse);
+            // Bodiless responses (304, 404) are still uncommitted here
+            timedResponse.writeHeader();
+        } finally {
+            RequestTimings.bind(null);
+            record(request, timings);
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestTimings timings) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        phase(uri, "total", timings.elapsedNanos());
+        phase(uri, "repository", timings.repositoryNanos());
+        phase(uri, "sql", timings.sqlNanos());
+        phase(uri, "hydration", timings.hydrationNanos());
+        phase(uri, "serialization", timings.serializationNanos());
+        phase(uri, "etag", timings.hashingNanos());
+        phase(uri, "compression", timings.compressionNanos());
+        DistributionSummary.builder("profolix.request.sql.statements")
+                .description("SQL statements executed per request")
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(timings.sqlStatements());
+    }
+
+    private void phase(String uri, String phase, long nanos) {
+        Timer.builder("profolix.request.phase")
+                .description("Time spent per request in each processing phase")
+                .tags("uri", uri, "phase", phase)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Adds the {@code Server-Timing} header at the last moment it can still be
+     * sent: when the body is first written, the response is flushed, or the
+     * chain returns without either.
+     */
+    private static final class ServerTimingResponse extends HttpServletResponseWrapper {
+
+        private final RequestTimings timings;
+        private boolean headerWritten;
+
+        ServerTimingResponse(HttpServletResponse response, RequestTimings timings) {
+            super(response);
+            this.timings = timings;
+        }
+
+        private void writeHeader() {
+            if (!headerWritten && !isCommitted()) {
+                headerWritten = true;
+                setHeader("Server-Timing", timings.toServerTiming());
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeader();
+            super.sendError(sc, msg);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.profolix.resume.metrics;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Where one API request spent its time. Bound to the request thread by
+ * {@link RequestTimingFilter} and carried onto the snapshot loader threads by
+ * {@link #propagate(Runnable)}; the static recorders are no-ops outside a
+ * request. Times recorded on several threads are summed, so {@code repo} can
+ * exceed the wall-clock total when the loads fan out.
+ */
+public final class RequestTimings {
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private final LongAdder repositoryNanos = new LongAdder();
+    private final LongAdder sqlNanos = new LongAdder();
+    private final LongAdder sqlStatements = new LongAdder();
+    private final LongAdder serializationNanos = new LongAdder();
+    private final LongAdder hashingNanos = new LongAdder();
+    private final LongAdder compressionNanos = new LongAdder();
+
+    RequestTimings() {
+    }
+
+    static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    static void bind(RequestTimings timings) {
+        if (timings == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(timings);
+        }
+    }
+
+    /**
+     * Wraps {@code task} so it records into the calling thread's request, if any.
+     */
+    public static Runnable propagate(Runnable task) {
+        RequestTimings timings = CURRENT.get();
+        if (timings == null) {
+            return task;
+        }
+        return () -> {
+            RequestTimings previous = CURRENT.get();
+            CURRENT.set(timings);
+            try {
+                task.run();
+            } finally {
+                bind(previous);
+            }
+        };
+    }
+
+    public static void recordRepository(long nanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.repositoryNanos.add(nanos);
+        }
+    }
+
+    public static void recordSql(long nanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.sqlNanos.add(nanos);
+            timings.sqlStatements.increment();
+        }
+    }
+
+    public static void recordSerialization(long nanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.serializationNanos.add(nanos);
+        }
+    }
+
+    public static void recordHashing(long nanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.hashingNanos.add(nanos);
+        }
+    }
+
+    public static void recordCompression(long nanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.compressionNanos.add(nanos);
+        }
+    }
+
+    long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    long repositoryNanos() {
+        return repositoryNanos.sum();
+    }
+
+    long sqlNanos() {
+        return sqlNanos.sum();
+    }
+
+    long sqlStatements() {
+        return sqlStatements.sum();
+    }
+
+    /**
+     * Repository time not spent executing SQL: stepping through result sets
+     * and building entities from them.
+     */
+    long hydrationNanos() {
+        return Math.max(0, repositoryNanos() - sqlNanos());
+    }
+
+    long serializationNanos() {
+        return serializationNanos.sum();
+    }
+
+    /** Time spent deriving ETags from built bodies. */
+    long hashingNanos() {
+        return hashingNanos.sum();
+    }
+
+    long compressionNanos() {
+        return compressionNanos.sum();
+    }
+
+    String toServerTiming() {
+        return entry("repo", null, repositoryNanos())
+                + ", " + entry("sql", sqlStatements() + " statements", sqlNanos())
+                + ", " + entry("hydrate", null, hydrationNanos())
+                + ", " + entry("serialize", null, serializationNanos())
+                + ", " + entry("etag", null, hashingNanos())
+                + ", " + entry("compress", null, compressionNanos())
+                + ", " + entry("total", null, elapsedNanos());
+    }
+
+    private static String entry(String name, String description, long nanos) {
+        double millis = nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        return description == null
+                ? String.format(Locale.ROOT, "%s;dur=%.3f", name, millis)
+                : String.format(Locale.ROOT, "%s;desc=\"%s\";dur=%.3f", name, description, millis);
+    }
+}
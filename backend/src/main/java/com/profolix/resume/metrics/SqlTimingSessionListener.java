@@ -0,0 +1,34 @@
+package com.profolix.resume.metrics;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Counts and times the JDBC statements Hibernate executes for the current
+ * request. Hibernate creates one instance per session, which is confined to a
+ * single thread. Registered through {@code hibernate.session.events.auto}.
+ */
+public class SqlTimingSessionListener extends BaseSessionEventListener {
+
+    private long statementStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestTimings.recordSql(System.nanoTime() - statementStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        RequestTimings.recordSql(System.nanoTime() - batchStart);
+    }
+}
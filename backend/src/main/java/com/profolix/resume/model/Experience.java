@@ -1,15 +1,33 @@
 package com.profolix.resume.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.id.IncrementGenerator;
 
 @Entity
-@Table(name = "experiences")
-public class Experience {
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "experiences")
+@Table(name = "experiences", indexes = {
+        @Index(name = "idx_experiences_profile", columnList = "profileId, sortOrder, id"),
+        @Index(name = "idx_experiences_change", columnList = "changeVersion") })
+public class Experience implements ProfileOwned {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "experience_id")
+    @GenericGenerator(name = "experience_id", type = IncrementGenerator.class)
     private Long id;
 
+    // Stamped by database triggers on every insert and update, see ChangeTrackingSchema
+    @JsonIgnore
+    @Column(insertable = false, updatable = false)
+    private Long changeVersion;
+
+    @JsonIgnore
+    private Long profileId;
+
     private String company;
     private String role;
     private String startDate;
@@ -37,6 +55,20 @@ public class Experience {
         this.id = id;
     }
 
+    public Long getChangeVersion() {
+        return changeVersion;
+    }
+
+    @Override
+    public Long getProfileId() {
+        return profileId;
+    }
+
+    @Override
+    public void setProfileId(Long profileId) {
+        this.profileId = profileId;
+    }
+
     public String getCompany() {
         return company;
     }
@@ -1,15 +1,33 @@
 package com.profolix.resume.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.id.IncrementGenerator;
 
 @Entity
-@Table(name = "profiles")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "profiles")
+@Table(name = "profiles", indexes = {
+        @Index(name = "idx_profiles_slug", columnList = "slug", unique = true),
+        @Index(name = "idx_profiles_change", columnList = "changeVersion") })
 public class Profile {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "profile_id")
+    @GenericGenerator(name = "profile_id", type = IncrementGenerator.class)
     private Long id;
 
+    // Stamped by database triggers on every insert and update, see ChangeTrackingSchema
+    @JsonIgnore
+    @Column(insertable = false, updatable = false)
+    private Long changeVersion;
+
+    // URL path segment of the portfolio, /api/{slug}/...; see Slugs
+    private String slug;
+
     private String fullName;
     private String title;
     private String subtitle;
@@ -41,6 +59,18 @@ public class Profile {
         this.id = id;
     }
 
+    public Long getChangeVersion() {
+        return changeVersion;
+    }
+
+    public String getSlug() {
+        return slug;
+    }
+
+    public void setSlug(String slug) {
+        this.slug = slug;
+    }
+
     public String getFullName() {
         return fullName;
     }
@@ -0,0 +1,13 @@
+package com.profolix.resume.model;
+
+/**
+ * A row that belongs to one portfolio. {@code profileId} is the owning
+ * {@link Profile}'s id; the API routes by that profile's slug, so the column
+ * is never part of a response body.
+ */
+public interface ProfileOwned {
+
+    Long getProfileId();
+
+    void setProfileId(Long profileId);
+}
@@ -1,15 +1,33 @@
 package com.profolix.resume.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.id.IncrementGenerator;
 
 @Entity
-@Table(name = "projects")
-public class Project {
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "projects")
+@Table(name = "projects", indexes = {
+        @Index(name = "idx_projects_profile", columnList = "profileId, sortOrder, id"),
+        @Index(name = "idx_projects_change", columnList = "changeVersion") })
+public class Project implements ProfileOwned {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "project_id")
+    @GenericGenerator(name = "project_id", type = IncrementGenerator.class)
     private Long id;
 
+    // Stamped by database triggers on every insert and update, see ChangeTrackingSchema
+    @JsonIgnore
+    @Column(insertable = false, updatable = false)
+    private Long changeVersion;
+
+    @JsonIgnore
+    private Long profileId;
+
     private String title;
 
     @Column(length = 2000)
@@ -35,6 +53,20 @@ public class Project {
         this.id = id;
     }
 
+    public Long getChangeVersion() {
+        return changeVersion;
+    }
+
+    @Override
+    public Long getProfileId() {
+        return profileId;
+    }
+
+    @Override
+    public void setProfileId(Long profileId) {
+        this.profileId = profileId;
+    }
+
     public String getTitle() {
         return title;
     }
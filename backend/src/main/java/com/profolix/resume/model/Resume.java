@@ -0,0 +1,52 @@
+package com.profolix.resume.model;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregate view of the whole resume, served by {@code GET /api/resume} so a
+ * client can render every tab from a single round trip.
+ */
+public class Resume {
+
+    private final Profile profile;
+    private final List<Experience> experiences;
+    private final Map<String, List<Skill>> skills;
+    private final List<Project> projects;
+    private final List<Education> education;
+    private final List<Achievement> achievements;
+
+    public Resume(Profile profile, List<Experience> experiences, Map<String, List<Skill>> skills,
+            List<Project> projects, List<Education> education, List<Achievement> achievements) {
+        this.profile = profile;
+        this.experiences = experiences;
+        this.skills = skills;
+        this.projects = projects;
+        this.education = education;
+        this.achievements = achievements;
+    }
+
+    public Profile getProfile() {
+        return profile;
+    }
+
+    public List<Experience> getExperiences() {
+        return experiences;
+    }
+
+    public Map<String, List<Skill>> getSkills() {
+        return skills;
+    }
+
+    public List<Project> getProjects() {
+        return projects;
+    }
+
+    public List<Education> getEducation() {
+        return education;
+    }
+
+    public List<Achievement> getAchievements() {
+        return achievements;
+    }
+}
@@ -1,15 +1,33 @@
 package com.profolix.resume.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.id.IncrementGenerator;
 
 @Entity
-@Table(name = "skills")
-public class Skill {
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "skills")
+@Table(name = "skills", indexes = {
+        @Index(name = "idx_skills_profile", columnList = "profileId, category, proficiency desc, id"),
+        @Index(name = "idx_skills_change", columnList = "changeVersion") })
+public class Skill implements ProfileOwned {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "skill_id")
+    @GenericGenerator(name = "skill_id", type = IncrementGenerator.class)
     private Long id;
 
+    // Stamped by database triggers on every insert and update, see ChangeTrackingSchema
+    @JsonIgnore
+    @Column(insertable = false, updatable = false)
+    private Long changeVersion;
+
+    @JsonIgnore
+    private Long profileId;
+
     private String name;
 
     @Column(nullable = false)
@@ -36,6 +54,20 @@ public class Skill {
         this.id = id;
     }
 
+    public Long getChangeVersion() {
+        return changeVersion;
+    }
+
+    @Override
+    public Long getProfileId() {
+        return profileId;
+    }
+
+    @Override
+    public void setProfileId(Long profileId) {
+        this.profileId = profileId;
+    }
+
     public String getName() {
         return name;
     }
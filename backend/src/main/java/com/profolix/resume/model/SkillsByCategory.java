@@ -0,0 +1,37 @@
+package com.profolix.resume.model;
+
+import java.util.*;
+
+/**
+ * Skills grouped by category, in the order the categories were first seen.
+ * A map type of its own so the JSON writer can pick a serializer for it from
+ * the runtime class alone, which a plain {@code LinkedHashMap} does not allow.
+ */
+public final class SkillsByCategory extends AbstractMap<String, List<Skill>> {
+
+    private final Map<String, List<Skill>> categories;
+
+    public SkillsByCategory(Map<String, List<Skill>> categories) {
+        this.categories = Collections.unmodifiableMap(new LinkedHashMap<>(categories));
+    }
+
+    @Override
+    public Set<Entry<String, List<Skill>>> entrySet() {
+        return categories.entrySet();
+    }
+
+    @Override
+    public List<Skill> get(Object category) {
+        return categories.get(category);
+    }
+
+    @Override
+    public boolean containsKey(Object category) {
+        return categories.containsKey(category);
+    }
+
+    @Override
+    public int size() {
+        return categories.size();
+    }
+}
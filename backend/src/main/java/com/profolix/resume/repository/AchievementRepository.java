@@ -1,12 +1,30 @@
 package com.profolix.resume.repository;
 
 import com.profolix.resume.model.Achievement;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
 public interface AchievementRepository extends JpaRepository<Achievement, Long> {
-    List<Achievement> findAllByOrderBySortOrderAsc();
+    List<Achievement> findByProfileIdOrderBySortOrderAsc(long profileId);
+
+    /**
+     * Next page in {@code (sortOrder, id)} order after the given key; see
+     * {@link ProjectRepository#findPageAfter}.
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    @Query("select a from Achievement a where a.profileId = :profileId and a.sortOrder >= :sortOrder "
+            + "and (a.sortOrder > :sortOrder or a.id > :id) order by a.sortOrder asc, a.id asc")
+    List<Achievement> findPageAfter(@Param("profileId") long profileId, @Param("sortOrder") int sortOrder,
+            @Param("id") long id, Limit limit);
+
+    List<Achievement> findByProfileIdAndChangeVersionGreaterThanOrderByChangeVersionAsc(long profileId, long version);
 }
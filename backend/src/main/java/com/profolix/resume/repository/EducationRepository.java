@@ -8,5 +8,7 @@ import java.util.List;
 
 @Repository
 public interface EducationRepository extends JpaRepository<Education, Long> {
-    List<Education> findAllByOrderBySortOrderAsc();
+    List<Education> findByProfileIdOrderBySortOrderAsc(long profileId);
+
+    List<Education> findByProfileIdAndChangeVersionGreaterThanOrderByChangeVersionAsc(long profileId, long version);
 }
@@ -1,12 +1,30 @@
 package com.profolix.resume.repository;
 
 import com.profolix.resume.model.Experience;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
 public interface ExperienceRepository extends JpaRepository<Experience, Long> {
-    List<Experience> findAllByOrderBySortOrderAsc();
+    List<Experience> findByProfileIdOrderBySortOrderAsc(long profileId);
+
+    /**
+     * Next page in {@code (sortOrder, id)} order after the given key; see
+     * {@link ProjectRepository#findPageAfter}.
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    @Query("select e from Experience e where e.profileId = :profileId and e.sortOrder >= :sortOrder "
+            + "and (e.sortOrder > :sortOrder or e.id > :id) order by e.sortOrder asc, e.id asc")
+    List<Experience> findPageAfter(@Param("profileId") long profileId, @Param("sortOrder") int sortOrder,
+            @Param("id") long id, Limit limit);
+
+    List<Experience> findByProfileIdAndChangeVersionGreaterThanOrderByChangeVersionAsc(long profileId, long version);
 }
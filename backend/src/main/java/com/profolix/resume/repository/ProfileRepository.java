@@ -1,12 +1,26 @@
 package com.profolix.resume.repository;
 
 import com.profolix.resume.model.Profile;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProfileRepository extends JpaRepository<Profile, Long> {
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<Profile> findFirstByOrderByIdAsc();
+
+    Optional<Profile> findBySlug(String slug);
+
+    List<Profile> findByIdAndChangeVersionGreaterThan(long id, long version);
+
+    @Query("select p.slug from Profile p where p.slug is not null order by p.id asc")
+    List<String> findSlugs(Limit limit);
 }
@@ -1,13 +1,33 @@
 package com.profolix.resume.repository;
 
 import com.profolix.resume.model.Project;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
 public interface ProjectRepository extends JpaRepository<Project, Long> {
-    List<Project> findAllByOrderBySortOrderAsc();
-    List<Project> findByFeaturedTrue();
+    List<Project> findByProfileIdOrderBySortOrderAsc(long profileId);
+
+    /**
+     * Next page of one profile's projects in {@code (sortOrder, id)} order
+     * after the given key. The profile and the leading {@code sortOrder >=}
+     * bound let SQLite seek into the {@code (profileId, sortOrder, id)} index
+     * instead of scanning from the start.
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    @Query("select p from Project p where p.profileId = :profileId and p.sortOrder >= :sortOrder "
+            + "and (p.sortOrder > :sortOrder or p.id > :id) order by p.sortOrder asc, p.id asc")
+    List<Project> findPageAfter(@Param("profileId") long profileId, @Param("sortOrder") int sortOrder,
+            @Param("id") long id, Limit limit);
+
+    /** One profile's rows inserted or updated after {@code version}, for delta sync. */
+    List<Project> findByProfileIdAndChangeVersionGreaterThanOrderByChangeVersionAsc(long profileId, long version);
 }
@@ -1,13 +1,31 @@
 package com.profolix.resume.repository;
 
 import com.profolix.resume.model.Skill;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
 public interface SkillRepository extends JpaRepository<Skill, Long> {
-    List<Skill> findByCategory(String category);
-    List<Skill> findAllByOrderByCategoryAscProficiencyDesc();
+    List<Skill> findByProfileIdOrderByCategoryAscProficiencyDesc(long profileId);
+
+    /**
+     * Next page in {@code (category, proficiency desc, id)} order after the
+     * given key, matching the order of {@link #findByProfileIdOrderByCategoryAscProficiencyDesc}.
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    @Query("select s from Skill s where s.profileId = :profileId and s.category >= :category "
+            + "and (s.category > :category or s.proficiency < :proficiency "
+            + "or (s.proficiency = :proficiency and s.id > :id)) order by s.category asc, s.proficiency desc, s.id asc")
+    List<Skill> findPageAfter(@Param("profileId") long profileId, @Param("category") String category,
+            @Param("proficiency") int proficiency, @Param("id") long id, Limit limit);
+
+    List<Skill> findByProfileIdAndChangeVersionGreaterThanOrderByChangeVersionAsc(long profileId, long version);
 }
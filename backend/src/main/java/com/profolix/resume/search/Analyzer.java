@@ -0,0 +1,126 @@
+package com.profolix.resume.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Splits text into lower-cased letter/digit runs and reduces each to a stem,
+ * so that "optimized", "optimizing" and "optimization" meet in the index.
+ * Both documents and queries go through the same analysis.
+ */
+final class Analyzer {
+
+    private static final Set<String> STOP_WORDS = Set.of("a", "an", "and", "are", "as", "at", "be", "by", "for",
+            "from", "in", "into", "is", "it", "of", "on", "or", "that", "the", "this", "to", "was", "were", "with");
+
+    // Longest first, so "ations" wins over "ation" and "ingly" over "ing"
+    private static final String[] SUFFIXES = { "ations", "ation", "ating", "ated", "ate", "ingly", "ing", "edly",
+            "ed", "ly" };
+
+    private Analyzer() {
+    }
+
+    /** A token's position in the source text; {@code term} is null for stop words. */
+    static final class Token {
+        final int start;
+        final int end;
+        final String term;
+
+        Token(int start, int end, String term) {
+            this.start = start;
+            this.end = end;
+            this.term = term;
+        }
+    }
+
+    static List<Token> tokenize(String text) {
+        List<Token> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && !Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < length && Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            if (i > start) {
+                String word = text.substring(start, i).toLowerCase(Locale.ROOT);
+                tokens.add(new Token(start, i, STOP_WORDS.contains(word) ? null : stem(word)));
+            }
+        }
+        return tokens;
+    }
+
+    /** Stems of the non-stop-word tokens, in order. */
+    static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        for (Token token : tokenize(text)) {
+            if (token.term != null) {
+                terms.add(token.term);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * A light English stemmer: strips plurals and a handful of verb and noun
+     * suffixes, undoubles a trailing consonant left behind by "-ing"/"-ed",
+     * and drops a final "e". It over- and under-stems in places, but does so
+     * the same way for documents and queries.
+     */
+    static String stem(String word) {
+        if (word.length() <= 3 || !Character.isLetter(word.charAt(word.length() - 1))) {
+            return word;
+        }
+        String stem = word;
+        if (stem.endsWith("ies") && stem.length() > 4) {
+            stem = stem.substring(0, stem.length() - 3) + "y";
+        } else if (stem.endsWith("sses")) {
+            stem = stem.substring(0, stem.length() - 2);
+        } else if (stem.endsWith("s") && !stem.endsWith("ss") && !stem.endsWith("us") && !stem.endsWith("is")) {
+            stem = stem.substring(0, stem.length() - 1);
+        }
+        for (String suffix : SUFFIXES) {
+            if (stem.endsWith(suffix)) {
+                String root = stem.substring(0, stem.length() - suffix.length());
+                if (root.length() >= 3 && hasVowel(root)) {
+                    stem = (suffix.startsWith("ing") || suffix.startsWith("ed")) ? undouble(root) : root;
+                }
+                break;
+            }
+        }
+        if (stem.length() > 4 && stem.endsWith("e")) {
+            stem = stem.substring(0, stem.length() - 1);
+        }
+        return stem;
+    }
+
+    private static String undouble(String root) {
+        int n = root.length();
+        char last = root.charAt(n - 1);
+        if (n > 3 && last == root.charAt(n - 2) && last != 'l' && last != 's' && last != 'z' && !isVowel(last)) {
+            return root.substring(0, n - 1);
+        }
+        return root;
+    }
+
+    private static boolean hasVowel(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (isVowel(s.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isVowel(char c) {
+        return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u' || c == 'y';
+    }
+}
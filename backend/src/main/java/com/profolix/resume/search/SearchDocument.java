@@ -0,0 +1,80 @@
+package com.profolix.resume.search;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One searchable entity, already analyzed. Title terms count double, so a
+ * match in a name or role outranks the same word deep in a description.
+ */
+final class SearchDocument {
+
+    private static final int TITLE_BOOST = 2;
+
+    final String type;
+    final Long id;
+    final String title;
+    final String body;
+    final String source;
+    final String[] terms;
+    final int[] frequencies;
+    final int length;
+
+    private SearchDocument(String type, Long id, String title, String body, String source) {
+        this.type = type;
+        this.id = id;
+        this.title = title;
+        this.body = body;
+        this.source = source;
+        Map<String, Integer> counts = new HashMap<>();
+        int total = 0;
+        for (String term : Analyzer.terms(title)) {
+            counts.merge(term, TITLE_BOOST, Integer::sum);
+            total += TITLE_BOOST;
+        }
+        for (String term : Analyzer.terms(body)) {
+            counts.merge(term, 1, Integer::sum);
+            total++;
+        }
+        this.terms = new String[counts.size()];
+        this.frequencies = new int[counts.size()];
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            terms[i] = entry.getKey();
+            frequencies[i++] = entry.getValue();
+        }
+        this.length = total;
+    }
+
+    /**
+     * Analyzes a document unless {@code previous} was built from exactly the
+     * same text, in which case it is reused as is.
+     */
+    static SearchDocument of(String type, Long id, String title, List<String> fields, SearchDocument previous) {
+        StringBuilder body = new StringBuilder();
+        for (String field : fields) {
+            if (field != null && !field.isBlank()) {
+                if (body.length() > 0) {
+                    body.append(" · ");
+                }
+                body.append(field.trim());
+            }
+        }
+        String text = body.toString();
+        String safeTitle = title == null ? "" : title;
+        String source = safeTitle + '\u0000' + text;
+        if (previous != null && previous.source.equals(source)) {
+            return previous;
+        }
+        return new SearchDocument(type, id, safeTitle, text, source);
+    }
+
+    String key() {
+        return key(type, id);
+    }
+
+    static String key(String type, Long id) {
+        return type + ':' + id;
+    }
+}
@@ -0,0 +1,50 @@
+package com.profolix.resume.search;
+
+import java.util.List;
+
+/**
+ * A ranked match. {@code highlights} are {@code [start, end)} character
+ * offsets into {@code snippet} where a query term matched.
+ */
+public class SearchHit {
+
+    private final String type;
+    private final Long id;
+    private final String title;
+    private final double score;
+    private final String snippet;
+    private final List<int[]> highlights;
+
+    public SearchHit(String type, Long id, String title, double score, String snippet, List<int[]> highlights) {
+        this.type = type;
+        this.id = id;
+        this.title = title;
+        this.score = score;
+        this.snippet = snippet;
+        this.highlights = highlights;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public String getSnippet() {
+        return snippet;
+    }
+
+    public List<int[]> getHighlights() {
+        return highlights;
+    }
+}
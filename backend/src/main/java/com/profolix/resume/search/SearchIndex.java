@@ -0,0 +1,206 @@
+package com.profolix.resume.search;
+
+import com.profolix.resume.model.*;
+import com.profolix.resume.service.ResumeSnapshot;
+
+import java.util.*;
+
+/**
+ * Immutable inverted index over one {@link ResumeSnapshot}, ranked with BM25.
+ * Postings are parallel {@code int[]} arrays of document ordinals and term
+ * frequencies; a query accumulates scores term-at-a-time into a flat array.
+ */
+final class SearchIndex {
+
+    static final SearchIndex EMPTY = new SearchIndex(0, Map.of(), List.of());
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int SNIPPET_LENGTH = 160;
+    private static final int SNIPPET_LEAD = 40;
+
+    private final long version;
+    private final Map<String, SearchDocument> documentsByKey;
+    private final List<SearchDocument> documents;
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final double averageLength;
+
+    private static final class Postings {
+        int[] documents = new int[4];
+        int[] frequencies = new int[4];
+        int size;
+
+        void add(int document, int frequency) {
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            documents[size] = document;
+            frequencies[size++] = frequency;
+        }
+    }
+
+    private SearchIndex(long version, Map<String, SearchDocument> documentsByKey, List<SearchDocument> documents) {
+        this.version = version;
+        this.documentsByKey = documentsByKey;
+        this.documents = documents;
+        long totalLength = 0;
+        for (int ordinal = 0; ordinal < documents.size(); ordinal++) {
+            SearchDocument document = documents.get(ordinal);
+            for (int i = 0; i < document.terms.length; i++) {
+                postings.computeIfAbsent(document.terms[i], t -> new Postings()).add(ordinal, document.frequencies[i]);
+            }
+            totalLength += document.length;
+        }
+        this.averageLength = documents.isEmpty() ? 0 : (double) totalLength / documents.size();
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    /**
+     * Builds the index for {@code snapshot}, re-analyzing only the documents
+     * whose text differs from this index. Unchanged entities keep their term
+     * vectors; only the postings are regrouped.
+     */
+    SearchIndex update(ResumeSnapshot snapshot) {
+        Map<String, SearchDocument> next = new LinkedHashMap<>();
+        snapshot.getProfile().ifPresent(profile -> add(next, "profile", profile.getId(), profile.getFullName(),
+                List.of(nullToEmpty(profile.getTitle()), nullToEmpty(profile.getSubtitle()),
+                        nullToEmpty(profile.getBio()))));
+        for (Experience experience : snapshot.getExperiences()) {
+            add(next, "experience", experience.getId(), experience.getRole() + " at " + experience.getCompany(),
+                    Arrays.asList(experience.getDescription(), experience.getTechnologies(),
+                            experience.getLocation()));
+        }
+        for (Project project : snapshot.getProjects()) {
+            add(next, "project", project.getId(), project.getTitle(),
+                    Arrays.asList(project.getDescription(), project.getTechnologies()));
+        }
+        for (Skill skill : snapshot.getSkills()) {
+            add(next, "skill", skill.getId(), skill.getName(), Arrays.asList(skill.getCategory()));
+        }
+        for (Education education : snapshot.getEducation()) {
+            add(next, "education", education.getId(), education.getDegree(),
+                    Arrays.asList(education.getInstitution(), education.getField(), education.getGrade()));
+        }
+        for (Achievement achievement : snapshot.getAchievements()) {
+            add(next, "achievement", achievement.getId(), achievement.getTitle(),
+                    Arrays.asList(achievement.getDescription()));
+        }
+        return new SearchIndex(snapshot.getVersion(), next, new ArrayList<>(next.values()));
+    }
+
+    private void add(Map<String, SearchDocument> next, String type, Long id, String title, List<String> fields) {
+        SearchDocument document = SearchDocument.of(type, id, title, fields,
+                documentsByKey.get(SearchDocument.key(type, id)));
+        next.put(document.key(), document);
+    }
+
+    SearchResults search(String query, int limit) {
+        Set<String> queryTerms = new LinkedHashSet<>(Analyzer.terms(query));
+        if (queryTerms.isEmpty() || documents.isEmpty()) {
+            return new SearchResults(query, 0, List.of());
+        }
+        int n = documents.size();
+        double[] scores = new double[n];
+        int matched = 0;
+        for (String term : queryTerms) {
+            Postings list = postings.get(term);
+            if (list == null) {
+                continue;
+            }
+            double idf = Math.log(1 + (n - list.size + 0.5) / (list.size + 0.5));
+            for (int i = 0; i < list.size; i++) {
+                int ordinal = list.documents[i];
+                double tf = list.frequencies[i];
+                double norm = K1 * (1 - B + B * documents.get(ordinal).length / averageLength);
+                if (scores[ordinal] == 0) {
+                    matched++;
+                }
+                scores[ordinal] += idf * tf * (K1 + 1) / (tf + norm);
+            }
+        }
+
+        PriorityQueue<Integer> top = new PriorityQueue<>(Comparator.comparingDouble(o -> scores[o]));
+        for (int ordinal = 0; ordinal < n; ordinal++) {
+            if (scores[ordinal] > 0) {
+                top.add(ordinal);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        }
+        List<SearchHit> hits = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            int ordinal = top.poll();
+            hits.add(hit(documents.get(ordinal), scores[ordinal], queryTerms));
+        }
+        Collections.reverse(hits);
+        return new SearchResults(query, matched, hits);
+    }
+
+    /**
+     * Picks the {@link #SNIPPET_LENGTH}-character window of the body holding
+     * the most query terms, starting a little before the first of them.
+     */
+    private static SearchHit hit(SearchDocument document, double score, Set<String> queryTerms) {
+        String body = document.body;
+        List<Analyzer.Token> tokens = Analyzer.tokenize(body);
+        List<Analyzer.Token> matches = new ArrayList<>();
+        for (Analyzer.Token token : tokens) {
+            if (token.term != null && queryTerms.contains(token.term)) {
+                matches.add(token);
+            }
+        }
+
+        int windowStart = 0;
+        int best = 0;
+        for (int i = 0; i < matches.size(); i++) {
+            int count = 0;
+            for (int j = i; j < matches.size() && matches.get(j).end <= matches.get(i).start + SNIPPET_LENGTH; j++) {
+                count++;
+            }
+            if (count > best) {
+                best = count;
+                windowStart = matches.get(i).start;
+            }
+        }
+        int start = 0;
+        if (windowStart > SNIPPET_LEAD) {
+            // Back up to the start of a token so the snippet does not open mid-word
+            start = windowStart - SNIPPET_LEAD;
+            for (Analyzer.Token token : tokens) {
+                if (token.start >= start) {
+                    start = token.start;
+                    break;
+                }
+            }
+        }
+        int end = Math.min(body.length(), start + SNIPPET_LENGTH);
+        if (end < body.length()) {
+            for (int i = tokens.size() - 1; i >= 0; i--) {
+                if (tokens.get(i).end <= end) {
+                    end = tokens.get(i).end;
+                    break;
+                }
+            }
+        }
+
+        String prefix = start > 0 ? "…" : "";
+        String snippet = prefix + body.substring(start, end) + (end < body.length() ? "…" : "");
+        List<int[]> highlights = new ArrayList<>();
+        for (Analyzer.Token match : matches) {
+            if (match.start >= start && match.end <= end) {
+                int offset = prefix.length() - start;
+                highlights.add(new int[] { match.start + offset, match.end + offset });
+            }
+        }
+        return new SearchHit(document.type, document.id, document.title, score, snippet, highlights);
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
@@ -0,0 +1,31 @@
+package com.profolix.resume.search;
+
+import java.util.List;
+
+/**
+ * The top hits for a query, with the number of documents that matched at all.
+ */
+public class SearchResults {
+
+    private final String query;
+    private final int total;
+    private final List<SearchHit> hits;
+
+    public SearchResults(String query, int total, List<SearchHit> hits) {
+        this.query = query;
+        this.total = total;
+        this.hits = hits;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public List<SearchHit> getHits() {
+        return hits;
+    }
+}
@@ -0,0 +1,78 @@
+package com.profolix.resume.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.profolix.resume.service.ResumeSnapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Full-text search and autocomplete over one portfolio's
+ * {@link ResumeSnapshot}. Each portfolio gets its own pair of indexes, built
+ * on its first lookup and kept in a cache bounded by
+ * {@code profolix.search.index-cache-size}. They follow the snapshot's data
+ * version: the first lookup after the portfolio changed brings them up to
+ * date, and the search index re-analyzes only the entities whose text
+ * changed.
+ */
+@Service
+public class SearchService {
+
+    private final Cache<Long, Indexes> indexes;
+
+    private static final class Indexes {
+        static final Indexes EMPTY = new Indexes(SearchIndex.EMPTY, SuggestionIndex.EMPTY);
+
+        final SearchIndex search;
+        final SuggestionIndex suggestions;
+
+        Indexes(SearchIndex search, SuggestionIndex suggestions) {
+            this.search = search;
+            this.suggestions = suggestions;
+        }
+    }
+
+    public SearchService(MeterRegistry meterRegistry,
+            @Value("${profolix.search.index-cache-size:1000}") long indexCacheSize) {
+        this.indexes = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(indexCacheSize)
+                .recordStats()
+                .build(), "search.indexes");
+    }
+
+    public SearchResults search(ResumeSnapshot tenant, String query, int limit) {
+        return currentIndexes(tenant).search.search(query, limit);
+    }
+
+    /**
+     * Up to {@code limit} entries, most frequent first, with a word starting
+     * with {@code prefix}. At most {@link #getMaxSuggestions()} are kept per
+     * prefix.
+     */
+    public List<Suggestion> suggest(ResumeSnapshot tenant, String prefix, int limit) {
+        return currentIndexes(tenant).suggestions.suggest(prefix, limit);
+    }
+
+    public int getMaxSuggestions() {
+        return SuggestionIndex.TOP_K;
+    }
+
+    private Indexes currentIndexes(ResumeSnapshot tenant) {
+        Indexes current = indexes.getIfPresent(tenant.getProfileId());
+        if (current != null && current.search.getVersion() >= tenant.getVersion()) {
+            return current;
+        }
+        // Lookups of the same portfolio wait on one update; other portfolios go ahead
+        return indexes.asMap().compute(tenant.getProfileId(), (id, cached) -> {
+            Indexes base = cached == null ? Indexes.EMPTY : cached;
+            if (base.search.getVersion() >= tenant.getVersion()) {
+                return base;
+            }
+            return new Indexes(base.search.update(tenant), SuggestionIndex.build(tenant));
+        });
+    }
+}
@@ -0,0 +1,30 @@
+package com.profolix.resume.search;
+
+/**
+ * An autocomplete entry: the text to fill in, what kind of thing it names,
+ * and how often it occurs across the resume.
+ */
+public class Suggestion {
+
+    private final String text;
+    private final String type;
+    private final int count;
+
+    public Suggestion(String text, String type, int count) {
+        this.text = text;
+        this.type = type;
+        this.count = count;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public int getCount() {
+        return count;
+    }
+}
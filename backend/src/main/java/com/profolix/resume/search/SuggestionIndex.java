@@ -0,0 +1,195 @@
+package com.profolix.resume.search;
+
+import com.profolix.resume.model.Education;
+import com.profolix.resume.model.Experience;
+import com.profolix.resume.model.Project;
+import com.profolix.resume.model.Skill;
+import com.profolix.resume.service.ResumeSnapshot;
+import com.profolix.resume.service.TechnologyIndex;
+
+import java.util.*;
+
+/**
+ * Case-insensitive prefix trie over skill names, technologies, companies and
+ * institutions. Every entry is reachable from the start of the text and from
+ * the start of each later word, so "boot" finds "Spring Boot".
+ *
+ * <p>The trie is flattened into arrays once built. Each node keeps its
+ * children as a sorted label range and its {@link #TOP_K} most frequent
+ * entries, so a lookup is one binary search per prefix character followed by a
+ * copy of at most {@code limit} precomputed entries.
+ */
+final class SuggestionIndex {
+
+    static final int TOP_K = 10;
+    static final SuggestionIndex EMPTY = new SuggestionIndex(0, List.of());
+
+    private final long version;
+    private final Suggestion[] suggestions;
+    // Node n's children occupy [childStart[n], childStart[n + 1]) of childLabels/childNodes
+    private final int[] childStart;
+    private final char[] childLabels;
+    private final int[] childNodes;
+    // Node n's top entries occupy [topStart[n], topStart[n + 1]) of topEntries
+    private final int[] topStart;
+    private final int[] topEntries;
+
+    private static final class Node {
+        final TreeMap<Character, Node> children = new TreeMap<>();
+        final List<Integer> terminal = new ArrayList<>(1);
+        int[] top;
+    }
+
+    private SuggestionIndex(long version, List<Suggestion> entries) {
+        this.version = version;
+        // Most frequent first, so ranking by entry index is ranking by count
+        List<Suggestion> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparingInt(Suggestion::getCount).reversed()
+                .thenComparing(Suggestion::getText, String.CASE_INSENSITIVE_ORDER));
+        this.suggestions = sorted.toArray(new Suggestion[0]);
+
+        Node root = new Node();
+        for (int entry = 0; entry < suggestions.length; entry++) {
+            String text = suggestions[entry].getText();
+            for (int start = 0; start < text.length(); start++) {
+                if (Character.isLetterOrDigit(text.charAt(start))
+                        && (start == 0 || !Character.isLetterOrDigit(text.charAt(start - 1)))) {
+                    insert(root, text, start, entry);
+                }
+            }
+        }
+        collectTop(root);
+
+        List<Node> nodes = new ArrayList<>();
+        nodes.add(root);
+        for (int i = 0; i < nodes.size(); i++) {
+            nodes.addAll(nodes.get(i).children.values());
+        }
+        Map<Node, Integer> ordinals = new IdentityHashMap<>();
+        for (int i = 0; i < nodes.size(); i++) {
+            ordinals.put(nodes.get(i), i);
+        }
+        this.childStart = new int[nodes.size() + 1];
+        this.childLabels = new char[nodes.size() - 1];
+        this.childNodes = new int[nodes.size() - 1];
+        this.topStart = new int[nodes.size() + 1];
+        int edges = 0;
+        int tops = 0;
+        for (int i = 0; i < nodes.size(); i++) {
+            Node node = nodes.get(i);
+            childStart[i] = edges;
+            for (Map.Entry<Character, Node> child : node.children.entrySet()) {
+                childLabels[edges] = child.getKey();
+                childNodes[edges++] = ordinals.get(child.getValue());
+            }
+            topStart[i] = tops;
+            tops += node.top.length;
+        }
+        childStart[nodes.size()] = edges;
+        topStart[nodes.size()] = tops;
+        this.topEntries = new int[tops];
+        for (int i = 0; i < nodes.size(); i++) {
+            System.arraycopy(nodes.get(i).top, 0, topEntries, topStart[i], nodes.get(i).top.length);
+        }
+    }
+
+    static SuggestionIndex build(ResumeSnapshot snapshot) {
+        Map<String, Suggestion> entries = new LinkedHashMap<>();
+        for (Skill skill : snapshot.getSkills()) {
+            count(entries, skill.getName(), "skill");
+        }
+        for (Project project : snapshot.getProjects()) {
+            for (String technology : TechnologyIndex.tokenize(project.getTechnologies())) {
+                count(entries, technology, "technology");
+            }
+        }
+        for (Experience experience : snapshot.getExperiences()) {
+            count(entries, experience.getCompany(), "company");
+            for (String technology : TechnologyIndex.tokenize(experience.getTechnologies())) {
+                count(entries, technology, "technology");
+            }
+        }
+        for (Education education : snapshot.getEducation()) {
+            count(entries, education.getInstitution(), "institution");
+        }
+        return new SuggestionIndex(snapshot.getVersion(), new ArrayList<>(entries.values()));
+    }
+
+    /**
+     * Entries with the same text are merged across sources; the first source
+     * seen names the type and the counts add up.
+     */
+    private static void count(Map<String, Suggestion> entries, String text, String type) {
+        if (text == null || text.isBlank()) {
+            return;
+        }
+        String trimmed = text.trim();
+        entries.merge(trimmed.toLowerCase(Locale.ROOT), new Suggestion(trimmed, type, 1),
+                (existing, added) -> new Suggestion(existing.getText(), existing.getType(), existing.getCount() + 1));
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    List<Suggestion> suggest(String prefix, int limit) {
+        int node = 0;
+        for (int i = 0; i < prefix.length(); i++) {
+            node = child(node, Character.toLowerCase(prefix.charAt(i)));
+            if (node < 0) {
+                return List.of();
+            }
+        }
+        int from = topStart[node];
+        int to = Math.min(topStart[node + 1], from + limit);
+        List<Suggestion> result = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            result.add(suggestions[topEntries[i]]);
+        }
+        return result;
+    }
+
+    private int child(int node, char label) {
+        int low = childStart[node];
+        int high = childStart[node + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char c = childLabels[mid];
+            if (c < label) {
+                low = mid + 1;
+            } else if (c > label) {
+                high = mid - 1;
+            } else {
+                return childNodes[mid];
+            }
+        }
+        return -1;
+    }
+
+    private static void insert(Node root, String text, int start, int entry) {
+        Node node = root;
+        for (int i = start; i < text.length(); i++) {
+            node = node.children.computeIfAbsent(Character.toLowerCase(text.charAt(i)), c -> new Node());
+        }
+        node.terminal.add(entry);
+    }
+
+    /**
+     * Fills in each node's top entries bottom-up. Entry indexes are already in
+     * rank order, so the top K of a subtree are the K smallest distinct
+     * indexes among the node's own entries and its children's top lists.
+     */
+    private static void collectTop(Node node) {
+        TreeSet<Integer> candidates = new TreeSet<>(node.terminal);
+        for (Node child : node.children.values()) {
+            collectTop(child);
+            for (int entry : child.top) {
+                candidates.add(entry);
+            }
+            while (candidates.size() > TOP_K) {
+                candidates.pollLast();
+            }
+        }
+        node.top = candidates.stream().limit(TOP_K).mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,121 @@
+package com.profolix.resume.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.profolix.resume.model.*;
+import com.profolix.resume.store.ResumeStore;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Writes large volumes of resume data as a single write to the
+ * {@link ResumeStore}. Records are inserted as they are parsed, so an import
+ * never holds more than the store buffers.
+ *
+ * <p>Each imported profile starts a portfolio: the records that follow it
+ * belong to it, and records before the first profile belong to the default
+ * portfolio. A profile keeps its {@code slug} if it has one and it is free,
+ * otherwise it gets one from its name.
+ */
+@Service
+public class BulkImportService {
+
+    private static final List<Class<?>> TABLES = List.of(Profile.class, Experience.class, Skill.class,
+            Project.class, Education.class, Achievement.class);
+
+    private final ResumeStore store;
+    private final ResumeRecordReader recordReader;
+    private final ResumeService resumeService;
+
+    public BulkImportService(ResumeStore store, ObjectMapper objectMapper, ResumeService resumeService) {
+        this.store = store;
+        this.recordReader = new ResumeRecordReader(objectMapper);
+        this.resumeService = resumeService;
+    }
+
+    public ImportResult importJson(InputStream in, boolean replace) {
+        return importRecords(sink -> recordReader.readJson(in, sink), replace);
+    }
+
+    public ImportResult importNdjson(InputStream in, boolean replace) {
+        return importRecords(sink -> recordReader.readNdjson(in, sink), replace);
+    }
+
+    /**
+     * Persists every record produced by {@code source}. Incoming ids are
+     * ignored and new ones assigned; with {@code replace} the existing
+     * portfolios are deleted first, in the same write, and the records must
+     * then start with a profile.
+     *
+     * @throws IllegalArgumentException if a record has no portfolio to belong to
+     */
+    public ImportResult importRecords(RecordSource source, boolean replace) {
+        long start = System.nanoTime();
+        Map<String, Long> counts = new LinkedHashMap<>();
+        TABLES.forEach(table -> counts.put(table.getSimpleName(), 0L));
+
+        Long defaultOwner = replace ? null : resumeService.getSnapshot().getProfile().map(Profile::getId).orElse(null);
+        store.write(replace, writer -> {
+            Long[] owner = { defaultOwner };
+            Set<String> slugs = new HashSet<>();
+            try {
+                source.read(entity -> {
+                    clearId(entity);
+                    if (entity instanceof Profile profile) {
+                        String base = Slugs.slugify(
+                                profile.getSlug() != null ? profile.getSlug() : profile.getFullName());
+                        profile.setSlug(Slugs.unique(base, slug -> slugs.contains(slug) || writer.slugExists(slug)));
+                        slugs.add(profile.getSlug());
+                    } else if (entity instanceof ProfileOwned owned) {
+                        if (owner[0] == null) {
+                            throw new IllegalArgumentException(
+                                    entity.getClass().getSimpleName() + " record before any profile");
+                        }
+                        owned.setProfileId(owner[0]);
+                    }
+                    writer.insert(entity);
+                    if (entity instanceof Profile profile) {
+                        owner[0] = profile.getId();
+                    }
+                    counts.merge(entity.getClass().getSimpleName(), 1L, Long::sum);
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        // Rebuild only after commit, since the snapshot is loaded on other threads
+        long version = resumeService.reload();
+        long rows = counts.values().stream().mapToLong(Long::longValue).sum();
+        return new ImportResult(counts, rows, (System.nanoTime() - start) / 1_000_000, version);
+    }
+
+    private static void clearId(Object entity) {
+        if (entity instanceof Profile p) {
+            p.setId(null);
+        } else if (entity instanceof Experience e) {
+            e.setId(null);
+        } else if (entity instanceof Skill s) {
+            s.setId(null);
+        } else if (entity instanceof Project p) {
+            p.setId(null);
+        } else if (entity instanceof Education e) {
+            e.setId(null);
+        } else if (entity instanceof Achievement a) {
+            a.setId(null);
+        }
+    }
+
+    @FunctionalInterface
+    public interface RecordSource {
+        void read(Consumer<Object> sink) throws IOException;
+    }
+}
@@ -0,0 +1,128 @@
+package com.profolix.resume.service;
+
+import com.profolix.resume.config.ChangeTrackingSchema;
+import com.profolix.resume.repository.*;
+import com.profolix.resume.store.TenantChanges;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads the persistent change clock and the rows and tombstones stamped by
+ * {@link ChangeTrackingSchema}'s triggers. The clock is the resume's data
+ * version: it survives restarts and only moves when data actually changes.
+ * It exists with the {@code sqlite} store engine only.
+ */
+@Service
+@ConditionalOnProperty(prefix = "profolix.store", name = "engine", havingValue = "sqlite", matchIfMissing = true)
+public class ChangeFeedService {
+
+    private final ProfileRepository profileRepository;
+    private final ExperienceRepository experienceRepository;
+    private final SkillRepository skillRepository;
+    private final ProjectRepository projectRepository;
+    private final EducationRepository educationRepository;
+    private final AchievementRepository achievementRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    // The schema is a dependency so the clock and triggers exist before the first read
+    public ChangeFeedService(ProfileRepository profileRepository, ExperienceRepository experienceRepository,
+            SkillRepository skillRepository, ProjectRepository projectRepository,
+            EducationRepository educationRepository, AchievementRepository achievementRepository,
+            JdbcTemplate jdbcTemplate, ChangeTrackingSchema changeTrackingSchema) {
+        this.profileRepository = profileRepository;
+        this.experienceRepository = experienceRepository;
+        this.skillRepository = skillRepository;
+        this.projectRepository = projectRepository;
+        this.educationRepository = educationRepository;
+        this.achievementRepository = achievementRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional(readOnly = true)
+    public long currentVersion() {
+        Long version = jdbcTemplate.queryForObject("SELECT version FROM change_clock WHERE id = 1", Long.class);
+        return version == null ? 0 : version;
+    }
+
+    @Transactional(readOnly = true)
+    public String storeId() {
+        return jdbcTemplate.queryForObject("SELECT uuid FROM store_identity WHERE id = 1", String.class);
+    }
+
+    /**
+     * What changed in the portfolio of {@code profileId} after {@code since}.
+     * All reads share one read-only transaction, so under WAL they see the
+     * same committed state and the returned version matches the rows.
+     */
+    @Transactional(readOnly = true)
+    public ChangeSet changesSince(long profileId, long since) {
+        if (since < 0) {
+            throw new IllegalArgumentException("since must not be negative");
+        }
+        long version = currentVersion();
+        Map<String, List<?>> changes = new LinkedHashMap<>();
+        if (since < version) {
+            put(changes, "profiles", profileRepository.findByIdAndChangeVersionGreaterThan(profileId, since));
+            put(changes, "experiences", experienceRepository
+                    .findByProfileIdAndChangeVersionGreaterThanOrderByChangeVersionAsc(profileId, since));
+            put(changes, "skills", skillRepository
+                    .findByProfileIdAndChangeVersionGreaterThanOrderByChangeVersionAsc(profileId, since));
+            put(changes, "projects", projectRepository
+                    .findByProfileIdAndChangeVersionGreaterThanOrderByChangeVersionAsc(profileId, since));
+            put(changes, "education", educationRepository
+                    .findByProfileIdAndChangeVersionGreaterThanOrderByChangeVersionAsc(profileId, since));
+            put(changes, "achievements", achievementRepository
+                    .findByProfileIdAndChangeVersionGreaterThanOrderByChangeVersionAsc(profileId, since));
+        }
+        List<ChangeSet.Deletion> deleted = since < version
+                ? jdbcTemplate.query("SELECT entity_type, entity_id, version FROM tombstones "
+                        + "WHERE profile_id = ? AND version > ? ORDER BY version",
+                        (rs, row) -> new ChangeSet.Deletion(rs.getString(1), rs.getLong(2), rs.getLong(3)),
+                        profileId, since)
+                : List.of();
+        return new ChangeSet(since, version, changes, deleted);
+    }
+
+    /**
+     * Profiles whose portfolio changed after {@code since}: profiles written
+     * or deleted, and the owners of rows written or deleted.
+     */
+    @Transactional(readOnly = true)
+    public TenantChanges tenantsChangedSince(long since) {
+        StringBuilder sql = new StringBuilder("SELECT id, 1 FROM profiles WHERE change_version > ?");
+        List<String> owned = ChangeTrackingSchema.TABLES.keySet().stream()
+                .filter(table -> !table.equals("profiles"))
+                .toList();
+        owned.forEach(table -> sql.append(" UNION SELECT profile_id, 0 FROM ").append(table)
+                .append(" WHERE change_version > ?"));
+        sql.append(" UNION SELECT profile_id, entity_type = 'profile' FROM tombstones WHERE version > ?");
+        Object[] args = new Object[owned.size() + 2];
+        Arrays.fill(args, since);
+
+        Set<Long> profileIds = new HashSet<>();
+        boolean[] profilesChanged = { false };
+        jdbcTemplate.query(sql.toString(), rs -> {
+            long id = rs.getLong(1);
+            if (!rs.wasNull()) {
+                profileIds.add(id);
+            }
+            profilesChanged[0] |= rs.getBoolean(2);
+        }, args);
+        return new TenantChanges(profileIds, profilesChanged[0]);
+    }
+
+    private static void put(Map<String, List<?>> changes, String key, List<?> rows) {
+        if (!rows.isEmpty()) {
+            changes.put(key, rows);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.profolix.resume.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything that changed after {@code since}, up to and including
+ * {@code version}. {@code changes} holds the current state of each inserted or
+ * updated row, keyed like the bulk import format; {@code deleted} lists rows
+ * removed since.
+ */
+public class ChangeSet {
+
+    private final long since;
+    private final long version;
+    private final Map<String, List<?>> changes;
+    private final List<Deletion> deleted;
+
+    public static class Deletion {
+
+        private final String type;
+        private final long id;
+        private final long version;
+
+        public Deletion(String type, long id, long version) {
+            this.type = type;
+            this.id = id;
+            this.version = version;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+    }
+
+    public ChangeSet(long since, long version, Map<String, List<?>> changes, List<Deletion> deleted) {
+        this.since = since;
+        this.version = version;
+        this.changes = changes;
+        this.deleted = deleted;
+    }
+
+    public long getSince() {
+        return since;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Map<String, List<?>> getChanges() {
+        return changes;
+    }
+
+    public List<Deletion> getDeleted() {
+        return deleted;
+    }
+}
@@ -0,0 +1,248 @@
+package com.profolix.resume.service;
+
+import com.profolix.resume.store.PortfolioCodec;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Off-heap second tier for portfolio snapshots, behind the heap cache in
+ * {@link ResumeService}; enabled with {@code profolix.tenants.store=compact}.
+ * Each snapshot is kept as a {@link PortfolioCodec} record in direct
+ * memory, which the garbage collector never scans, and every lookup decodes
+ * a fresh snapshot that dies young. On the heap a stored portfolio costs one
+ * index entry.
+ *
+ * <p>Memory is a ring of fixed-size segments written like a log: records are
+ * appended to the current segment, and when the ring is full the oldest
+ * segment is emptied for reuse, dropping whatever it still holds. Replaced and
+ * invalidated records are left in place until then. A record that is read
+ * while it sits in the segment about to be reused is copied forward, so
+ * portfolios that keep being visited survive the wrap.
+ *
+ * <p>Reads share a lock that writes take exclusively, so a record is never
+ * overwritten while it is being copied out.
+ */
+@Component
+@ConditionalOnProperty(prefix = "profolix.tenants", name = "store", havingValue = "compact")
+public class CompactSnapshotStore implements MeterBinder {
+
+    // Each record is prefixed by its length and its profile's id, which is what lets a segment be emptied
+    private static final int HEADER = Integer.BYTES + Long.BYTES;
+
+    private final PortfolioCodec codec;
+    private final int segmentSize;
+    private final ByteBuffer[] segments;
+    // End of the records written to each segment
+    private final int[] limits;
+    // Profile id to record address: segment number in the high half, offset in the low one
+    private final Map<Long, Long> index = new ConcurrentHashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    // Both written under the write lock
+    private volatile int current;
+    private volatile long generation;
+
+    public CompactSnapshotStore(@Value("${profolix.tenants.compact.capacity:256MB}") DataSize capacity,
+            @Value("${profolix.tenants.compact.segment-size:16MB}") DataSize segmentSize,
+            @Value("${profolix.tenants.compact.max-terms:65536}") int maxTerms) {
+        this.codec = new PortfolioCodec(maxTerms);
+        this.segmentSize = Math.toIntExact(segmentSize.toBytes());
+        int count = (int) Math.max(2, capacity.toBytes() / this.segmentSize);
+        this.segments = new ByteBuffer[count];
+        this.limits = new int[count];
+        this.segments[0] = ByteBuffer.allocateDirect(this.segmentSize);
+    }
+
+    /**
+     * Changes each time records are invalidated. A loader reads it before
+     * querying and passes it to {@link #put}, which drops the snapshot if an
+     * invalidation came in between, since the snapshot may predate it.
+     */
+    public long generation() {
+        return generation;
+    }
+
+    /** Decodes the stored snapshot of the portfolio of {@code profileId}, if there is one. */
+    public Optional<ResumeSnapshot> get(long profileId) {
+        long address;
+        byte[] record;
+        lock.readLock().lock();
+        try {
+            Long found = index.get(profileId);
+            if (found == null) {
+                misses.increment();
+                return Optional.empty();
+            }
+            address = found;
+            record = read(address);
+        } finally {
+            lock.readLock().unlock();
+        }
+        hits.increment();
+        if (segmentOf(address) == (current + 1) % segments.length) {
+            promote(profileId, address, record);
+        }
+        return Optional.of(new ResumeSnapshot(codec.decode(record)));
+    }
+
+    /**
+     * Stores a snapshot read after {@link #generation()} returned
+     * {@code generation}. Snapshots without a profile, and records larger
+     * than a segment, are not kept.
+     */
+    public void put(ResumeSnapshot snapshot, long generation) {
+        if (snapshot.getProfile().isEmpty()) {
+            return;
+        }
+        byte[] record = codec.encode(snapshot.toPortfolio());
+        lock.writeLock().lock();
+        try {
+            if (generation == this.generation) {
+                append(snapshot.getProfileId(), record);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Drops the snapshots of {@code profileIds}. */
+    public void invalidateAll(Collection<Long> profileIds) {
+        lock.writeLock().lock();
+        try {
+            generation++;
+            index.keySet().removeAll(profileIds);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Number of portfolios stored. */
+    public int size() {
+        return index.size();
+    }
+
+    /** Bytes written to the segments, including records since replaced or invalidated. */
+    public long getUsedBytes() {
+        lock.readLock().lock();
+        try {
+            long used = 0;
+            for (int limit : limits) {
+                used += limit;
+            }
+            return used;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Direct memory held by the segments allocated so far. */
+    public long getAllocatedBytes() {
+        lock.readLock().lock();
+        try {
+            long allocated = 0;
+            for (ByteBuffer segment : segments) {
+                allocated += segment == null ? 0 : segment.capacity();
+            }
+            return allocated;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("profolix.tenants.compact.portfolios", this, CompactSnapshotStore::size)
+                .description("Portfolio snapshots held off-heap")
+                .register(registry);
+        Gauge.builder("profolix.tenants.compact.memory", this, CompactSnapshotStore::getAllocatedBytes)
+                .description("Direct memory allocated to compact snapshot segments")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("profolix.tenants.compact.terms", codec, PortfolioCodec::getTermCount)
+                .description("Distinct technologies, skill names, categories and icons in the dictionary")
+                .register(registry);
+        FunctionCounter.builder("profolix.tenants.compact.requests", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("profolix.tenants.compact.requests", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .register(registry);
+    }
+
+    private byte[] read(long address) {
+        ByteBuffer segment = segments[segmentOf(address)];
+        int offset = offsetOf(address);
+        byte[] record = new byte[segment.getInt(offset)];
+        segment.get(offset + HEADER, record);
+        return record;
+    }
+
+    private void promote(long profileId, long address, byte[] record) {
+        lock.writeLock().lock();
+        try {
+            Long found = index.get(profileId);
+            if (found != null && found == address) {
+                append(profileId, record);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Called under the write lock
+    private void append(long profileId, byte[] record) {
+        int size = HEADER + record.length;
+        if (size > segmentSize) {
+            return;
+        }
+        int segmentNumber = current;
+        if (limits[segmentNumber] + size > segmentSize) {
+            segmentNumber = (segmentNumber + 1) % segments.length;
+            reuse(segmentNumber);
+            current = segmentNumber;
+        }
+        ByteBuffer segment = segments[segmentNumber];
+        int offset = limits[segmentNumber];
+        segment.putInt(offset, record.length);
+        segment.putLong(offset + Integer.BYTES, profileId);
+        segment.put(offset + HEADER, record);
+        limits[segmentNumber] = offset + size;
+        index.put(profileId, ((long) segmentNumber << 32) | offset);
+    }
+
+    // Called under the write lock; drops the records still live in the segment
+    private void reuse(int segmentNumber) {
+        ByteBuffer segment = segments[segmentNumber];
+        if (segment == null) {
+            segments[segmentNumber] = ByteBuffer.allocateDirect(segmentSize);
+            return;
+        }
+        for (int offset = 0; offset < limits[segmentNumber]; offset += HEADER + segment.getInt(offset)) {
+            index.remove(segment.getLong(offset + Integer.BYTES), ((long) segmentNumber << 32) | offset);
+        }
+        limits[segmentNumber] = 0;
+    }
+
+    private static int segmentOf(long address) {
+        return (int) (address >>> 32);
+    }
+
+    private static int offsetOf(long address) {
+        return (int) address;
+    }
+}
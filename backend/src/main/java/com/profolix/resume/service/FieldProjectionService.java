@@ -0,0 +1,186 @@
+package com.profolix.resume.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Sparse fieldsets for the list endpoints. The requested fields become the
+ * select list of a JPQL tuple query, so columns that were not asked for are
+ * never read from SQLite or hydrated into entities. Like the queries, it
+ * exists with the {@code sqlite} store engine only.
+ */
+@Service
+@ConditionalOnProperty(prefix = "profolix.store", name = "engine", havingValue = "sqlite", matchIfMissing = true)
+public class FieldProjectionService {
+
+    /**
+     * A paginated list, with the fields it can project in declaration order,
+     * its "summary" view, and the keyset it pages by (see the repositories'
+     * {@code findPageAfter} queries).
+     */
+    public enum Listing {
+        EXPERIENCES("Experience",
+                List.of("id", "company", "role", "startDate", "endDate", "location", "description", "technologies",
+                        "logoUrl", "current", "sortOrder"),
+                List.of("id", "company", "role", "startDate", "endDate", "location", "logoUrl", "current", "sortOrder"),
+                SortKey.SORT_ORDER),
+        PROJECTS("Project",
+                List.of("id", "title", "description", "technologies", "imageUrl", "liveUrl", "githubUrl", "featured",
+                        "sortOrder"),
+                List.of("id", "title", "imageUrl", "liveUrl", "githubUrl", "featured", "sortOrder"),
+                SortKey.SORT_ORDER),
+        SKILLS("Skill",
+                List.of("id", "name", "category", "proficiency", "iconName"),
+                List.of("id", "name", "category", "proficiency"),
+                SortKey.CATEGORY_PROFICIENCY),
+        ACHIEVEMENTS("Achievement",
+                List.of("id", "title", "description", "icon", "year", "sortOrder"),
+                List.of("id", "title", "icon", "year", "sortOrder"),
+                SortKey.SORT_ORDER);
+
+        private final String entity;
+        private final List<String> fields;
+        private final List<String> summary;
+        private final SortKey sortKey;
+
+        Listing(String entity, List<String> fields, List<String> summary, SortKey sortKey) {
+            this.entity = entity;
+            this.fields = fields;
+            this.summary = summary;
+            this.sortKey = sortKey;
+        }
+    }
+
+    private enum SortKey {
+        SORT_ORDER(List.of("sortOrder", "id"), "e.sortOrder asc, e.id asc",
+                "e.sortOrder >= :k0 and (e.sortOrder > :k0 or e.id > :k1)"),
+        CATEGORY_PROFICIENCY(List.of("category", "proficiency", "id"), "e.category asc, e.proficiency desc, e.id asc",
+                "e.category >= :k0 and (e.category > :k0 or e.proficiency < :k1 or (e.proficiency = :k1 and e.id > :k2))");
+
+        private final List<String> fields;
+        private final String orderBy;
+        private final String after;
+
+        SortKey(List<String> fields, String orderBy, String after) {
+            this.fields = fields;
+            this.orderBy = orderBy;
+            this.after = after;
+        }
+
+        /** Query parameters for the key after {@code cursor}, or before every row if it is null. */
+        Object[] parameters(String cursor) {
+            String[] key = cursor == null ? null : PageCursor.decode(cursor, fields.size());
+            if (this == SORT_ORDER) {
+                return key == null ? new Object[] { Integer.MIN_VALUE, 0L }
+                        : new Object[] { PageCursor.intPart(key[0]), PageCursor.longPart(key[1]) };
+            }
+            return key == null ? new Object[] { "", Integer.MAX_VALUE, 0L }
+                    : new Object[] { key[0], PageCursor.intPart(key[1]), PageCursor.longPart(key[2]) };
+        }
+    }
+
+    private final EntityManager entityManager;
+
+    public FieldProjectionService(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Resolves the {@code fields} and {@code view} parameters to the fields to
+     * select, in declaration order and always including {@code id}. Returns
+     * null for the full view, which is served from whole entities.
+     *
+     * @throws IllegalArgumentException for an unknown field or view, or both
+     *         parameters at once
+     */
+    public static List<String> select(Listing listing, String fields, String view) {
+        if (fields != null && view != null) {
+            throw new IllegalArgumentException("Use either fields or view, not both");
+        }
+        if (fields != null) {
+            Set<String> requested = Arrays.stream(fields.split(","))
+                    .map(String::trim)
+                    .filter(field -> !field.isEmpty())
+                    .collect(Collectors.toSet());
+            for (String field : requested) {
+                if (!listing.fields.contains(field)) {
+                    throw new IllegalArgumentException("Unknown field '" + field + "'; expected any of "
+                            + String.join(", ", listing.fields));
+                }
+            }
+            return listing.fields.stream().filter(f -> f.equals("id") || requested.contains(f)).toList();
+        }
+        if (view == null || view.equals("full")) {
+            return null;
+        }
+        if (view.equals("summary")) {
+            return listing.summary;
+        }
+        throw new IllegalArgumentException("view must be 'summary' or 'full'");
+    }
+
+    /** The listing's rows of the portfolio of {@code profileId}, in page order. */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> list(Listing listing, long profileId, List<String> fields) {
+        TypedQuery<Tuple> query = entityManager.createQuery("select " + selectList(fields) + " from "
+                + listing.entity + " e where e.profileId = :profileId order by " + listing.sortKey.orderBy,
+                Tuple.class);
+        query.setParameter("profileId", profileId);
+        return query.getResultList().stream().map(row -> toMap(row, fields)).toList();
+    }
+
+    /**
+     * Same keyset pages as {@link ResumeService}'s paginated lists, with
+     * interchangeable cursors. Key fields are selected for the cursor even when
+     * not requested, but only the requested ones are returned.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Map<String, Object>> page(Listing listing, long profileId, List<String> fields, String cursor,
+            int limit) {
+        SortKey sortKey = listing.sortKey;
+        List<String> selected = new ArrayList<>(fields);
+        sortKey.fields.stream().filter(f -> !selected.contains(f)).forEach(selected::add);
+
+        TypedQuery<Tuple> query = entityManager.createQuery("select " + selectList(selected) + " from "
+                + listing.entity + " e where e.profileId = :profileId and " + sortKey.after + " order by "
+                + sortKey.orderBy, Tuple.class);
+        query.setParameter("profileId", profileId);
+        Object[] parameters = sortKey.parameters(cursor);
+        for (int i = 0; i < parameters.length; i++) {
+            query.setParameter("k" + i, parameters[i]);
+        }
+        int size = Math.max(1, Math.min(limit, ResumeService.MAX_PAGE_SIZE));
+        List<Tuple> rows = query.setMaxResults(size + 1).getResultList();
+
+        List<Map<String, Object>> items = new ArrayList<>(Math.min(rows.size(), size));
+        for (int i = 0; i < rows.size() && i < size; i++) {
+            items.add(toMap(rows.get(i), fields));
+        }
+        String nextCursor = null;
+        if (rows.size() > size) {
+            Tuple last = rows.get(size - 1);
+            nextCursor = PageCursor.encode(sortKey.fields.stream().map(last::get).toArray());
+        }
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    private static String selectList(List<String> fields) {
+        // Field names come from the Listing whitelist, never straight from the request
+        return fields.stream().map(f -> "e." + f + " as " + f).collect(Collectors.joining(", "));
+    }
+
+    private static Map<String, Object> toMap(Tuple row, List<String> fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String field : fields) {
+            values.put(field, row.get(field));
+        }
+        return values;
+    }
+}
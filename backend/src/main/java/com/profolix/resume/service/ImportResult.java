@@ -0,0 +1,42 @@
+package com.profolix.resume.service;
+
+import java.util.Map;
+
+/**
+ * Outcome of a bulk import: rows written per table and the overall rate.
+ */
+public class ImportResult {
+
+    private final Map<String, Long> counts;
+    private final long rows;
+    private final long elapsedMillis;
+    private final long version;
+
+    public ImportResult(Map<String, Long> counts, long rows, long elapsedMillis, long version) {
+        this.counts = counts;
+        this.rows = rows;
+        this.elapsedMillis = elapsedMillis;
+        this.version = version;
+    }
+
+    public Map<String, Long> getCounts() {
+        return counts;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public long getRowsPerSecond() {
+        return elapsedMillis == 0 ? rows * 1000 : rows * 1000 / elapsedMillis;
+    }
+
+    /** Data version of the read model rebuilt after the import. */
+    public long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,61 @@
+package com.profolix.resume.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes the sort key of the last row on a page as an opaque, URL-safe
+ * token, and decodes it again for the next request. Clients must not rely on
+ * the format.
+ */
+final class PageCursor {
+
+    private static final String SEPARATOR = "\u001f";
+
+    private PageCursor() {
+    }
+
+    static String encode(Object... key) {
+        StringBuilder joined = new StringBuilder();
+        for (Object part : key) {
+            if (joined.length() > 0) {
+                joined.append(SEPARATOR);
+            }
+            joined.append(part);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(joined.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the cursor is malformed or does not
+     *         have {@code parts} components
+     */
+    static String[] decode(String cursor, int parts) {
+        try {
+            String[] key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split(SEPARATOR, -1);
+            if (key.length == parts) {
+                return key;
+            }
+        } catch (IllegalArgumentException e) {
+            // Fall through to the uniform error below
+        }
+        throw new IllegalArgumentException("Invalid cursor");
+    }
+
+    static int intPart(String part) {
+        try {
+            return Integer.parseInt(part);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    static long longPart(String part) {
+        try {
+            return Long.parseLong(part);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
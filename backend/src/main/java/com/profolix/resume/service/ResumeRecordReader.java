@@ -0,0 +1,112 @@
+package com.profolix.resume.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.profolix.resume.model.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Streams resume entities out of an import body one record at a time, so an
+ * upload of any size is never held in memory as a whole.
+ *
+ * <p>Two formats are understood:
+ * <ul>
+ * <li>JSON: an object whose keys are {@code profiles}, {@code experiences},
+ * {@code skills}, {@code projects}, {@code education} and {@code achievements},
+ * each holding an array. The {@code GET /api/resume} document is accepted as
+ * well, i.e. a single {@code profile} object and {@code skills} grouped by
+ * category.</li>
+ * <li>NDJSON: one entity per line with a {@code type} field naming it
+ * ({@code profile}, {@code experience}, {@code skill}, {@code project},
+ * {@code education} or {@code achievement}).</li>
+ * </ul>
+ */
+class ResumeRecordReader {
+
+    private static final Map<String, Class<?>> TYPES = Map.ofEntries(
+            Map.entry("profile", Profile.class),
+            Map.entry("profiles", Profile.class),
+            Map.entry("experience", Experience.class),
+            Map.entry("experiences", Experience.class),
+            Map.entry("skill", Skill.class),
+            Map.entry("skills", Skill.class),
+            Map.entry("project", Project.class),
+            Map.entry("projects", Project.class),
+            Map.entry("education", Education.class),
+            Map.entry("achievement", Achievement.class),
+            Map.entry("achievements", Achievement.class));
+
+    private final ObjectMapper objectMapper;
+
+    ResumeRecordReader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    void readJson(InputStream in, Consumer<Object> sink) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            expect(parser.nextToken(), JsonToken.START_OBJECT, parser);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String key = parser.currentName();
+                JsonToken value = parser.nextToken();
+                Class<?> type = TYPES.get(key);
+                if (type == null) {
+                    parser.skipChildren();
+                } else if (value == JsonToken.START_ARRAY) {
+                    readArray(parser, type, sink);
+                } else if (value == JsonToken.START_OBJECT && type == Skill.class) {
+                    // Skills grouped by category, as served by /api/resume
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        expect(parser.nextToken(), JsonToken.START_ARRAY, parser);
+                        readArray(parser, type, sink);
+                    }
+                } else if (value == JsonToken.START_OBJECT) {
+                    sink.accept(parser.readValueAs(type));
+                } else if (value != JsonToken.VALUE_NULL) {
+                    throw new IllegalArgumentException("Unexpected value for '" + key + "': " + value);
+                }
+            }
+        }
+    }
+
+    void readNdjson(InputStream in, Consumer<Object> sink) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (!(objectMapper.readTree(line) instanceof ObjectNode node)) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": expected a JSON object");
+            }
+            String typeName = node.path("type").asText();
+            Class<?> type = TYPES.get(typeName);
+            if (type == null) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": unknown record type '" + typeName + "'");
+            }
+            node.remove("type");
+            sink.accept(objectMapper.treeToValue(node, type));
+        }
+    }
+
+    private void readArray(JsonParser parser, Class<?> type, Consumer<Object> sink) throws IOException {
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            sink.accept(parser.readValueAs(type));
+        }
+        expect(parser.currentToken(), JsonToken.END_ARRAY, parser);
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected, JsonParser parser) {
+        if (actual != expected) {
+            throw new IllegalArgumentException("Expected " + expected + " but found " + actual + " at "
+                    + parser.currentLocation().offsetDescription());
+        }
+    }
+}
@@ -1,72 +1,353 @@
 package com.profolix.resume.service;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.profolix.resume.model.*;
-import com.profolix.resume.repository.*;
+import com.profolix.resume.store.Portfolio;
+import com.profolix.resume.store.ResumeStore;
+import com.profolix.resume.store.TenantChanges;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 
+/**
+ * Read models of the hosted portfolios, as read from the {@link ResumeStore}.
+ * The default portfolio, served at {@code /api/...}, is kept loaded and
+ * replaced by the first reload after a write to it. Every other portfolio,
+ * served at {@code /api/{slug}/...}, is loaded on its first request into a
+ * cache bounded by the estimated size of its snapshots. Caffeine evicts by W-TinyLFU, so a scan over many rarely visited
+ * portfolios does not push out the popular ones.
+ *
+ * <p>With {@code profolix.tenants.store=compact}, portfolios missing from that
+ * cache are looked up in a {@link CompactSnapshotStore} before the store, and
+ * kept there once loaded; the heap cache then only needs to hold the
+ * portfolios busy enough that decoding each request would show.
+ */
 @Service
 public class ResumeService {
 
-    private final ProfileRepository profileRepository;
-    private final ExperienceRepository experienceRepository;
-    private final SkillRepository skillRepository;
-    private final ProjectRepository projectRepository;
-    private final EducationRepository educationRepository;
-    private final AchievementRepository achievementRepository;
+    /** Largest page a paginated list endpoint will return. */
+    public static final int MAX_PAGE_SIZE = 100;
 
-    public ResumeService(ProfileRepository profileRepository, ExperienceRepository experienceRepository,
-            SkillRepository skillRepository, ProjectRepository projectRepository,
-            EducationRepository educationRepository, AchievementRepository achievementRepository) {
-        this.profileRepository = profileRepository;
-        this.experienceRepository = experienceRepository;
-        this.skillRepository = skillRepository;
-        this.projectRepository = projectRepository;
-        this.educationRepository = educationRepository;
-        this.achievementRepository = achievementRepository;
+    private final ResumeStore store;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String defaultSlug;
+    private final AsyncCache<Long, ResumeSnapshot> tenants;
+    // Null unless profolix.tenants.store=compact
+    private final CompactSnapshotStore compactStore;
+    // Unknown slugs are cached too, as an empty id, so probing for them costs no query
+    private final AsyncCache<String, Optional<Long>> slugs;
+
+    // A lock rather than synchronized, so a virtual thread waiting on the loads does not pin its carrier
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private volatile ResumeSnapshot snapshot;
+    // Store version every loaded snapshot is known to be current at; the default one may have been read earlier
+    private volatile long dataVersion;
+
+    public ResumeService(ResumeStore store, ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry,
+            Optional<CompactSnapshotStore> compactStore,
+            @Value("${profolix.tenants.default-slug:}") String defaultSlug,
+            @Value("${profolix.tenants.snapshot-cache-size:256MB}") DataSize snapshotCacheSize,
+            @Value("${profolix.tenants.slug-cache-size:100000}") long slugCacheSize) {
+        this.store = store;
+        this.eventPublisher = eventPublisher;
+        this.defaultSlug = defaultSlug;
+        this.compactStore = compactStore.orElse(null);
+        this.tenants = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumWeight(snapshotCacheSize.toBytes())
+                .weigher((Long id, ResumeSnapshot tenant) -> (int) Math.min(Integer.MAX_VALUE,
+                        tenant.getEstimatedSize()))
+                .recordStats()
+                .buildAsync(), "resume.tenants");
+        this.slugs = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(slugCacheSize)
+                .recordStats()
+                .buildAsync(), "resume.slugs");
+    }
+
+    /**
+     * Returns the current read model of the default portfolio, loading it on
+     * first use.
+     */
+    public ResumeSnapshot getSnapshot() {
+        ResumeSnapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        reloadLock.lock();
+        try {
+            return snapshot != null ? snapshot : load(store.currentVersion());
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the read model of the portfolio with {@code slug}, or of the
+     * default portfolio when {@code slug} is null; empty when no profile has
+     * that slug. A portfolio that is not cached is loaded on the calling
+     * thread, in one consistent read; concurrent requests for it wait
+     * on the same load.
+     */
+    public Optional<ResumeSnapshot> findSnapshot(String slug) {
+        ResumeSnapshot defaults = getSnapshot();
+        if (slug == null) {
+            return Optional.of(defaults);
+        }
+        Optional<Long> id = getOrLoad(slugs, slug, this::resolveSlug);
+        if (id.isEmpty()) {
+            return Optional.empty();
+        }
+        ResumeSnapshot tenant = getSnapshot(id.get());
+        return tenant.getProfile().isPresent() ? Optional.of(tenant) : Optional.empty();
+    }
+
+    /**
+     * Returns the read model of the portfolio of {@code profileId}, loading it
+     * like {@link #findSnapshot} does; one without a profile or rows if there
+     * is no such profile, as after it was deleted.
+     */
+    public ResumeSnapshot getSnapshot(long profileId) {
+        ResumeSnapshot defaults = getSnapshot();
+        return profileId == defaults.getProfileId() ? defaults : getOrLoad(tenants, profileId, this::loadTenant);
+    }
+
+    /**
+     * Catches the read models up with the store after a write has committed:
+     * drops the cached portfolios that changed since the last reload, and
+     * rebuilds the default one only if it is among them, or another profile
+     * has become the default. A write to any other portfolio costs the
+     * default nothing. The default portfolio is read with
+     * {@link ResumeStore#loadConcurrently}. Once the read models are current,
+     * a {@link TenantsChangedEvent} names the portfolios that changed.
+     *
+     * @return the store's data version the read models are now current at
+     */
+    public long reload() {
+        reloadLock.lock();
+        try {
+            // Read before the changes and tables: a write racing them moves the clock past this version,
+            // so the next reload looks at it again instead of missing it
+            long version = store.currentVersion();
+            ResumeSnapshot previous = snapshot;
+            if (previous == null) {
+                load(version);
+            } else if (version != dataVersion) {
+                TenantChanges changes = store.tenantsChangedSince(dataVersion);
+                invalidateTenants(changes);
+                if (defaultChanged(previous, changes)) {
+                    load(version);
+                } else {
+                    dataVersion = version;
+                }
+                if (!changes.profileIds().isEmpty()) {
+                    // Still under the reload lock, so listeners see changes in version order
+                    eventPublisher.publishEvent(new TenantsChangedEvent(version, changes.profileIds()));
+                }
+            }
+            return version;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private ResumeSnapshot load(long version) {
+        Optional<Long> id = defaultProfileId();
+        ResumeSnapshot loaded = new ResumeSnapshot(id.isEmpty() ? Portfolio.empty(version)
+                : store.loadConcurrently(id.get()));
+        // Before the snapshot, which getDataVersion reads first
+        dataVersion = version;
+        snapshot = loaded;
+        return loaded;
+    }
+
+    private boolean defaultChanged(ResumeSnapshot previous, TenantChanges changes) {
+        if (changes.profileIds().contains(previous.getProfileId())) {
+            return true;
+        }
+        // Only a profile added, renamed or deleted can hand the default slug, or the lowest id, to another
+        return changes.profilesChanged() && defaultProfileId().orElse(0L) != previous.getProfileId();
+    }
+
+    private Optional<Long> defaultProfileId() {
+        return defaultSlug.isEmpty() ? store.findFirstProfileId() : store.findProfileId(defaultSlug);
+    }
+
+    /*
+     * A tenant load registers its future before reading, so an invalidation
+     * that follows a commit always finds and drops a load that may have read
+     * the state before it, and later loads read after the commit.
+     */
+
+    private void invalidateTenants(TenantChanges changes) {
+        // The compact store first, so a heap cache miss cannot decode the old record again
+        if (compactStore != null) {
+            compactStore.invalidateAll(changes.profileIds());
+        }
+        tenants.synchronous().invalidateAll(changes.profileIds());
+        if (changes.profilesChanged()) {
+            // Slugs may have been added, renamed or freed, including ones cached as unknown
+            slugs.synchronous().invalidateAll();
+        }
+    }
+
+    private Optional<Long> resolveSlug(String slug) {
+        return store.findProfileId(slug);
+    }
+
+    private ResumeSnapshot loadTenant(long profileId) {
+        if (compactStore == null) {
+            return readTenant(profileId);
+        }
+        return compactStore.get(profileId).orElseGet(() -> {
+            long generation = compactStore.generation();
+            ResumeSnapshot loaded = readTenant(profileId);
+            compactStore.put(loaded, generation);
+            return loaded;
+        });
+    }
+
+    private ResumeSnapshot readTenant(long profileId) {
+        return new ResumeSnapshot(store.load(profileId));
+    }
+
+    private static <K, V> V getOrLoad(AsyncCache<K, V> cache, K key, Function<K, V> loader) {
+        CompletableFuture<V> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached.join();
+        }
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = cache.asMap().putIfAbsent(key, created);
+        if (existing != null) {
+            return existing.join();
+        }
+        try {
+            V value = loader.apply(key);
+            created.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            cache.asMap().remove(key, created);
+            created.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /** The store's data version as of the last reload, which the default snapshot may predate. */
+    public long getDataVersion() {
+        getSnapshot();
+        return dataVersion;
+    }
+
+    public Resume getResume() {
+        return getSnapshot().getResume();
     }
 
     public Optional<Profile> getProfile() {
-        return profileRepository.findFirstByOrderByIdAsc();
+        return getSnapshot().getProfile();
     }
 
     public List<Experience> getAllExperiences() {
-        return experienceRepository.findAllByOrderBySortOrderAsc();
+        return getSnapshot().getExperiences();
+    }
+
+    public List<Experience> getExperiencesByTechnology(List<String> technologies, boolean matchAll) {
+        return getSnapshot().getExperienceTechnologies().filter(technologies, matchAll);
     }
 
-    public Optional<Experience> getExperienceById(Long id) {
-        return experienceRepository.findById(id);
+    /** The row with {@code id} if it belongs to the portfolio of {@code profileId}. */
+    public Optional<Experience> getExperienceById(long profileId, Long id) {
+        return store.findExperience(profileId, id);
     }
 
     public List<Skill> getAllSkills() {
-        return skillRepository.findAllByOrderByCategoryAscProficiencyDesc();
+        return getSnapshot().getSkills();
     }
 
     public Map<String, List<Skill>> getSkillsByCategory() {
-        return skillRepository.findAllByOrderByCategoryAscProficiencyDesc()
-                .stream()
-                .collect(Collectors.groupingBy(Skill::getCategory, LinkedHashMap::new, Collectors.toList()));
+        return getSnapshot().getSkillsByCategory();
     }
 
     public List<Project> getAllProjects() {
-        return projectRepository.findAllByOrderBySortOrderAsc();
+        return getSnapshot().getProjects();
     }
 
     public List<Project> getFeaturedProjects() {
-        return projectRepository.findByFeaturedTrue();
+        return getSnapshot().getFeaturedProjects();
+    }
+
+    public List<Project> getProjectsByTechnology(List<String> technologies, boolean matchAll) {
+        return getSnapshot().getProjectTechnologies().filter(technologies, matchAll);
+    }
+
+    public Optional<Project> getProjectById(long profileId, Long id) {
+        return store.findProject(profileId, id);
+    }
+
+    /*
+     * Paginated lists read one portfolio's rows from the store rather than
+     * the snapshot, seeking by the last row's sort key; each fetches one row
+     * more than asked to learn whether another page follows.
+     */
+
+    public CursorPage<Experience> getExperiencePage(long profileId, String cursor, int limit) {
+        String[] key = cursor == null ? null : PageCursor.decode(cursor, 2);
+        List<Experience> rows = store.findExperiencePage(profileId,
+                key == null ? Integer.MIN_VALUE : PageCursor.intPart(key[0]),
+                key == null ? 0 : PageCursor.longPart(key[1]), pageSize(limit) + 1);
+        return page(rows, pageSize(limit), last -> PageCursor.encode(last.getSortOrder(), last.getId()));
+    }
+
+    public CursorPage<Project> getProjectPage(long profileId, String cursor, int limit) {
+        String[] key = cursor == null ? null : PageCursor.decode(cursor, 2);
+        List<Project> rows = store.findProjectPage(profileId,
+                key == null ? Integer.MIN_VALUE : PageCursor.intPart(key[0]),
+                key == null ? 0 : PageCursor.longPart(key[1]), pageSize(limit) + 1);
+        return page(rows, pageSize(limit), last -> PageCursor.encode(last.getSortOrder(), last.getId()));
+    }
+
+    public CursorPage<Skill> getSkillPage(long profileId, String cursor, int limit) {
+        String[] key = cursor == null ? null : PageCursor.decode(cursor, 3);
+        // Before every real key: the empty category sorts first and ids start at 1
+        List<Skill> rows = store.findSkillPage(profileId, key == null ? "" : key[0],
+                key == null ? Integer.MAX_VALUE : PageCursor.intPart(key[1]),
+                key == null ? 0 : PageCursor.longPart(key[2]), pageSize(limit) + 1);
+        return page(rows, pageSize(limit),
+                last -> PageCursor.encode(last.getCategory(), last.getProficiency(), last.getId()));
+    }
+
+    public CursorPage<Achievement> getAchievementPage(long profileId, String cursor, int limit) {
+        String[] key = cursor == null ? null : PageCursor.decode(cursor, 2);
+        List<Achievement> rows = store.findAchievementPage(profileId,
+                key == null ? Integer.MIN_VALUE : PageCursor.intPart(key[0]),
+                key == null ? 0 : PageCursor.longPart(key[1]), pageSize(limit) + 1);
+        return page(rows, pageSize(limit), last -> PageCursor.encode(last.getSortOrder(), last.getId()));
+    }
+
+    private static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
     }
 
-    public Optional<Project> getProjectById(Long id) {
-        return projectRepository.findById(id);
+    private static <T> CursorPage<T> page(List<T> rows, int size, Function<T, String> cursorOf) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, size);
+        return new CursorPage<>(List.copyOf(items), cursorOf.apply(items.get(size - 1)));
     }
 
     public List<Education> getAllEducation() {
-        return educationRepository.findAllByOrderBySortOrderAsc();
+        return getSnapshot().getEducation();
     }
 
     public List<Achievement> getAllAchievements() {
-        return achievementRepository.findAllByOrderBySortOrderAsc();
+        return getSnapshot().getAchievements();
     }
 }
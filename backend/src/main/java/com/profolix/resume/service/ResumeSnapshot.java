@@ -0,0 +1,153 @@
+package com.profolix.resume.service;
+
+import com.profolix.resume.model.*;
+import com.profolix.resume.store.Portfolio;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable, point-in-time copy of one portfolio: a profile and the rows it
+ * owns. A snapshot is built in one go by {@link ResumeService} and published
+ * by swapping a single reference, or a cache entry, so readers never lock and
+ * never see a half-updated resume.
+ *
+ * <p>The entities held here are shared by every reader and must be treated as
+ * read-only.
+ */
+public final class ResumeSnapshot {
+
+    // Allowance for the object headers, boxed fields and short strings of one row
+    private static final int ROW_BYTES = 512;
+
+    private final long version;
+    private final Profile profile;
+    private final List<Experience> experiences;
+    private final List<Skill> skills;
+    private final Map<String, List<Skill>> skillsByCategory;
+    private final List<Project> projects;
+    private final List<Project> featuredProjects;
+    private final TechnologyIndex<Project> projectTechnologies;
+    private final TechnologyIndex<Experience> experienceTechnologies;
+    private final List<Education> education;
+    private final List<Achievement> achievements;
+    private final Resume resume;
+    private final long estimatedSize;
+
+    ResumeSnapshot(long version, Profile profile, List<Experience> experiences, List<Skill> skills,
+            List<Project> projects, List<Education> education, List<Achievement> achievements) {
+        this.version = version;
+        this.profile = profile;
+        this.experiences = List.copyOf(experiences);
+        this.skills = List.copyOf(skills);
+        this.skillsByCategory = groupByCategory(this.skills);
+        this.projects = List.copyOf(projects);
+        this.featuredProjects = this.projects.stream().filter(Project::isFeatured).toList();
+        this.projectTechnologies = new TechnologyIndex<>(this.projects, Project::getTechnologies);
+        this.experienceTechnologies = new TechnologyIndex<>(this.experiences, Experience::getTechnologies);
+        this.education = List.copyOf(education);
+        this.achievements = List.copyOf(achievements);
+        this.resume = new Resume(profile, this.experiences, skillsByCategory, this.projects, this.education,
+                this.achievements);
+        this.estimatedSize = estimateSize();
+    }
+
+    ResumeSnapshot(Portfolio portfolio) {
+        this(portfolio.version(), portfolio.profile(), portfolio.experiences(), portfolio.skills(),
+                portfolio.projects(), portfolio.education(), portfolio.achievements());
+    }
+
+    /** The profile and rows this snapshot was built from. */
+    public Portfolio toPortfolio() {
+        return new Portfolio(version, profile, experiences, skills, projects, education, achievements);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /** Id of the portfolio's profile, or 0 when there is none. */
+    public long getProfileId() {
+        return profile == null ? 0 : profile.getId();
+    }
+
+    public Optional<Profile> getProfile() {
+        return Optional.ofNullable(profile);
+    }
+
+    public List<Experience> getExperiences() {
+        return experiences;
+    }
+
+    public List<Skill> getSkills() {
+        return skills;
+    }
+
+    public Map<String, List<Skill>> getSkillsByCategory() {
+        return skillsByCategory;
+    }
+
+    public List<Project> getProjects() {
+        return projects;
+    }
+
+    public List<Project> getFeaturedProjects() {
+        return featuredProjects;
+    }
+
+    public TechnologyIndex<Project> getProjectTechnologies() {
+        return projectTechnologies;
+    }
+
+    public TechnologyIndex<Experience> getExperienceTechnologies() {
+        return experienceTechnologies;
+    }
+
+    public List<Education> getEducation() {
+        return education;
+    }
+
+    public List<Achievement> getAchievements() {
+        return achievements;
+    }
+
+    public Resume getResume() {
+        return resume;
+    }
+
+    /**
+     * Rough retained size in bytes, for weighing snapshots in a bounded cache:
+     * a fixed cost per row plus the long text columns, which dominate it.
+     */
+    public long getEstimatedSize() {
+        return estimatedSize;
+    }
+
+    private long estimateSize() {
+        long size = (long) ROW_BYTES * (1 + experiences.size() + skills.size() + projects.size() + education.size()
+                + achievements.size());
+        if (profile != null) {
+            size += length(profile.getBio());
+        }
+        for (Experience e : experiences) {
+            size += length(e.getDescription()) + length(e.getTechnologies());
+        }
+        for (Project p : projects) {
+            size += length(p.getDescription()) + length(p.getTechnologies());
+        }
+        for (Achievement a : achievements) {
+            size += length(a.getDescription());
+        }
+        return size;
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    private static Map<String, List<Skill>> groupByCategory(List<Skill> skills) {
+        return new SkillsByCategory(skills.stream()
+                .collect(Collectors.groupingBy(Skill::getCategory, LinkedHashMap::new,
+                        Collectors.collectingAndThen(Collectors.toList(), List::copyOf))));
+    }
+}
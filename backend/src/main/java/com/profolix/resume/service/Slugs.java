@@ -0,0 +1,65 @@
+package com.profolix.resume.service;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Slugs name a portfolio in its URLs, {@code /api/{slug}/...}. They are
+ * lowercase ASCII letters, digits and single hyphens, and never one of the
+ * first path segments the API already uses, so a tenant route cannot shadow
+ * a global one.
+ */
+public final class Slugs {
+
+    private static final int MAX_LENGTH = 60;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+    private static final Set<String> RESERVED = Set.of("resume", "profile", "experiences", "skills", "projects",
+            "education", "achievements", "search", "suggest", "stream", "changes", "reload", "import");
+
+    private Slugs() {
+    }
+
+    /**
+     * Turns a name into a slug: accents dropped, everything else that is not a
+     * letter or digit collapsed to one hyphen. Falls back to {@code portfolio}
+     * when nothing is left.
+     */
+    public static String slugify(String name) {
+        String ascii = name == null ? ""
+                : DIACRITICS.matcher(Normalizer.normalize(name, Normalizer.Form.NFD)).replaceAll("");
+        String slug = SEPARATORS.matcher(ascii.toLowerCase(Locale.ROOT)).replaceAll("-");
+        if (slug.length() > MAX_LENGTH) {
+            slug = slug.substring(0, MAX_LENGTH);
+        }
+        slug = trimHyphens(slug);
+        return slug.isEmpty() ? "portfolio" : slug;
+    }
+
+    /**
+     * Returns {@code base}, or the first of {@code base-2}, {@code base-3}, ...
+     * that is neither reserved nor {@code taken}.
+     */
+    public static String unique(String base, Predicate<String> taken) {
+        String slug = base;
+        for (int n = 2; RESERVED.contains(slug) || taken.test(slug); n++) {
+            slug = base + "-" + n;
+        }
+        return slug;
+    }
+
+    private static String trimHyphens(String slug) {
+        int start = 0;
+        int end = slug.length();
+        while (start < end && slug.charAt(start) == '-') {
+            start++;
+        }
+        while (end > start && slug.charAt(end - 1) == '-') {
+            end--;
+        }
+        return slug.substring(start, end);
+    }
+}
@@ -0,0 +1,25 @@
+package com.profolix.resume.service;
+
+import java.util.Map;
+
+/**
+ * How many of the matching items use each technology.
+ */
+public class TechnologyFacets {
+
+    private final int total;
+    private final Map<String, Integer> technologies;
+
+    public TechnologyFacets(int total, Map<String, Integer> technologies) {
+        this.total = total;
+        this.technologies = technologies;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public Map<String, Integer> getTechnologies() {
+        return technologies;
+    }
+}
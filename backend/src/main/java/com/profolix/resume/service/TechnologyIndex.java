@@ -0,0 +1,132 @@
+package com.profolix.resume.service;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Inverted index from technology to the items that use it, built once per
+ * snapshot from the comma-separated {@code technologies} column. Each
+ * technology maps to a bitmap over the items' positions in the snapshot list,
+ * so AND/OR filters are word-wise bit operations and results come back in the
+ * list's sort order.
+ *
+ * <p>Technologies are matched case-insensitively; each distinct one is kept
+ * once, under the spelling it first appeared with.
+ */
+public final class TechnologyIndex<T> {
+
+    private final List<T> items;
+    private final Map<String, Integer> idsByKey = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+    private final List<long[]> bitmaps = new ArrayList<>();
+
+    TechnologyIndex(List<T> items, Function<T, String> technologies) {
+        this.items = items;
+        int words = (items.size() + 63) >>> 6;
+        for (int position = 0; position < items.size(); position++) {
+            for (String token : tokenize(technologies.apply(items.get(position)))) {
+                int id = idsByKey.computeIfAbsent(key(token), k -> {
+                    names.add(token);
+                    bitmaps.add(new long[words]);
+                    return names.size() - 1;
+                });
+                bitmaps.get(id)[position >>> 6] |= 1L << position;
+            }
+        }
+    }
+
+    /**
+     * Items using all (or, with {@code matchAll} false, any) of the given
+     * technologies, in snapshot order.
+     */
+    public List<T> filter(Collection<String> technologies, boolean matchAll) {
+        long[] matched = match(technologies, matchAll);
+        List<T> result = new ArrayList<>();
+        for (int w = 0; w < matched.length; w++) {
+            long word = matched[w];
+            while (word != 0) {
+                result.add(items.get((w << 6) + Long.numberOfTrailingZeros(word)));
+                word &= word - 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Number of matching items per technology, most used first. With no
+     * technologies given, every item matches.
+     */
+    public TechnologyFacets facets(Collection<String> technologies, boolean matchAll) {
+        long[] matched = technologies.isEmpty() ? all() : match(technologies, matchAll);
+        int total = 0;
+        for (long word : matched) {
+            total += Long.bitCount(word);
+        }
+        List<Map.Entry<String, Integer>> counts = new ArrayList<>();
+        for (int id = 0; id < names.size(); id++) {
+            long[] bitmap = bitmaps.get(id);
+            int count = 0;
+            for (int w = 0; w < matched.length; w++) {
+                count += Long.bitCount(bitmap[w] & matched[w]);
+            }
+            if (count > 0) {
+                counts.add(Map.entry(names.get(id), count));
+            }
+        }
+        counts.sort(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        Map<String, Integer> ordered = new LinkedHashMap<>();
+        counts.forEach(entry -> ordered.put(entry.getKey(), entry.getValue()));
+        return new TechnologyFacets(total, ordered);
+    }
+
+    /** Distinct technologies, in first-seen order. */
+    public List<String> getTechnologies() {
+        return Collections.unmodifiableList(names);
+    }
+
+    private long[] match(Collection<String> technologies, boolean matchAll) {
+        long[] result = null;
+        for (String technology : technologies) {
+            Integer id = idsByKey.get(key(technology.trim()));
+            long[] bitmap = id == null ? new long[(items.size() + 63) >>> 6] : bitmaps.get(id);
+            if (result == null) {
+                result = bitmap.clone();
+            } else {
+                for (int w = 0; w < result.length; w++) {
+                    result[w] = matchAll ? result[w] & bitmap[w] : result[w] | bitmap[w];
+                }
+            }
+        }
+        return result == null ? new long[(items.size() + 63) >>> 6] : result;
+    }
+
+    private long[] all() {
+        long[] words = new long[(items.size() + 63) >>> 6];
+        Arrays.fill(words, -1L);
+        if ((items.size() & 63) != 0) {
+            words[words.length - 1] = (1L << items.size()) - 1;
+        }
+        return words;
+    }
+
+    /**
+     * Splits a comma-separated technologies column into trimmed, non-empty names.
+     */
+    public static List<String> tokenize(String technologies) {
+        if (technologies == null || technologies.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : technologies.split(",")) {
+            String trimmed = token.trim();
+            if (!trimmed.isEmpty()) {
+                tokens.add(trimmed);
+            }
+        }
+        return tokens;
+    }
+
+    private static String key(String technology) {
+        return technology.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,11 @@
+package com.profolix.resume.service;
+
+/**
+ * Thrown for a request routed to a slug that no profile has.
+ */
+public class TenantNotFoundException extends RuntimeException {
+
+    public TenantNotFoundException(String slug) {
+        super("No portfolio at '" + slug + "'");
+    }
+}
@@ -0,0 +1,28 @@
+package com.profolix.resume.service;
+
+import java.util.Set;
+
+/**
+ * Published by {@link ResumeService} when a reload finds portfolios written
+ * since the previous one: the ids of their profiles, deleted ones included,
+ * and the data version the read models are now current at. By then, reading
+ * any of them from the service returns its new state.
+ */
+public class TenantsChangedEvent {
+
+    private final long version;
+    private final Set<Long> profileIds;
+
+    public TenantsChangedEvent(long version, Set<Long> profileIds) {
+        this.version = version;
+        this.profileIds = profileIds;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Set<Long> getProfileIds() {
+        return profileIds;
+    }
+}
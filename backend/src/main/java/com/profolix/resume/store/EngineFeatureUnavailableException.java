@@ -0,0 +1,12 @@
+package com.profolix.resume.store;
+
+/**
+ * Thrown for a request that needs SQL the configured store engine does not
+ * have, which the controllers answer with 501 Not Implemented.
+ */
+public class EngineFeatureUnavailableException extends RuntimeException {
+
+    public EngineFeatureUnavailableException(String feature) {
+        super(feature + " needs the sqlite store engine");
+    }
+}
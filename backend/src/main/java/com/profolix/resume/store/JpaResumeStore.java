@@ -0,0 +1,235 @@
+package com.profolix.resume.store;
+
+import com.profolix.resume.config.TenantSchema;
+import com.profolix.resume.model.*;
+import com.profolix.resume.repository.*;
+import com.profolix.resume.service.ChangeFeedService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.FlushModeType;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * The {@code sqlite} engine: the Spring Data repositories over the SQLite
+ * database, with the data version kept by {@link ChangeFeedService}'s change
+ * clock. Writes are one transaction, flushed every {@code batch_size} rows so
+ * Hibernate sends them as JDBC batches and the persistence context stays
+ * small.
+ */
+@Component
+@ConditionalOnProperty(prefix = "profolix.store", name = "engine", havingValue = "sqlite", matchIfMissing = true)
+public class JpaResumeStore implements ResumeStore {
+
+    private static final List<Class<?>> TABLES = List.of(Profile.class, Experience.class, Skill.class,
+            Project.class, Education.class, Achievement.class);
+
+    private final ProfileRepository profileRepository;
+    private final ExperienceRepository experienceRepository;
+    private final SkillRepository skillRepository;
+    private final ProjectRepository projectRepository;
+    private final EducationRepository educationRepository;
+    private final AchievementRepository achievementRepository;
+    private final ChangeFeedService changeFeedService;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor resumeLoadExecutor;
+    private final int batchSize;
+
+    // The tenant schema is a dependency so slugs and owners are backfilled before the first read
+    public JpaResumeStore(ProfileRepository profileRepository, ExperienceRepository experienceRepository,
+            SkillRepository skillRepository, ProjectRepository projectRepository,
+            EducationRepository educationRepository, AchievementRepository achievementRepository,
+            ChangeFeedService changeFeedService, TenantSchema tenantSchema, EntityManager entityManager,
+            PlatformTransactionManager transactionManager,
+            @Qualifier("resumeLoadExecutor") Executor resumeLoadExecutor,
+            @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}") int batchSize) {
+        this.profileRepository = profileRepository;
+        this.experienceRepository = experienceRepository;
+        this.skillRepository = skillRepository;
+        this.projectRepository = projectRepository;
+        this.educationRepository = educationRepository;
+        this.achievementRepository = achievementRepository;
+        this.changeFeedService = changeFeedService;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.resumeLoadExecutor = resumeLoadExecutor;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public long currentVersion() {
+        return changeFeedService.currentVersion();
+    }
+
+    @Override
+    public String storeId() {
+        return changeFeedService.storeId();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Long> findProfileId(String slug) {
+        return profileRepository.findBySlug(slug).map(Profile::getId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Long> findFirstProfileId() {
+        return profileRepository.findFirstByOrderByIdAsc().map(Profile::getId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<String> findSlugs(int limit) {
+        return limit < 1 ? List.of() : profileRepository.findSlugs(Limit.of(limit));
+    }
+
+    @Override
+    public Portfolio load(long profileId) {
+        return readOnlyTransaction.execute(status -> {
+            long version = changeFeedService.currentVersion();
+            Profile profile = profileRepository.findById(profileId).orElse(null);
+            if (profile == null) {
+                return Portfolio.empty(version);
+            }
+            return new Portfolio(version, profile,
+                    experienceRepository.findByProfileIdOrderBySortOrderAsc(profileId),
+                    skillRepository.findByProfileIdOrderByCategoryAscProficiencyDesc(profileId),
+                    projectRepository.findByProfileIdOrderBySortOrderAsc(profileId),
+                    educationRepository.findByProfileIdOrderBySortOrderAsc(profileId),
+                    achievementRepository.findByProfileIdOrderBySortOrderAsc(profileId));
+        });
+    }
+
+    /**
+     * Each table in its own read-only transaction on the load executor, so
+     * they are read in parallel from the read pool.
+     */
+    @Override
+    public Portfolio loadConcurrently(long profileId) {
+        // Read before the tables: a write racing the loads moves the clock past this version, so
+        // the next reload sees a newer one instead of reusing bodies cached under this one
+        long version = changeFeedService.currentVersion();
+        Profile profile = readOnlyTransaction.execute(status -> profileRepository.findById(profileId))
+                .orElse(null);
+        if (profile == null) {
+            return Portfolio.empty(version);
+        }
+        CompletableFuture<List<Experience>> experiences = supplyAsync(
+                () -> experienceRepository.findByProfileIdOrderBySortOrderAsc(profileId));
+        CompletableFuture<List<Skill>> skills = supplyAsync(
+                () -> skillRepository.findByProfileIdOrderByCategoryAscProficiencyDesc(profileId));
+        CompletableFuture<List<Project>> projects = supplyAsync(
+                () -> projectRepository.findByProfileIdOrderBySortOrderAsc(profileId));
+        CompletableFuture<List<Education>> education = supplyAsync(
+                () -> educationRepository.findByProfileIdOrderBySortOrderAsc(profileId));
+        CompletableFuture<List<Achievement>> achievements = supplyAsync(
+                () -> achievementRepository.findByProfileIdOrderBySortOrderAsc(profileId));
+        CompletableFuture.allOf(experiences, skills, projects, education, achievements).join();
+        return new Portfolio(version, profile, experiences.join(), skills.join(), projects.join(),
+                education.join(), achievements.join());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Experience> findExperience(long profileId, long id) {
+        return experienceRepository.findById(id).filter(row -> ownedBy(row, profileId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Project> findProject(long profileId, long id) {
+        return projectRepository.findById(id).filter(row -> ownedBy(row, profileId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Experience> findExperiencePage(long profileId, int sortOrder, long id, int limit) {
+        return experienceRepository.findPageAfter(profileId, sortOrder, id, Limit.of(limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Project> findProjectPage(long profileId, int sortOrder, long id, int limit) {
+        return projectRepository.findPageAfter(profileId, sortOrder, id, Limit.of(limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Skill> findSkillPage(long profileId, String category, int proficiency, long id, int limit) {
+        return skillRepository.findPageAfter(profileId, category, proficiency, id, Limit.of(limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Achievement> findAchievementPage(long profileId, int sortOrder, long id, int limit) {
+        return achievementRepository.findPageAfter(profileId, sortOrder, id, Limit.of(limit));
+    }
+
+    @Override
+    public TenantChanges tenantsChangedSince(long since) {
+        return changeFeedService.tenantsChangedSince(since);
+    }
+
+    @Override
+    public void write(boolean replace, Consumer<Writer> writes) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (replace) {
+                TABLES.forEach(table -> entityManager
+                        .createQuery("delete from " + table.getSimpleName())
+                        .executeUpdate());
+            }
+            long[] pending = { 0 };
+            writes.accept(new Writer() {
+                @Override
+                public boolean slugExists(String slug) {
+                    // Without a flush, so pending inserts keep going out in batches
+                    return !entityManager.createQuery("select p.id from Profile p where p.slug = :slug", Long.class)
+                            .setParameter("slug", slug)
+                            .setFlushMode(FlushModeType.COMMIT)
+                            .setMaxResults(1)
+                            .getResultList()
+                            .isEmpty();
+                }
+
+                @Override
+                public void insert(Object entity) {
+                    // Ids come from the increment generator, so the entity has one as soon as it is persisted
+                    entityManager.persist(entity);
+                    if (++pending[0] % batchSize == 0) {
+                        entityManager.flush();
+                        entityManager.clear();
+                    }
+                }
+            });
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    private static boolean ownedBy(ProfileOwned row, long profileId) {
+        return row.getProfileId() != null && row.getProfileId() == profileId;
+    }
+
+    private <T> CompletableFuture<T> supplyAsync(Supplier<T> loader) {
+        // Derived finders carry no transaction of their own, so mark the load read-only here
+        return CompletableFuture.supplyAsync(() -> readOnlyTransaction.execute(status -> loader.get()),
+                resumeLoadExecutor);
+    }
+}
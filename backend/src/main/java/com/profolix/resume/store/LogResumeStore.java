@@ -0,0 +1,700 @@
+package com.profolix.resume.store;
+
+import com.profolix.resume.model.*;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * The {@code log} engine: portfolios kept in a directory of two files rather
+ * than in SQLite.
+ * <ul>
+ * <li>{@code log.dat}, a {@link ResumeLog} every write is appended to and, with
+ * {@code fsync}, forced to disk before it returns;</li>
+ * <li>{@code snapshot.dat}, a {@link SnapshotFile} holding every portfolio as
+ * of some data version, and the profiles deleted by then, memory-mapped and
+ * read in place.</li>
+ * </ul>
+ * Beside them, {@code store.id} holds the {@link #storeId} made when the
+ * directory was first used.
+ * Portfolios written since the snapshot are held on the heap, rebuilt on each
+ * write that touches them. Once the log grows past {@code compact-after}, the
+ * next write compacts: everything is written to a new snapshot, which
+ * atomically replaces the old one, and the log is emptied. Portfolios that did
+ * not change are copied row by row, without decoding.
+ *
+ * <p>On startup the snapshot is mapped and the log replayed on top of it.
+ * Writes that committed after the snapshot are applied; a write that never
+ * committed, or frames torn or damaged by a crash, end the replay and are cut
+ * from the log. A damaged snapshot fails startup, since the log alone does not
+ * hold what was compacted into it.
+ *
+ * <p>Reads never lock: the index maps each profile to its portfolio on the
+ * heap or in the mapping, and a write replaces whole entries. Writes, and
+ * compaction, take turns under one lock. Ids are assigned per row type, the
+ * way SQLite's increment generator assigns them per table.
+ */
+@Component
+@ConditionalOnProperty(prefix = "profolix.store", name = "engine", havingValue = "log")
+public class LogResumeStore implements ResumeStore, MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogResumeStore.class);
+
+    static final int ROW_TYPES = 6;
+
+    private static final String LOG = "log.dat";
+    private static final String SNAPSHOT = "snapshot.dat";
+    private static final String SNAPSHOT_TMP = "snapshot.dat.tmp";
+    private static final String STORE_ID = "store.id";
+
+    private static final int EXPERIENCES = 0;
+    private static final int SKILLS = 1;
+    private static final int PROJECTS = 2;
+    private static final int EDUCATION = 3;
+    private static final int ACHIEVEMENTS = 4;
+
+    private static final Comparator<Experience> EXPERIENCE_ORDER = Comparator
+            .comparingInt(Experience::getSortOrder).thenComparing(Experience::getId);
+    private static final Comparator<Skill> SKILL_ORDER = Comparator
+            .comparing(Skill::getCategory)
+            .thenComparing(Comparator.comparingInt(Skill::getProficiency).reversed())
+            .thenComparing(Skill::getId);
+    private static final Comparator<Project> PROJECT_ORDER = Comparator
+            .comparingInt(Project::getSortOrder).thenComparing(Project::getId);
+    private static final Comparator<Education> EDUCATION_ORDER = Comparator
+            .comparingInt(Education::getSortOrder).thenComparing(Education::getId);
+    private static final Comparator<Achievement> ACHIEVEMENT_ORDER = Comparator
+            .comparingInt(Achievement::getSortOrder).thenComparing(Achievement::getId);
+
+    private final Path directory;
+    private final long compactAfter;
+    private final boolean fsync;
+    // No dictionary: log and snapshot rows outlive the process
+    private final PortfolioCodec codec = new PortfolioCodec(0);
+
+    private final ConcurrentNavigableMap<Long, Entry> portfolios = new ConcurrentSkipListMap<>();
+    private final Map<String, Long> slugs = new ConcurrentHashMap<>();
+    // Deleted profiles, with the version that deleted them; kept across compactions for tenantsChangedSince
+    private final Map<Long, Long> tombstones = new ConcurrentHashMap<>();
+    private final AtomicLong compactions = new AtomicLong();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile long version;
+    // Last version that added or deleted a profile
+    private volatile long profilesVersion;
+    // The rest written under the write lock
+    private final long[] nextIds = new long[ROW_TYPES];
+    private ResumeLog log;
+    private volatile SnapshotFile snapshot;
+    private String storeId;
+
+    /**
+     * A portfolio: on the heap, or the entry at {@code offset} in the
+     * directory of {@code file}.
+     */
+    private record Entry(long version, String slug, Portfolio portfolio, SnapshotFile file, long offset) {
+    }
+
+    public LogResumeStore(@Value("${profolix.store.log.directory:resume-store}") Path directory,
+            @Value("${profolix.store.log.compact-after:64MB}") DataSize compactAfter,
+            @Value("${profolix.store.log.fsync:true}") boolean fsync) {
+        this.directory = directory;
+        this.compactAfter = compactAfter.toBytes();
+        this.fsync = fsync;
+        Arrays.fill(nextIds, 1);
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(directory);
+        Path idFile = directory.resolve(STORE_ID);
+        if (!Files.exists(idFile)) {
+            Files.writeString(idFile, UUID.randomUUID().toString());
+        }
+        storeId = Files.readString(idFile).strip();
+        // Left by a compaction that did not finish; the snapshot and log it was built from are intact
+        Files.deleteIfExists(directory.resolve(SNAPSHOT_TMP));
+        if (Files.exists(directory.resolve(SNAPSHOT))) {
+            map(SnapshotFile.open(directory.resolve(SNAPSHOT)));
+            snapshot.forEachTombstone(tombstones::put);
+            version = snapshot.version();
+            profilesVersion = version;
+            for (int type = 0; type < ROW_TYPES; type++) {
+                nextIds[type] = snapshot.nextId(type);
+            }
+        }
+        log = new ResumeLog(directory.resolve(LOG), fsync);
+        long dropped = log.replay((committed, frames) -> {
+            // Already in the snapshot if the log was not emptied after the last compaction
+            if (committed <= version) {
+                return;
+            }
+            Staged staged = new Staged(false);
+            for (ResumeLog.Frame frame : frames) {
+                if (frame.type() == ResumeLog.CLEAR) {
+                    staged.replace = true;
+                } else {
+                    Object row = codec.decodeRow(frame.body());
+                    int type = rowType(row);
+                    nextIds[type] = Math.max(nextIds[type], idOf(row) + 1);
+                    staged.add(row);
+                }
+            }
+            apply(staged, committed);
+        });
+        if (dropped > 0) {
+            logger.warn("Resume store log: dropped {} bytes after the last complete write", dropped);
+        }
+        if (log.size() >= compactAfter) {
+            compact();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            log.close();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public long currentVersion() {
+        return version;
+    }
+
+    @Override
+    public String storeId() {
+        return storeId;
+    }
+
+    @Override
+    public Optional<Long> findProfileId(String slug) {
+        return Optional.ofNullable(slugs.get(slug));
+    }
+
+    @Override
+    public Optional<Long> findFirstProfileId() {
+        Map.Entry<Long, Entry> first = portfolios.firstEntry();
+        return first == null ? Optional.empty() : Optional.of(first.getKey());
+    }
+
+    @Override
+    public List<String> findSlugs(int limit) {
+        List<String> found = new ArrayList<>();
+        for (Entry entry : portfolios.values()) {
+            if (found.size() >= limit) {
+                break;
+            }
+            if (entry.slug() != null) {
+                found.add(entry.slug());
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public Portfolio load(long profileId) {
+        long current = version;
+        Entry entry = portfolios.get(profileId);
+        if (entry == null) {
+            return Portfolio.empty(current);
+        }
+        if (entry.portfolio() != null) {
+            Portfolio p = entry.portfolio();
+            return new Portfolio(current, p.profile(), p.experiences(), p.skills(), p.projects(), p.education(),
+                    p.achievements());
+        }
+        SnapshotFile file = entry.file();
+        return new Portfolio(current, (Profile) codec.decodeRow(file.row(file.profileRow(entry.offset()))),
+                rows(entry, EXPERIENCES), rows(entry, SKILLS), rows(entry, PROJECTS), rows(entry, EDUCATION),
+                rows(entry, ACHIEVEMENTS));
+    }
+
+    @Override
+    public Optional<Experience> findExperience(long profileId, long id) {
+        return find(profileId, EXPERIENCES, id);
+    }
+
+    @Override
+    public Optional<Project> findProject(long profileId, long id) {
+        return find(profileId, PROJECTS, id);
+    }
+
+    @Override
+    public List<Experience> findExperiencePage(long profileId, int sortOrder, long id, int limit) {
+        return page(profileId, EXPERIENCES, (Experience row) -> row.getSortOrder() > sortOrder
+                || row.getSortOrder() == sortOrder && row.getId() > id, limit);
+    }
+
+    @Override
+    public List<Project> findProjectPage(long profileId, int sortOrder, long id, int limit) {
+        return page(profileId, PROJECTS, (Project row) -> row.getSortOrder() > sortOrder
+                || row.getSortOrder() == sortOrder && row.getId() > id, limit);
+    }
+
+    @Override
+    public List<Skill> findSkillPage(long profileId, String category, int proficiency, long id, int limit) {
+        return page(profileId, SKILLS, (Skill row) -> {
+            int byCategory = row.getCategory().compareTo(category);
+            return byCategory > 0 || byCategory == 0 && (row.getProficiency() < proficiency
+                    || row.getProficiency() == proficiency && row.getId() > id);
+        }, limit);
+    }
+
+    @Override
+    public List<Achievement> findAchievementPage(long profileId, int sortOrder, long id, int limit) {
+        return page(profileId, ACHIEVEMENTS, (Achievement row) -> row.getSortOrder() > sortOrder
+                || row.getSortOrder() == sortOrder && row.getId() > id, limit);
+    }
+
+    @Override
+    public TenantChanges tenantsChangedSince(long since) {
+        Set<Long> changed = new HashSet<>();
+        portfolios.forEach((id, entry) -> {
+            if (entry.version() > since) {
+                changed.add(id);
+            }
+        });
+        tombstones.forEach((id, deleted) -> {
+            if (deleted > since) {
+                changed.add(id);
+            }
+        });
+        return new TenantChanges(changed, profilesVersion > since);
+    }
+
+    @Override
+    public void write(boolean replace, Consumer<Writer> writes) {
+        writeLock.lock();
+        try {
+            long start = log.position();
+            long[] ids = nextIds.clone();
+            Staged staged = new Staged(replace);
+            long committed = version + 1;
+            try {
+                if (replace) {
+                    log.append(ResumeLog.CLEAR, new byte[0]);
+                }
+                writes.accept(new Writer() {
+                    @Override
+                    public boolean slugExists(String slug) {
+                        return !replace && slugs.containsKey(slug);
+                    }
+
+                    @Override
+                    public void insert(Object entity) {
+                        if (entity instanceof ProfileOwned owned && !ownerExists(staged, owned.getProfileId())) {
+                            throw new IllegalArgumentException(entity.getClass().getSimpleName()
+                                    + " belongs to no profile: " + owned.getProfileId());
+                        }
+                        // The column is NOT NULL under the sqlite engine; skills are grouped and paged by it
+                        if (entity instanceof Skill skill && skill.getCategory() == null) {
+                            throw new IllegalArgumentException("Skill has no category: " + skill.getName());
+                        }
+                        int type = rowType(entity);
+                        assignId(entity, ids[type]++);
+                        try {
+                            log.append(ResumeLog.ROW, codec.encodeRow(entity));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        staged.add(entity);
+                    }
+                });
+                log.commit(committed);
+            } catch (IOException e) {
+                rollback(start, e);
+                throw new UncheckedIOException(e);
+            } catch (RuntimeException | Error e) {
+                rollback(start, e);
+                throw e;
+            }
+            System.arraycopy(ids, 0, nextIds, 0, ROW_TYPES);
+            apply(staged, committed);
+            if (log.size() >= compactAfter) {
+                try {
+                    compact();
+                } catch (IOException e) {
+                    // The write is safe in the log; the next one tries again
+                    logger.warn("Resume store compaction failed", e);
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /** Number of portfolios. */
+    public int size() {
+        return portfolios.size();
+    }
+
+    /** Bytes in the log, that a restart would replay. */
+    public long getLogBytes() {
+        return log.size();
+    }
+
+    /** Bytes in the mapped snapshot. */
+    public long getSnapshotBytes() {
+        SnapshotFile current = snapshot;
+        return current == null ? 0 : current.length();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("profolix.store.portfolios", this, LogResumeStore::size)
+                .description("Portfolios in the log store")
+                .register(registry);
+        Gauge.builder("profolix.store.log.size", this, LogResumeStore::getLogBytes)
+                .description("Bytes written to the log since the last compaction")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("profolix.store.snapshot.size", this, LogResumeStore::getSnapshotBytes)
+                .description("Bytes in the memory-mapped snapshot")
+                .baseUnit("bytes")
+                .register(registry);
+        FunctionCounter.builder("profolix.store.compactions", compactions, AtomicLong::get)
+                .description("Log compactions into a new snapshot")
+                .register(registry);
+    }
+
+    private void rollback(long position, Throwable failure) {
+        try {
+            log.rollback(position);
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    // Called under the write lock
+    private boolean ownerExists(Staged staged, Long owner) {
+        return owner != null && (staged.profiles.containsKey(owner)
+                || !staged.replace && portfolios.containsKey(owner));
+    }
+
+    /*
+     * Applying a write rebuilds each portfolio it touched on the heap, then
+     * publishes it by replacing its index entry; the version moves last, so
+     * a reader that sees it also sees the portfolios.
+     */
+
+    private void apply(Staged staged, long committed) {
+        Set<Long> owners = new LinkedHashSet<>(staged.profiles.keySet());
+        owners.addAll(staged.rows.keySet());
+        for (long owner : owners) {
+            Entry base = staged.replace ? null : portfolios.get(owner);
+            Profile profile = staged.profiles.get(owner);
+            if (profile == null && base != null) {
+                profile = profileOf(base);
+            }
+            if (profile == null) {
+                continue;
+            }
+            List<Object> added = staged.rows.getOrDefault(owner, List.of());
+            Portfolio portfolio = new Portfolio(committed, profile,
+                    merge(base, EXPERIENCES, added, Experience.class, EXPERIENCE_ORDER),
+                    merge(base, SKILLS, added, Skill.class, SKILL_ORDER),
+                    merge(base, PROJECTS, added, Project.class, PROJECT_ORDER),
+                    merge(base, EDUCATION, added, Education.class, EDUCATION_ORDER),
+                    merge(base, ACHIEVEMENTS, added, Achievement.class, ACHIEVEMENT_ORDER));
+            portfolios.put(owner, new Entry(committed, profile.getSlug(), portfolio, null, -1));
+            if (profile.getSlug() != null && staged.profiles.containsKey(owner)) {
+                slugs.put(profile.getSlug(), owner);
+            }
+        }
+        if (staged.replace) {
+            for (Map.Entry<Long, Entry> old : portfolios.entrySet()) {
+                if (!owners.contains(old.getKey())) {
+                    portfolios.remove(old.getKey());
+                    tombstones.put(old.getKey(), committed);
+                    if (old.getValue().slug() != null) {
+                        slugs.remove(old.getValue().slug(), old.getKey());
+                    }
+                }
+            }
+        }
+        if (staged.replace || !staged.profiles.isEmpty()) {
+            profilesVersion = committed;
+        }
+        version = committed;
+    }
+
+    private <T> List<T> merge(Entry base, int table, List<Object> added, Class<T> type, Comparator<T> order) {
+        List<T> merged = new ArrayList<>(base == null ? List.of() : rows(base, table));
+        int before = merged.size();
+        for (Object row : added) {
+            if (type.isInstance(row)) {
+                merged.add(type.cast(row));
+            }
+        }
+        if (merged.size() > before) {
+            // Mostly sorted already, which TimSort merges in linear time
+            merged.sort(order);
+        }
+        return List.copyOf(merged);
+    }
+
+    /*
+     * Compaction writes every portfolio, and every tombstone, to a new
+     * snapshot next to the old one, forces it to disk and renames it over the
+     * old one; only then is the log emptied. A crash before the rename leaves the old snapshot and the full
+     * log, one after it the new snapshot and a log whose writes it already
+     * holds, which replay skips by version.
+     */
+
+    private void compact() throws IOException {
+        Path tmp = directory.resolve(SNAPSHOT_TMP);
+        long directoryLength = 0;
+        for (Map.Entry<Long, Entry> e : portfolios.entrySet()) {
+            int[] counts = new int[SnapshotFile.TABLES];
+            for (int table = 0; table < counts.length; table++) {
+                counts[table] = count(e.getValue(), table);
+            }
+            directoryLength += SnapshotFile.entryLength(slugOf(e.getValue()), counts);
+        }
+        try (SnapshotFile.Writer writer = new SnapshotFile.Writer(tmp, version, nextIds, directoryLength)) {
+            for (Map.Entry<Long, Entry> e : portfolios.entrySet()) {
+                Entry entry = e.getValue();
+                long[][] ids = new long[SnapshotFile.TABLES][];
+                long[][] offsets = new long[SnapshotFile.TABLES][];
+                long profileRow;
+                if (entry.portfolio() != null) {
+                    profileRow = writer.writeRow(codec.encodeRow(entry.portfolio().profile()));
+                    for (int table = 0; table < SnapshotFile.TABLES; table++) {
+                        List<?> rows = heapRows(entry.portfolio(), table);
+                        ids[table] = new long[rows.size()];
+                        offsets[table] = new long[rows.size()];
+                        for (int i = 0; i < rows.size(); i++) {
+                            ids[table][i] = idOf(rows.get(i));
+                            offsets[table][i] = writer.writeRow(codec.encodeRow(rows.get(i)));
+                        }
+                    }
+                } else {
+                    SnapshotFile file = entry.file();
+                    profileRow = writer.copyRow(file, file.profileRow(entry.offset()));
+                    for (int table = 0; table < SnapshotFile.TABLES; table++) {
+                        int count = file.count(entry.offset(), table);
+                        ids[table] = new long[count];
+                        offsets[table] = new long[count];
+                        for (int i = 0; i < count; i++) {
+                            ids[table][i] = file.rowId(entry.offset(), table, i);
+                            offsets[table][i] = writer.copyRow(file, file.rowOffset(entry.offset(), table, i));
+                        }
+                    }
+                }
+                writer.addPortfolio(e.getKey(), entry.version(), slugOf(entry), profileRow, ids, offsets);
+            }
+            tombstones.forEach(writer::addTombstone);
+            writer.finish();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        Files.move(tmp, directory.resolve(SNAPSHOT), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+        // Make the rename itself durable before the log it replaces is emptied
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        }
+        log.reset();
+        map(SnapshotFile.open(directory.resolve(SNAPSHOT)));
+        compactions.incrementAndGet();
+    }
+
+    /** Points the index at the portfolios of {@code file}. */
+    private void map(SnapshotFile file) {
+        file.forEachPortfolio((profileId, portfolioVersion, slug, offset) -> {
+            String portfolioSlug = slug.isEmpty() ? null : slug;
+            portfolios.put(profileId, new Entry(portfolioVersion, portfolioSlug, null, file, offset));
+            if (portfolioSlug != null) {
+                slugs.put(portfolioSlug, profileId);
+            }
+        });
+        snapshot = file;
+    }
+
+    /*
+     * Row access over either kind of entry. Lists are in API order, so a page
+     * starts at the first row that sorts after its key, found by bisection;
+     * in the mapping, that decodes a logarithmic number of rows.
+     */
+
+    private <T> List<T> page(long profileId, int table, Predicate<T> after, int limit) {
+        Entry entry = portfolios.get(profileId);
+        if (entry == null) {
+            return List.of();
+        }
+        int count = count(entry, table);
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (after.test(row(entry, table, mid))) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        List<T> page = new ArrayList<>(Math.min(limit, count - low));
+        for (int i = low; i < count && page.size() < limit; i++) {
+            page.add(row(entry, table, i));
+        }
+        return page;
+    }
+
+    private <T> Optional<T> find(long profileId, int table, long id) {
+        Entry entry = portfolios.get(profileId);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        int count = count(entry, table);
+        for (int i = 0; i < count; i++) {
+            long rowId = entry.portfolio() != null ? idOf(heapRows(entry.portfolio(), table).get(i))
+                    : entry.file().rowId(entry.offset(), table, i);
+            if (rowId == id) {
+                return Optional.of(row(entry, table, i));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private int count(Entry entry, int table) {
+        return entry.portfolio() != null ? heapRows(entry.portfolio(), table).size()
+                : entry.file().count(entry.offset(), table);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T row(Entry entry, int table, int index) {
+        if (entry.portfolio() != null) {
+            return (T) heapRows(entry.portfolio(), table).get(index);
+        }
+        SnapshotFile file = entry.file();
+        return (T) codec.decodeRow(file.row(file.rowOffset(entry.offset(), table, index)));
+    }
+
+    private <T> List<T> rows(Entry entry, int table) {
+        int count = count(entry, table);
+        List<T> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(row(entry, table, i));
+        }
+        return rows;
+    }
+
+    private Profile profileOf(Entry entry) {
+        if (entry.portfolio() != null) {
+            return entry.portfolio().profile();
+        }
+        return (Profile) codec.decodeRow(entry.file().row(entry.file().profileRow(entry.offset())));
+    }
+
+    private static String slugOf(Entry entry) {
+        return entry.slug() == null ? "" : entry.slug();
+    }
+
+    private static List<?> heapRows(Portfolio portfolio, int table) {
+        return switch (table) {
+            case EXPERIENCES -> portfolio.experiences();
+            case SKILLS -> portfolio.skills();
+            case PROJECTS -> portfolio.projects();
+            case EDUCATION -> portfolio.education();
+            case ACHIEVEMENTS -> portfolio.achievements();
+            default -> throw new IllegalArgumentException("No table " + table);
+        };
+    }
+
+    /** Index into the per-type id counters: profiles, then the tables in portfolio order. */
+    private static int rowType(Object row) {
+        if (row instanceof Profile) {
+            return 0;
+        } else if (row instanceof Experience) {
+            return 1 + EXPERIENCES;
+        } else if (row instanceof Skill) {
+            return 1 + SKILLS;
+        } else if (row instanceof Project) {
+            return 1 + PROJECTS;
+        } else if (row instanceof Education) {
+            return 1 + EDUCATION;
+        } else if (row instanceof Achievement) {
+            return 1 + ACHIEVEMENTS;
+        }
+        throw new IllegalArgumentException("Not a resume row: " + row.getClass().getSimpleName());
+    }
+
+    private static long idOf(Object row) {
+        if (row instanceof Profile p) {
+            return p.getId();
+        } else if (row instanceof Experience e) {
+            return e.getId();
+        } else if (row instanceof Skill s) {
+            return s.getId();
+        } else if (row instanceof Project p) {
+            return p.getId();
+        } else if (row instanceof Education e) {
+            return e.getId();
+        }
+        return ((Achievement) row).getId();
+    }
+
+    private static void assignId(Object row, long id) {
+        if (row instanceof Profile p) {
+            p.setId(id);
+        } else if (row instanceof Experience e) {
+            e.setId(id);
+        } else if (row instanceof Skill s) {
+            s.setId(id);
+        } else if (row instanceof Project p) {
+            p.setId(id);
+        } else if (row instanceof Education e) {
+            e.setId(id);
+        } else if (row instanceof Achievement a) {
+            a.setId(id);
+        }
+    }
+
+    /** The rows of one write, by owner, before they are applied. */
+    private static final class Staged {
+        boolean replace;
+        final Map<Long, Profile> profiles = new LinkedHashMap<>();
+        final Map<Long, List<Object>> rows = new LinkedHashMap<>();
+
+        Staged(boolean replace) {
+            this.replace = replace;
+        }
+
+        void add(Object row) {
+            if (row instanceof Profile profile) {
+                profiles.put(profile.getId(), profile);
+            } else {
+                rows.computeIfAbsent(((ProfileOwned) row).getProfileId(), owner -> new ArrayList<>()).add(row);
+            }
+        }
+    }
+}
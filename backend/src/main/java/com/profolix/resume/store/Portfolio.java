@@ -0,0 +1,19 @@
+package com.profolix.resume.store;
+
+import com.profolix.resume.model.*;
+
+import java.util.List;
+
+/**
+ * One portfolio as read from a {@link ResumeStore}: its profile and the rows
+ * it owns, each list in the order the API serves it. {@code version} is the
+ * store's data version, read before the rows. A portfolio whose profile does
+ * not exist has a null profile and no rows.
+ */
+public record Portfolio(long version, Profile profile, List<Experience> experiences, List<Skill> skills,
+        List<Project> projects, List<Education> education, List<Achievement> achievements) {
+
+    public static Portfolio empty(long version) {
+        return new Portfolio(version, null, List.of(), List.of(), List.of(), List.of(), List.of());
+    }
+}
@@ -0,0 +1,544 @@
+package com.profolix.resume.store;
+
+import com.profolix.resume.model.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Binary form of a {@link Portfolio}: the version, the profile and then each
+ * list of rows in order, field by field.
+ * <ul>
+ * <li>Strings are UTF-8 with a length prefix.</li>
+ * <li>Technologies and skill names, categories and icons are codes into a
+ * {@link TermDictionary} shared by everything this codec encodes, so a
+ * technology is stored once however many rows in however many portfolios use
+ * it. The dictionary lives in memory only: a codec whose records outlive the
+ * process is built without one and spells every string out.</li>
+ * <li>Ids, counts and ints are zigzag varints, one or two bytes for most
+ * values, and a row's boolean is one flag byte.</li>
+ * <li>A record long enough to be worth it is deflated as a whole; bios and
+ * descriptions are most of its bytes.</li>
+ * </ul>
+ * Rows are not tagged with their owner, which is the record's profile, and
+ * change versions, which no response carries, are not kept; decoded rows have
+ * none.
+ *
+ * <p>Single rows have a form of their own, {@link #encodeRow}, led by a type
+ * byte and the owner's id.
+ */
+public final class PortfolioCodec {
+
+    private static final byte PLAIN = 0;
+    private static final byte DEFLATED = 1;
+    // Below this, the zlib framing eats most of what deflate saves
+    private static final int DEFLATE_MIN_SIZE = 512;
+
+    // Row types
+    static final byte PROFILE = 1;
+    static final byte EXPERIENCE = 2;
+    static final byte SKILL = 3;
+    static final byte PROJECT = 4;
+    static final byte EDUCATION = 5;
+    static final byte ACHIEVEMENT = 6;
+
+    private final TermDictionary terms;
+
+    /** A codec with a dictionary of up to {@code maxTerms} terms; 0 for none. */
+    public PortfolioCodec(int maxTerms) {
+        this.terms = new TermDictionary(maxTerms);
+    }
+
+    /** Distinct terms in the dictionary. */
+    public int getTermCount() {
+        return terms.size();
+    }
+
+    /** Encodes a portfolio that has a profile. */
+    public byte[] encode(Portfolio portfolio) {
+        Output out = new Output(4096);
+        out.write(PLAIN);
+        out.varint(portfolio.version());
+        writeProfile(out, portfolio.profile());
+        out.varint(portfolio.experiences().size());
+        portfolio.experiences().forEach(row -> writeExperience(out, row));
+        out.varint(portfolio.skills().size());
+        portfolio.skills().forEach(row -> writeSkill(out, row));
+        out.varint(portfolio.projects().size());
+        portfolio.projects().forEach(row -> writeProject(out, row));
+        out.varint(portfolio.education().size());
+        portfolio.education().forEach(row -> writeEducation(out, row));
+        out.varint(portfolio.achievements().size());
+        portfolio.achievements().forEach(row -> writeAchievement(out, row));
+        return deflate(out);
+    }
+
+    public Portfolio decode(byte[] record) {
+        Input in = inflate(record);
+        long version = in.varint();
+        Profile profile = readProfile(in);
+        Long owner = profile.getId();
+        List<Experience> experiences = new ArrayList<>();
+        for (int n = in.count(); n > 0; n--) {
+            experiences.add(readExperience(in, owner));
+        }
+        List<Skill> skills = new ArrayList<>();
+        for (int n = in.count(); n > 0; n--) {
+            skills.add(readSkill(in, owner));
+        }
+        List<Project> projects = new ArrayList<>();
+        for (int n = in.count(); n > 0; n--) {
+            projects.add(readProject(in, owner));
+        }
+        List<Education> education = new ArrayList<>();
+        for (int n = in.count(); n > 0; n--) {
+            education.add(readEducation(in, owner));
+        }
+        List<Achievement> achievements = new ArrayList<>();
+        for (int n = in.count(); n > 0; n--) {
+            achievements.add(readAchievement(in, owner));
+        }
+        return new Portfolio(version, profile, experiences, skills, projects, education, achievements);
+    }
+
+    /** One profile or owned row, never deflated. */
+    byte[] encodeRow(Object row) {
+        Output out = new Output(512);
+        if (row instanceof Profile p) {
+            out.write(PROFILE);
+            writeProfile(out, p);
+            return out.toByteArray();
+        }
+        ProfileOwned owned = (ProfileOwned) row;
+        if (row instanceof Experience e) {
+            out.write(EXPERIENCE);
+            out.nullableLong(owned.getProfileId());
+            writeExperience(out, e);
+        } else if (row instanceof Skill s) {
+            out.write(SKILL);
+            out.nullableLong(owned.getProfileId());
+            writeSkill(out, s);
+        } else if (row instanceof Project p) {
+            out.write(PROJECT);
+            out.nullableLong(owned.getProfileId());
+            writeProject(out, p);
+        } else if (row instanceof Education e) {
+            out.write(EDUCATION);
+            out.nullableLong(owned.getProfileId());
+            writeEducation(out, e);
+        } else if (row instanceof Achievement a) {
+            out.write(ACHIEVEMENT);
+            out.nullableLong(owned.getProfileId());
+            writeAchievement(out, a);
+        } else {
+            throw new IllegalArgumentException("Not a resume row: " + row.getClass().getSimpleName());
+        }
+        return out.toByteArray();
+    }
+
+    Object decodeRow(byte[] bytes) {
+        Input in = new Input(bytes, 1);
+        return switch (bytes[0]) {
+            case PROFILE -> readProfile(in);
+            case EXPERIENCE -> readExperience(in, in.nullableLong());
+            case SKILL -> readSkill(in, in.nullableLong());
+            case PROJECT -> readProject(in, in.nullableLong());
+            case EDUCATION -> readEducation(in, in.nullableLong());
+            case ACHIEVEMENT -> readAchievement(in, in.nullableLong());
+            default -> throw new IllegalStateException("Unknown row type " + bytes[0]);
+        };
+    }
+
+    private void writeProfile(Output out, Profile p) {
+        out.nullableLong(p.getId());
+        out.string(p.getSlug());
+        out.string(p.getFullName());
+        out.string(p.getTitle());
+        out.string(p.getSubtitle());
+        out.string(p.getEmail());
+        out.string(p.getPhone());
+        out.string(p.getLocation());
+        out.string(p.getLinkedIn());
+        out.string(p.getGithub());
+        out.string(p.getPortfolio());
+        out.string(p.getBio());
+        out.string(p.getProfileImageUrl());
+        out.zigzag(p.getYearsOfExperience());
+        out.zigzag(p.getProjectsCompleted());
+        out.zigzag(p.getCompaniesWorked());
+        out.zigzag(p.getCertificationsEarned());
+    }
+
+    private Profile readProfile(Input in) {
+        Profile p = new Profile();
+        p.setId(in.nullableLong());
+        p.setSlug(in.string());
+        p.setFullName(in.string());
+        p.setTitle(in.string());
+        p.setSubtitle(in.string());
+        p.setEmail(in.string());
+        p.setPhone(in.string());
+        p.setLocation(in.string());
+        p.setLinkedIn(in.string());
+        p.setGithub(in.string());
+        p.setPortfolio(in.string());
+        p.setBio(in.string());
+        p.setProfileImageUrl(in.string());
+        p.setYearsOfExperience(in.zigzag());
+        p.setProjectsCompleted(in.zigzag());
+        p.setCompaniesWorked(in.zigzag());
+        p.setCertificationsEarned(in.zigzag());
+        return p;
+    }
+
+    private void writeExperience(Output out, Experience e) {
+        out.nullableLong(e.getId());
+        out.string(e.getCompany());
+        out.string(e.getRole());
+        out.string(e.getStartDate());
+        out.string(e.getEndDate());
+        out.string(e.getLocation());
+        out.string(e.getDescription());
+        writeTechnologies(out, e.getTechnologies());
+        out.string(e.getLogoUrl());
+        out.write(e.isCurrent() ? 1 : 0);
+        out.zigzag(e.getSortOrder());
+    }
+
+    private Experience readExperience(Input in, Long owner) {
+        Experience e = new Experience();
+        e.setId(in.nullableLong());
+        e.setProfileId(owner);
+        e.setCompany(in.string());
+        e.setRole(in.string());
+        e.setStartDate(in.string());
+        e.setEndDate(in.string());
+        e.setLocation(in.string());
+        e.setDescription(in.string());
+        e.setTechnologies(readTechnologies(in));
+        e.setLogoUrl(in.string());
+        e.setCurrent(in.read() != 0);
+        e.setSortOrder(in.zigzag());
+        return e;
+    }
+
+    private void writeSkill(Output out, Skill s) {
+        out.nullableLong(s.getId());
+        writeTerm(out, s.getName());
+        writeTerm(out, s.getCategory());
+        out.zigzag(s.getProficiency());
+        writeTerm(out, s.getIconName());
+    }
+
+    private Skill readSkill(Input in, Long owner) {
+        Skill s = new Skill();
+        s.setId(in.nullableLong());
+        s.setProfileId(owner);
+        s.setName(readTerm(in));
+        s.setCategory(readTerm(in));
+        s.setProficiency(in.zigzag());
+        s.setIconName(readTerm(in));
+        return s;
+    }
+
+    private void writeProject(Output out, Project p) {
+        out.nullableLong(p.getId());
+        out.string(p.getTitle());
+        out.string(p.getDescription());
+        writeTechnologies(out, p.getTechnologies());
+        out.string(p.getImageUrl());
+        out.string(p.getLiveUrl());
+        out.string(p.getGithubUrl());
+        out.write(p.isFeatured() ? 1 : 0);
+        out.zigzag(p.getSortOrder());
+    }
+
+    private Project readProject(Input in, Long owner) {
+        Project p = new Project();
+        p.setId(in.nullableLong());
+        p.setProfileId(owner);
+        p.setTitle(in.string());
+        p.setDescription(in.string());
+        p.setTechnologies(readTechnologies(in));
+        p.setImageUrl(in.string());
+        p.setLiveUrl(in.string());
+        p.setGithubUrl(in.string());
+        p.setFeatured(in.read() != 0);
+        p.setSortOrder(in.zigzag());
+        return p;
+    }
+
+    private void writeEducation(Output out, Education e) {
+        out.nullableLong(e.getId());
+        out.string(e.getInstitution());
+        out.string(e.getDegree());
+        out.string(e.getField());
+        out.string(e.getStartYear());
+        out.string(e.getEndYear());
+        out.string(e.getGrade());
+        out.string(e.getLogoUrl());
+        out.zigzag(e.getSortOrder());
+    }
+
+    private Education readEducation(Input in, Long owner) {
+        Education e = new Education();
+        e.setId(in.nullableLong());
+        e.setProfileId(owner);
+        e.setInstitution(in.string());
+        e.setDegree(in.string());
+        e.setField(in.string());
+        e.setStartYear(in.string());
+        e.setEndYear(in.string());
+        e.setGrade(in.string());
+        e.setLogoUrl(in.string());
+        e.setSortOrder(in.zigzag());
+        return e;
+    }
+
+    private void writeAchievement(Output out, Achievement a) {
+        out.nullableLong(a.getId());
+        out.string(a.getTitle());
+        out.string(a.getDescription());
+        writeTerm(out, a.getIcon());
+        out.string(a.getYear());
+        out.zigzag(a.getSortOrder());
+    }
+
+    private Achievement readAchievement(Input in, Long owner) {
+        Achievement a = new Achievement();
+        a.setId(in.nullableLong());
+        a.setProfileId(owner);
+        a.setTitle(in.string());
+        a.setDescription(in.string());
+        a.setIcon(readTerm(in));
+        a.setYear(in.string());
+        a.setSortOrder(in.zigzag());
+        return a;
+    }
+
+    // Each comma-separated entry is a term, spacing included, so the column comes back exactly as stored
+    private void writeTechnologies(Output out, String technologies) {
+        if (technologies == null) {
+            out.varint(0);
+            return;
+        }
+        String[] entries = technologies.split(",", -1);
+        out.varint(entries.length + 1);
+        for (String entry : entries) {
+            writeTerm(out, entry);
+        }
+    }
+
+    private String readTechnologies(Input in) {
+        int entries = (int) in.varint() - 1;
+        if (entries < 0) {
+            return null;
+        }
+        StringBuilder technologies = new StringBuilder();
+        for (int i = 0; i < entries; i++) {
+            if (i > 0) {
+                technologies.append(',');
+            }
+            technologies.append(readTerm(in));
+        }
+        return technologies.toString();
+    }
+
+    // Tag 0 is null, odd tags carry a dictionary code, even ones the length of an inline string
+    private void writeTerm(Output out, String term) {
+        if (term == null) {
+            out.varint(0);
+            return;
+        }
+        int code = terms.encode(term);
+        if (code >= 0) {
+            out.varint(((long) code << 1) | 1);
+        } else {
+            byte[] bytes = term.getBytes(StandardCharsets.UTF_8);
+            out.varint((long) (bytes.length + 1) << 1);
+            out.write(bytes);
+        }
+    }
+
+    private String readTerm(Input in) {
+        long tag = in.varint();
+        if (tag == 0) {
+            return null;
+        }
+        if ((tag & 1) != 0) {
+            return terms.decode((int) (tag >>> 1));
+        }
+        return in.utf8((int) (tag >>> 1) - 1);
+    }
+
+    private static byte[] deflate(Output plain) {
+        if (plain.size >= DEFLATE_MIN_SIZE) {
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try {
+                deflater.setInput(plain.bytes, 1, plain.size - 1);
+                deflater.finish();
+                Output packed = new Output(plain.size / 2);
+                packed.write(DEFLATED);
+                packed.varint(plain.size - 1);
+                while (!deflater.finished() && packed.size < plain.size) {
+                    packed.ensure(1024);
+                    packed.size += deflater.deflate(packed.bytes, packed.size, packed.bytes.length - packed.size);
+                }
+                if (deflater.finished() && packed.size < plain.size) {
+                    return packed.toByteArray();
+                }
+            } finally {
+                deflater.end();
+            }
+        }
+        return plain.toByteArray();
+    }
+
+    private static Input inflate(byte[] record) {
+        Input header = new Input(record, 1);
+        if (record[0] == PLAIN) {
+            return header;
+        }
+        byte[] plain = new byte[header.count()];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(record, header.position, record.length - header.position);
+            int length = 0;
+            while (length < plain.length && !inflater.finished()) {
+                int inflated = inflater.inflate(plain, length, plain.length - length);
+                if (inflated == 0 && inflater.needsInput()) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != plain.length) {
+                throw new IllegalStateException("Truncated portfolio record");
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt portfolio record", e);
+        } finally {
+            inflater.end();
+        }
+        return new Input(plain, 0);
+    }
+
+    private static final class Output {
+        byte[] bytes;
+        int size;
+
+        Output(int capacity) {
+            bytes = new byte[Math.max(capacity, 16)];
+        }
+
+        void ensure(int more) {
+            if (size + more > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + more));
+            }
+        }
+
+        void write(int b) {
+            ensure(1);
+            bytes[size++] = (byte) b;
+        }
+
+        void write(byte[] b) {
+            ensure(b.length);
+            System.arraycopy(b, 0, bytes, size, b.length);
+            size += b.length;
+        }
+
+        void varint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        void zigzag(long value) {
+            varint((value << 1) ^ (value >> 63));
+        }
+
+        void nullableLong(Long value) {
+            if (value == null) {
+                varint(0);
+            } else {
+                varint(((value << 1) ^ (value >> 63)) + 1);
+            }
+        }
+
+        void string(String value) {
+            if (value == null) {
+                varint(0);
+                return;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            varint(utf8.length + 1L);
+            write(utf8);
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+    }
+
+    private static final class Input {
+        final byte[] bytes;
+        int position;
+
+        Input(byte[] bytes, int position) {
+            this.bytes = bytes;
+            this.position = position;
+        }
+
+        int read() {
+            return bytes[position++];
+        }
+
+        long varint() {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = bytes[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+
+        int count() {
+            return (int) varint();
+        }
+
+        int zigzag() {
+            long value = varint();
+            return (int) ((value >>> 1) ^ -(value & 1));
+        }
+
+        Long nullableLong() {
+            long value = varint();
+            if (value == 0) {
+                return null;
+            }
+            value--;
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        String string() {
+            int length = (int) varint();
+            return length == 0 ? null : utf8(length - 1);
+        }
+
+        String utf8(int length) {
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
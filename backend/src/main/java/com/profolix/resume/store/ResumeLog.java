@@ -0,0 +1,185 @@
+package com.profolix.resume.store;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * The write-ahead log of {@link LogResumeStore}: an append-only file of
+ * checksummed frames, {@code [int length][int crc32c][byte type][body]}, where
+ * the length and checksum cover the type and body. A write is its frames
+ * followed by a {@link #COMMIT} frame carrying the write's data version; only
+ * committed writes are replayed.
+ *
+ * <p>Frames are buffered in memory and reach the file when the buffer fills
+ * or the write commits; with {@code fsync}, a commit returns only once the
+ * file is on disk. Not thread-safe: the store writes under its own lock.
+ */
+final class ResumeLog implements AutoCloseable {
+
+    /** A row, in {@link PortfolioCodec#encodeRow} form. */
+    static final byte ROW = 1;
+    /** Every portfolio so far is deleted. */
+    static final byte CLEAR = 2;
+    /** Ends a write; the body is its data version. */
+    static final byte COMMIT = 3;
+
+    private static final int FRAME_HEADER = 2 * Integer.BYTES;
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final FileChannel channel;
+    private final boolean fsync;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final CRC32C crc = new CRC32C();
+    // Bytes in the file; frames still in the buffer follow
+    private long written;
+
+    ResumeLog(Path path, boolean fsync) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.fsync = fsync;
+        this.written = channel.size();
+    }
+
+    /** A frame read back by {@link #replay}. */
+    record Frame(byte type, byte[] body) {
+    }
+
+    @FunctionalInterface
+    interface Replay {
+        void commit(long version, List<Frame> frames) throws IOException;
+    }
+
+    /**
+     * Hands every committed write to {@code handler}, in log order, and cuts
+     * the file back to the end of the last one: frames after it belong to a
+     * write that never committed, or were torn or damaged by a crash.
+     *
+     * @return the number of bytes cut off
+     */
+    long replay(Replay handler) throws IOException {
+        long size = channel.size();
+        long position = 0;
+        long committed = 0;
+        List<Frame> frames = new ArrayList<>();
+        DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Channels.newInputStream(channel.position(0)), 1 << 16));
+        try {
+            while (size - position >= FRAME_HEADER) {
+                int length = in.readInt();
+                int checksum = in.readInt();
+                if (length < 1 || length > size - position - FRAME_HEADER) {
+                    break;
+                }
+                byte[] frame = new byte[length];
+                in.readFully(frame);
+                crc.reset();
+                crc.update(frame);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                position += FRAME_HEADER + length;
+                byte[] body = new byte[length - 1];
+                System.arraycopy(frame, 1, body, 0, body.length);
+                if (frame[0] != COMMIT) {
+                    frames.add(new Frame(frame[0], body));
+                    continue;
+                }
+                if (body.length != Long.BYTES) {
+                    break;
+                }
+                handler.commit(ByteBuffer.wrap(body).getLong(), frames);
+                frames = new ArrayList<>();
+                committed = position;
+            }
+        } catch (EOFException e) {
+            // A torn frame; everything from the last commit on goes
+        }
+        if (committed < size) {
+            channel.truncate(committed);
+            channel.force(false);
+        }
+        written = committed;
+        return size - committed;
+    }
+
+    /** Where the next frame goes; pass to {@link #rollback} to drop the frames after it. */
+    long position() {
+        return written + buffer.position();
+    }
+
+    /** Bytes in the log, buffered frames included. */
+    long size() {
+        return position();
+    }
+
+    void append(byte type, byte[] body) throws IOException {
+        crc.reset();
+        crc.update(type);
+        crc.update(body);
+        int length = 1 + body.length;
+        if (FRAME_HEADER + length > buffer.remaining()) {
+            flush();
+        }
+        if (FRAME_HEADER + length > buffer.capacity()) {
+            ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER + length);
+            frame.putInt(length).putInt((int) crc.getValue()).put(type).put(body).flip();
+            write(frame);
+            return;
+        }
+        buffer.putInt(length).putInt((int) crc.getValue()).put(type).put(body);
+    }
+
+    /** Appends the commit frame for {@code version} and writes out the write's frames. */
+    void commit(long version) throws IOException {
+        append(COMMIT, ByteBuffer.allocate(Long.BYTES).putLong(version).array());
+        flush();
+        if (fsync) {
+            channel.force(false);
+        }
+    }
+
+    /** Drops every frame from {@code position}, which {@link #position} returned, on. */
+    void rollback(long position) throws IOException {
+        buffer.clear();
+        if (written > position) {
+            channel.truncate(position);
+            written = position;
+        }
+    }
+
+    /** Empties the log, once its writes are safe in a snapshot. */
+    void reset() throws IOException {
+        buffer.clear();
+        channel.truncate(0);
+        channel.force(false);
+        written = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        write(buffer);
+        buffer.clear();
+    }
+
+    private void write(ByteBuffer frames) throws IOException {
+        while (frames.hasRemaining()) {
+            written += channel.write(frames, written);
+        }
+    }
+}
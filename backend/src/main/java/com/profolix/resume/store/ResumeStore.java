@@ -0,0 +1,93 @@
+package com.profolix.resume.store;
+
+import com.profolix.resume.model.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Where the portfolios are kept. {@code ResumeService} reads through this and
+ * the importers write through it; {@code profolix.store.engine} picks the
+ * implementation: {@code sqlite} ({@link JpaResumeStore}, the default) or
+ * {@code log} ({@link LogResumeStore}).
+ *
+ * <p>The data version moves on every committed write and never goes back.
+ * Lists come in the order the API serves them: experiences, projects,
+ * education and achievements by {@code (sortOrder, id)}, skills by
+ * {@code (category, proficiency desc, id)}.
+ */
+public interface ResumeStore {
+
+    long currentVersion();
+
+    /**
+     * Identifies the data behind this store for as long as it exists; a store
+     * recreated from scratch gets a new id, so versions read from it are never
+     * compared with versions of the old one.
+     */
+    String storeId();
+
+    Optional<Long> findProfileId(String slug);
+
+    /** Id of the profile with the lowest id. */
+    Optional<Long> findFirstProfileId();
+
+    /** Slugs of up to {@code limit} profiles, lowest ids first. */
+    List<String> findSlugs(int limit);
+
+    /**
+     * One portfolio, read consistently on the calling thread; empty (see
+     * {@link Portfolio#empty}) if the profile does not exist.
+     */
+    Portfolio load(long profileId);
+
+    /**
+     * Same as {@link #load}, for a large portfolio read rarely: a store that
+     * reads table by table may read the tables concurrently, each at the
+     * version read first or later.
+     */
+    default Portfolio loadConcurrently(long profileId) {
+        return load(profileId);
+    }
+
+    Optional<Experience> findExperience(long profileId, long id);
+
+    Optional<Project> findProject(long profileId, long id);
+
+    /*
+     * Keyset pages: up to limit rows of one portfolio that sort after the
+     * given key, in list order.
+     */
+
+    List<Experience> findExperiencePage(long profileId, int sortOrder, long id, int limit);
+
+    List<Project> findProjectPage(long profileId, int sortOrder, long id, int limit);
+
+    List<Skill> findSkillPage(long profileId, String category, int proficiency, long id, int limit);
+
+    List<Achievement> findAchievementPage(long profileId, int sortOrder, long id, int limit);
+
+    /** Portfolios written or deleted after data version {@code since}. */
+    TenantChanges tenantsChangedSince(long since);
+
+    /**
+     * Runs {@code writes} as one atomic write: either everything it inserted
+     * is committed, under a new data version, or nothing is. With
+     * {@code replace}, all existing portfolios are deleted first.
+     */
+    void write(boolean replace, Consumer<Writer> writes);
+
+    /** Inserts rows within {@link #write}. */
+    interface Writer {
+
+        /** Whether a committed profile, still there after the replace if any, has {@code slug}. */
+        boolean slugExists(String slug);
+
+        /**
+         * Inserts a new profile or row and assigns its id. A row's profile must
+         * exist or have been inserted before it.
+         */
+        void insert(Object entity);
+    }
+}
@@ -0,0 +1,427 @@
+package com.profolix.resume.store;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * The compacted state of {@link LogResumeStore}: every portfolio as of one
+ * data version, and every profile deleted by then, mapped read-only and read
+ * in place.
+ *
+ * <pre>
+ * header     magic "PFXS", format, data version, next id per row type,
+ *            portfolio count, directory and row lengths, directory crc32c,
+ *            tombstone count, tombstones crc32c, header crc32c
+ * directory  per portfolio, by profile id:
+ *              profile id, version, profile row offset, slug (int length, UTF-8),
+ *              then per table: int count, count row ids, count row offsets,
+ *              rows in list order
+ * rows       [int length][int crc32c][row], in {@link PortfolioCodec#encodeRow} form
+ * tombstones per deleted profile: profile id, version that deleted it
+ * </pre>
+ *
+ * A portfolio is addressed by the offset of its directory entry. Reading a
+ * row checks its checksum; the header, directory and tombstones are checked
+ * once, when the file is opened. The file is written once, by a
+ * {@link Writer}, and never changed after.
+ */
+final class SnapshotFile {
+
+    static final int TABLES = 5;
+
+    private static final int MAGIC = 0x50465853;
+    private static final int FORMAT = 2;
+    private static final int HEADER = 4 + 4 + 8 + 8 * LogResumeStore.ROW_TYPES + 4 + 8 + 8 + 4 + 4 + 4 + 4;
+    private static final int ROW_HEADER = 2 * Integer.BYTES;
+    private static final int TOMBSTONE = 2 * Long.BYTES;
+    // Largest mapping Java allows is 2GB; a row may straddle two
+    private static final long CHUNK = 1L << 30;
+
+    private final Path path;
+    private final MappedByteBuffer[] chunks;
+    private final long version;
+    private final long[] nextIds;
+    private final int portfolios;
+    private final int tombstones;
+    private final long length;
+
+    private SnapshotFile(Path path, MappedByteBuffer[] chunks, long version, long[] nextIds, int portfolios,
+            int tombstones, long length) {
+        this.path = path;
+        this.chunks = chunks;
+        this.version = version;
+        this.nextIds = nextIds;
+        this.portfolios = portfolios;
+        this.tombstones = tombstones;
+        this.length = length;
+    }
+
+    /**
+     * Maps {@code path} and checks it.
+     *
+     * @throws IOException if it is not a complete, undamaged snapshot
+     */
+    static SnapshotFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER) {
+                throw new IOException("Snapshot " + path + " is truncated");
+            }
+            MappedByteBuffer[] chunks = new MappedByteBuffer[(int) ((size + CHUNK - 1) / CHUNK)];
+            for (int i = 0; i < chunks.length; i++) {
+                long start = i * CHUNK;
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(CHUNK, size - start));
+            }
+            ByteBuffer header = chunks[0].slice(0, HEADER);
+            CRC32C crc = new CRC32C();
+            crc.update(header.slice(0, HEADER - 4));
+            if (header.getInt(0) != MAGIC || header.getInt(HEADER - 4) != (int) crc.getValue()) {
+                throw new IOException("Snapshot " + path + " has a damaged header");
+            }
+            if (header.getInt(4) != FORMAT) {
+                throw new IOException("Snapshot " + path + " has format " + header.getInt(4) + ", expected "
+                        + FORMAT);
+            }
+            long version = header.getLong(8);
+            long[] nextIds = new long[LogResumeStore.ROW_TYPES];
+            for (int i = 0; i < nextIds.length; i++) {
+                nextIds[i] = header.getLong(16 + 8 * i);
+            }
+            int position = 16 + 8 * nextIds.length;
+            int portfolios = header.getInt(position);
+            long directoryLength = header.getLong(position + 4);
+            long rowsLength = header.getLong(position + 12);
+            int directoryCrc = header.getInt(position + 20);
+            int tombstones = header.getInt(position + 24);
+            int tombstonesCrc = header.getInt(position + 28);
+            if (HEADER + directoryLength + rowsLength + (long) TOMBSTONE * tombstones != size) {
+                throw new IOException("Snapshot " + path + " is truncated");
+            }
+            SnapshotFile file = new SnapshotFile(path, chunks, version, nextIds, portfolios, tombstones, size);
+            if (file.checksum(HEADER, directoryLength) != directoryCrc) {
+                throw new IOException("Snapshot " + path + " has a damaged directory");
+            }
+            if (file.checksum(file.tombstonesStart(), (long) TOMBSTONE * tombstones) != tombstonesCrc) {
+                throw new IOException("Snapshot " + path + " has damaged tombstones");
+            }
+            return file;
+        }
+    }
+
+    Path path() {
+        return path;
+    }
+
+    long version() {
+        return version;
+    }
+
+    long nextId(int rowType) {
+        return nextIds[rowType];
+    }
+
+    long length() {
+        return length;
+    }
+
+    /** Directory entries, first to last. */
+    interface Visitor {
+        void portfolio(long profileId, long version, String slug, long entry);
+    }
+
+    void forEachPortfolio(Visitor visitor) {
+        long entry = HEADER;
+        byte[] slug = new byte[0];
+        for (int i = 0; i < portfolios; i++) {
+            int slugLength = getInt(entry + 24);
+            if (slug.length != slugLength) {
+                slug = new byte[slugLength];
+            }
+            get(entry + 28, slug);
+            visitor.portfolio(getLong(entry), getLong(entry + 8), new String(slug, StandardCharsets.UTF_8), entry);
+            long position = entry + 28 + slugLength;
+            for (int table = 0; table < TABLES; table++) {
+                position += Integer.BYTES + 16L * getInt(position);
+            }
+            entry = position;
+        }
+    }
+
+    /** Profiles deleted by the snapshot's version. */
+    interface TombstoneVisitor {
+        void tombstone(long profileId, long version);
+    }
+
+    void forEachTombstone(TombstoneVisitor visitor) {
+        long position = tombstonesStart();
+        for (int i = 0; i < tombstones; i++, position += TOMBSTONE) {
+            visitor.tombstone(getLong(position), getLong(position + Long.BYTES));
+        }
+    }
+
+    long profileRow(long entry) {
+        return getLong(entry + 16);
+    }
+
+    int count(long entry, int table) {
+        return getInt(table(entry, table));
+    }
+
+    long rowId(long entry, int table, int index) {
+        return getLong(table(entry, table) + Integer.BYTES + 8L * index);
+    }
+
+    long rowOffset(long entry, int table, int index) {
+        long start = table(entry, table);
+        return getLong(start + Integer.BYTES + 8L * getInt(start) + 8L * index);
+    }
+
+    /** The row at {@code offset}, checked against its checksum. */
+    byte[] row(long offset) {
+        byte[] row = new byte[getInt(offset)];
+        get(offset + ROW_HEADER, row);
+        CRC32C crc = new CRC32C();
+        crc.update(row);
+        if ((int) crc.getValue() != getInt(offset + Integer.BYTES)) {
+            throw new IllegalStateException("Damaged row at " + offset + " of snapshot " + path);
+        }
+        return row;
+    }
+
+    /** Bytes the row at {@code offset} takes, header included, for copying it as is. */
+    int rowLength(long offset) {
+        return ROW_HEADER + getInt(offset);
+    }
+
+    /** Bytes a directory entry takes; the writer must be told the total up front. */
+    static long entryLength(String slug, int[] counts) {
+        long length = 28 + slug.getBytes(StandardCharsets.UTF_8).length;
+        for (int count : counts) {
+            length += Integer.BYTES + 16L * count;
+        }
+        return length;
+    }
+
+    private long tombstonesStart() {
+        return length - (long) TOMBSTONE * tombstones;
+    }
+
+    private long table(long entry, int table) {
+        long position = entry + 28 + getInt(entry + 24);
+        for (int i = 0; i < table; i++) {
+            position += Integer.BYTES + 16L * getInt(position);
+        }
+        return position;
+    }
+
+    private int checksum(long offset, long length) {
+        CRC32C crc = new CRC32C();
+        while (length > 0) {
+            MappedByteBuffer chunk = chunks[(int) (offset / CHUNK)];
+            int start = (int) (offset % CHUNK);
+            int size = (int) Math.min(length, chunk.capacity() - start);
+            crc.update(chunk.slice(start, size));
+            offset += size;
+            length -= size;
+        }
+        return (int) crc.getValue();
+    }
+
+    private int getInt(long offset) {
+        MappedByteBuffer chunk = chunks[(int) (offset / CHUNK)];
+        int start = (int) (offset % CHUNK);
+        if (start + Integer.BYTES <= chunk.capacity()) {
+            return chunk.getInt(start);
+        }
+        byte[] bytes = new byte[Integer.BYTES];
+        get(offset, bytes);
+        return ByteBuffer.wrap(bytes).getInt();
+    }
+
+    private long getLong(long offset) {
+        MappedByteBuffer chunk = chunks[(int) (offset / CHUNK)];
+        int start = (int) (offset % CHUNK);
+        if (start + Long.BYTES <= chunk.capacity()) {
+            return chunk.getLong(start);
+        }
+        byte[] bytes = new byte[Long.BYTES];
+        get(offset, bytes);
+        return ByteBuffer.wrap(bytes).getLong();
+    }
+
+    private void get(long offset, byte[] into) {
+        int done = 0;
+        while (done < into.length) {
+            MappedByteBuffer chunk = chunks[(int) (offset / CHUNK)];
+            int start = (int) (offset % CHUNK);
+            int size = Math.min(into.length - done, chunk.capacity() - start);
+            chunk.get(start, into, done, size);
+            done += size;
+            offset += size;
+        }
+    }
+
+    /**
+     * Writes a snapshot: rows as they come, each portfolio's directory entry
+     * once its rows are written, and the tombstones and header last. The
+     * directory's length is fixed up front, so rows can be streamed to their
+     * place after it.
+     */
+    static final class Writer implements AutoCloseable {
+
+        private static final int BUFFER_SIZE = 1 << 20;
+
+        private final FileChannel channel;
+        private final long version;
+        private final long[] nextIds;
+        private final long directoryLength;
+        private final ByteBuffer directory = ByteBuffer.allocate(BUFFER_SIZE);
+        private final ByteBuffer rows = ByteBuffer.allocate(BUFFER_SIZE);
+        private final CRC32C directoryCrc = new CRC32C();
+        private final CRC32C rowCrc = new CRC32C();
+        private final ByteArrayOutputStream tombstones = new ByteArrayOutputStream();
+        private long directoryWritten = HEADER;
+        private long rowsWritten;
+        private int portfolios;
+
+        Writer(Path path, long version, long[] nextIds, long directoryLength) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE);
+            this.version = version;
+            this.nextIds = nextIds.clone();
+            this.directoryLength = directoryLength;
+            this.rowsWritten = HEADER + directoryLength;
+        }
+
+        /** Appends a row and returns its offset. */
+        long writeRow(byte[] row) throws IOException {
+            rowCrc.reset();
+            rowCrc.update(row);
+            long offset = rowsWritten + rows.position();
+            if (ROW_HEADER + row.length > rows.remaining()) {
+                flushRows();
+            }
+            if (ROW_HEADER + row.length > rows.capacity()) {
+                ByteBuffer large = ByteBuffer.allocate(ROW_HEADER + row.length);
+                large.putInt(row.length).putInt((int) rowCrc.getValue()).put(row).flip();
+                rowsWritten = write(large, rowsWritten);
+                return offset;
+            }
+            rows.putInt(row.length).putInt((int) rowCrc.getValue()).put(row);
+            return offset;
+        }
+
+        /** Appends a row of another snapshot as it is, checksum included, and returns its new offset. */
+        long copyRow(SnapshotFile from, long offset) throws IOException {
+            byte[] row = new byte[from.rowLength(offset)];
+            from.get(offset, row);
+            long copied = rowsWritten + rows.position();
+            if (row.length > rows.remaining()) {
+                flushRows();
+            }
+            if (row.length > rows.capacity()) {
+                rowsWritten = write(ByteBuffer.wrap(row), rowsWritten);
+                return copied;
+            }
+            rows.put(row);
+            return copied;
+        }
+
+        /** Adds the directory entry of a portfolio whose rows are written; ids and offsets per table. */
+        void addPortfolio(long profileId, long version, String slug, long profileRow, long[][] ids,
+                long[][] offsets) throws IOException {
+            byte[] utf8 = slug.getBytes(StandardCharsets.UTF_8);
+            putDirectory(ByteBuffer.allocate(28 + utf8.length)
+                    .putLong(profileId).putLong(version).putLong(profileRow).putInt(utf8.length).put(utf8));
+            for (int table = 0; table < TABLES; table++) {
+                ByteBuffer entries = ByteBuffer.allocate(Integer.BYTES + 16 * ids[table].length);
+                entries.putInt(ids[table].length);
+                for (long id : ids[table]) {
+                    entries.putLong(id);
+                }
+                for (long offset : offsets[table]) {
+                    entries.putLong(offset);
+                }
+                putDirectory(entries);
+            }
+            portfolios++;
+        }
+
+        /** Records that {@code profileId} was deleted at {@code version}. */
+        void addTombstone(long profileId, long version) {
+            byte[] tombstone = ByteBuffer.allocate(TOMBSTONE).putLong(profileId).putLong(version).array();
+            tombstones.write(tombstone, 0, tombstone.length);
+        }
+
+        /** Writes out the tombstones and header and forces the file to disk. */
+        void finish() throws IOException {
+            flushDirectory();
+            flushRows();
+            byte[] deleted = tombstones.toByteArray();
+            write(ByteBuffer.wrap(deleted), rowsWritten);
+            CRC32C tombstonesCrc = new CRC32C();
+            tombstonesCrc.update(deleted);
+            if (directoryWritten != HEADER + directoryLength) {
+                throw new IllegalStateException("Directory is " + (directoryWritten - HEADER) + " bytes, expected "
+                        + directoryLength);
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER);
+            header.putInt(MAGIC).putInt(FORMAT).putLong(version);
+            for (long nextId : nextIds) {
+                header.putLong(nextId);
+            }
+            header.putInt(portfolios).putLong(directoryLength).putLong(rowsWritten - HEADER - directoryLength)
+                    .putInt((int) directoryCrc.getValue())
+                    .putInt(deleted.length / TOMBSTONE).putInt((int) tombstonesCrc.getValue());
+            CRC32C crc = new CRC32C();
+            crc.update(header.array(), 0, HEADER - 4);
+            header.putInt((int) crc.getValue()).flip();
+            write(header, 0);
+            channel.force(true);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        private void putDirectory(ByteBuffer bytes) throws IOException {
+            bytes.flip();
+            directoryCrc.update(bytes.duplicate());
+            if (bytes.remaining() > directory.remaining()) {
+                flushDirectory();
+            }
+            if (bytes.remaining() > directory.capacity()) {
+                directoryWritten = write(bytes, directoryWritten);
+                return;
+            }
+            directory.put(bytes);
+        }
+
+        private void flushDirectory() throws IOException {
+            directory.flip();
+            directoryWritten = write(directory, directoryWritten);
+            directory.clear();
+        }
+
+        private void flushRows() throws IOException {
+            rows.flip();
+            rowsWritten = write(rows, rowsWritten);
+            rows.clear();
+        }
+
+        private long write(ByteBuffer bytes, long position) throws IOException {
+            while (bytes.hasRemaining()) {
+                position += channel.write(bytes, position);
+            }
+            return position;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.profolix.resume.store;
+
+import java.util.Set;
+
+/**
+ * Portfolios touched after some data version: every profile id with a row
+ * written or deleted, and whether any profile itself was, which may have
+ * added, renamed or freed a slug.
+ */
+public record TenantChanges(Set<Long> profileIds, boolean profilesChanged) {
+}
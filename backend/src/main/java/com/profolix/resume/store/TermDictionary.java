@@ -0,0 +1,57 @@
+package com.profolix.resume.store;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short strings repeated across many portfolios, such as technology names and
+ * skill categories, each kept once and referred to by a small integer code.
+ * The dictionary only grows, up to a fixed number of terms; past that,
+ * {@link #encode} reports no code and the caller spells the string out.
+ */
+final class TermDictionary {
+
+    private final int maxTerms;
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private volatile String[] terms = new String[256];
+    private int size; // guarded by this
+
+    TermDictionary(int maxTerms) {
+        this.maxTerms = maxTerms;
+    }
+
+    /** The code of {@code term}, adding it if there is room; -1 when the dictionary is full. */
+    int encode(String term) {
+        Integer code = codes.get(term);
+        if (code != null) {
+            return code;
+        }
+        synchronized (this) {
+            code = codes.get(term);
+            if (code != null) {
+                return code;
+            }
+            if (size == maxTerms) {
+                return -1;
+            }
+            String[] current = terms;
+            if (size == current.length) {
+                current = Arrays.copyOf(current, size * 2);
+            }
+            current[size] = term;
+            // Written back even when not grown: the volatile write publishes the new term to decode()
+            terms = current;
+            codes.put(term, size);
+            return size++;
+        }
+    }
+
+    String decode(int code) {
+        return terms[code];
+    }
+
+    int size() {
+        return codes.size();
+    }
+}
@@ -0,0 +1,38 @@
+package com.profolix.resume.stream;
+
+/**
+ * One change pushed to {@code /api/stream} subscribers. {@code op} is
+ * {@code created}, {@code updated} or {@code deleted}; or {@code bulk}, with
+ * no id, when too many rows of one type changed at once to list them and the
+ * client should refetch that type.
+ */
+public class ChangeEvent {
+
+    private final String type;
+    private final Long id;
+    private final String op;
+    private final long version;
+
+    public ChangeEvent(String type, Long id, String op, long version) {
+        this.type = type;
+        this.id = id;
+        this.op = op;
+        this.version = version;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getOp() {
+        return op;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
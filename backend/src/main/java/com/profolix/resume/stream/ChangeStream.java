@@ -0,0 +1,183 @@
+package com.profolix.resume.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.profolix.resume.service.ResumeService;
+import com.profolix.resume.service.ResumeSnapshot;
+import com.profolix.resume.service.TenantsChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Fans portfolio changes out to {@code /api/stream} and
+ * {@code /api/{slug}/stream} subscribers. Subscribers to one portfolio share a
+ * topic, which holds the snapshot they last heard about. When a reload
+ * reports the portfolio changed, its new snapshot is diffed against that one
+ * once, encoded into one frame, and that same frame is queued on every
+ * connection of the topic. Portfolios nobody follows cost nothing.
+ *
+ * <p>Frames:
+ * <ul>
+ * <li>{@code version} on connect, with the current data version;</li>
+ * <li>{@code change} per reload that changed the portfolio, a JSON array of
+ * {@link ChangeEvent}s;</li>
+ * <li>{@code resync} when a subscriber fell too far behind and lost events;</li>
+ * <li>an empty comment as a heartbeat on otherwise idle connections.</li>
+ * </ul>
+ * Event ids are data versions.
+ */
+@Component
+public class ChangeStream {
+
+    private final ResumeService resumeService;
+    private final ObjectMapper objectMapper;
+    private final SnapshotDiff snapshotDiff;
+    private final Executor executor;
+    private final int queueCapacity;
+    private final int maxSubscribers;
+    private final Duration timeout;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // By profile id; a topic goes once its last subscriber leaves
+    private final Map<Long, Topic> topics = new ConcurrentHashMap<>();
+
+    private static final class Topic {
+        final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        // Written by the change listener, which reloads call one at a time
+        volatile ResumeSnapshot last;
+        volatile SseFrame resync;
+
+        Topic(ResumeSnapshot last, SseFrame resync) {
+            this.last = last;
+            this.resync = resync;
+        }
+    }
+
+    public ChangeStream(ResumeService resumeService, ObjectMapper objectMapper,
+            @Qualifier("changeStreamExecutor") Executor executor, MeterRegistry meterRegistry,
+            @Value("${profolix.stream.queue-capacity:32}") int queueCapacity,
+            @Value("${profolix.stream.max-subscribers:50000}") int maxSubscribers,
+            @Value("${profolix.stream.timeout:0}") Duration timeout) {
+        this.resumeService = resumeService;
+        this.objectMapper = objectMapper;
+        this.snapshotDiff = new SnapshotDiff(objectMapper);
+        this.executor = executor;
+        this.queueCapacity = queueCapacity;
+        this.maxSubscribers = maxSubscribers;
+        this.timeout = timeout;
+        Gauge.builder("profolix.stream.subscribers", subscribers, Set::size)
+                .description("Open /api/stream connections")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a subscription to the portfolio {@code tenant} on {@code request},
+     * which is put in asynchronous mode and answered from then on by its
+     * {@link Subscriber}. A zero timeout keeps the connection open until the
+     * client leaves; heartbeats find the ones that left without closing.
+     */
+    public void subscribe(ResumeSnapshot tenant, HttpServletRequest request) throws IOException {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many stream subscribers");
+        }
+        long version = resumeService.getDataVersion();
+        AsyncContext async = request.startAsync();
+        async.setTimeout(timeout.toMillis());
+        HttpServletResponse response = (HttpServletResponse) async.getResponse();
+        response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        long profileId = tenant.getProfileId();
+        Subscriber subscriber = new Subscriber(async, executor, queueCapacity, () -> resyncFrameOf(profileId),
+                closed -> unsubscribe(profileId, closed));
+        subscribers.add(subscriber);
+        topics.compute(profileId, (id, topic) -> {
+            Topic joined = topic != null ? topic : new Topic(tenant, resyncFrame(version));
+            joined.subscribers.add(subscriber);
+            return joined;
+        });
+        if (subscriber.isClosed()) {
+            // Closed before it joined, so its own unsubscribe found nothing to remove
+            unsubscribe(profileId, subscriber);
+            return;
+        }
+        subscriber.offer(SseFrame.event("version", version, json(Map.of("version", version))));
+    }
+
+    @EventListener
+    public void onTenantsChanged(TenantsChangedEvent event) {
+        long version = event.getVersion();
+        for (long profileId : event.getProfileIds()) {
+            Topic topic = topics.get(profileId);
+            if (topic == null) {
+                continue;
+            }
+            ResumeSnapshot previous = topic.last;
+            ResumeSnapshot current = resumeService.getSnapshot(profileId);
+            topic.last = current;
+            topic.resync = resyncFrame(version);
+            List<ChangeEvent> changes = snapshotDiff.between(previous, current);
+            if (changes.isEmpty()) {
+                continue;
+            }
+            SseFrame frame = SseFrame.event("change", version, json(changes));
+            for (Subscriber subscriber : topic.subscribers) {
+                subscriber.offer(frame);
+            }
+        }
+    }
+
+    @Scheduled(fixedRateString = "${profolix.stream.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.isIdle()) {
+                subscriber.offer(SseFrame.HEARTBEAT);
+            }
+        }
+    }
+
+    private void unsubscribe(long profileId, Subscriber subscriber) {
+        subscribers.remove(subscriber);
+        topics.computeIfPresent(profileId, (id, topic) -> {
+            topic.subscribers.remove(subscriber);
+            return topic.subscribers.isEmpty() ? null : topic;
+        });
+    }
+
+    private SseFrame resyncFrameOf(long profileId) {
+        Topic topic = topics.get(profileId);
+        return topic != null ? topic.resync : resyncFrame(resumeService.getDataVersion());
+    }
+
+    private SseFrame resyncFrame(long version) {
+        return SseFrame.event("resync", version, json(Map.of("version", version)));
+    }
+
+    private String json(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
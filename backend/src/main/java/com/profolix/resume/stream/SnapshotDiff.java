@@ -0,0 +1,79 @@
+package com.profolix.resume.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.profolix.resume.model.*;
+import com.profolix.resume.service.ResumeSnapshot;
+
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Works out which entities differ between two snapshots. Rows are matched by
+ * id and compared by their JSON form, which is exactly what a client would
+ * see change.
+ */
+final class SnapshotDiff {
+
+    /** Beyond this many changes to one type, a single {@code bulk} event stands in for them. */
+    static final int BULK_THRESHOLD = 100;
+
+    private final ObjectMapper objectMapper;
+
+    SnapshotDiff(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    List<ChangeEvent> between(ResumeSnapshot previous, ResumeSnapshot current) {
+        long version = current.getVersion();
+        List<ChangeEvent> events = new ArrayList<>();
+        diff("profile", previous.getProfile().stream().toList(), current.getProfile().stream().toList(),
+                Profile::getId, version, events);
+        diff("experience", previous.getExperiences(), current.getExperiences(), Experience::getId, version, events);
+        diff("skill", previous.getSkills(), current.getSkills(), Skill::getId, version, events);
+        diff("project", previous.getProjects(), current.getProjects(), Project::getId, version, events);
+        diff("education", previous.getEducation(), current.getEducation(), Education::getId, version, events);
+        diff("achievement", previous.getAchievements(), current.getAchievements(), Achievement::getId, version,
+                events);
+        return events;
+    }
+
+    private <T> void diff(String type, List<T> before, List<T> after, Function<T, Long> idOf, long version,
+            List<ChangeEvent> events) {
+        Map<Long, T> remaining = new HashMap<>();
+        for (T row : before) {
+            remaining.put(idOf.apply(row), row);
+        }
+        List<ChangeEvent> changes = new ArrayList<>();
+        for (T row : after) {
+            Long id = idOf.apply(row);
+            T old = remaining.remove(id);
+            if (old == null) {
+                changes.add(new ChangeEvent(type, id, "created", version));
+            } else if (!Arrays.equals(json(old), json(row))) {
+                changes.add(new ChangeEvent(type, id, "updated", version));
+            }
+            if (changes.size() > BULK_THRESHOLD) {
+                events.add(new ChangeEvent(type, null, "bulk", version));
+                return;
+            }
+        }
+        for (Long id : remaining.keySet()) {
+            changes.add(new ChangeEvent(type, id, "deleted", version));
+        }
+        if (changes.size() > BULK_THRESHOLD) {
+            events.add(new ChangeEvent(type, null, "bulk", version));
+        } else {
+            events.addAll(changes);
+        }
+    }
+
+    private byte[] json(Object row) {
+        try {
+            return objectMapper.writeValueAsBytes(row);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.profolix.resume.stream;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A fully encoded server-sent event. The bytes are built once and the same
+ * array is written to every subscriber, instead of each connection formatting
+ * and serializing the event again.
+ */
+final class SseFrame {
+
+    static final SseFrame HEARTBEAT = new SseFrame(":\n\n");
+
+    private final byte[] bytes;
+
+    private SseFrame(String frame) {
+        this.bytes = frame.getBytes(StandardCharsets.UTF_8);
+    }
+
+    static SseFrame event(String name, long id, String json) {
+        return new SseFrame("id:" + id + "\nevent:" + name + "\ndata:" + json + "\n\n");
+    }
+
+    byte[] getBytes() {
+        return bytes;
+    }
+}
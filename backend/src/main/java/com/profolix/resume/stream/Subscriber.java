@@ -0,0 +1,167 @@
+package com.profolix.resume.stream;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * One {@code /api/stream} connection, written with non-blocking servlet I/O.
+ * Frames are queued without blocking and written out by at most one task at a
+ * time, and only while the connection takes them: once it is full the task
+ * ends, and the container calls {@link #onWritePossible} when it has drained.
+ * No thread ever waits on a client, so one that reads slowly holds up only
+ * itself. If its queue fills, the backlog is dropped and replaced by a single
+ * {@code resync} frame telling it to refetch. A client that stops reading
+ * altogether is failed by the container once its pending write times out.
+ */
+final class Subscriber implements WriteListener, AsyncListener {
+
+    private final AsyncContext async;
+    private final ServletOutputStream out;
+    private final Executor executor;
+    private final Supplier<SseFrame> resync;
+    private final Consumer<Subscriber> onClose;
+    private final Queue<SseFrame> queue;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    // Whether the connection took the last write; false until the container first reports it writable
+    private volatile boolean writable;
+    // Frames written by the draining task but not flushed yet
+    private volatile boolean unflushed;
+
+    Subscriber(AsyncContext async, Executor executor, int capacity, Supplier<SseFrame> resync,
+            Consumer<Subscriber> onClose) throws IOException {
+        this.async = async;
+        this.out = async.getResponse().getOutputStream();
+        this.executor = executor;
+        this.resync = resync;
+        this.onClose = onClose;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        async.addListener(this);
+        out.setWriteListener(this);
+    }
+
+    boolean isClosed() {
+        return closed.get();
+    }
+
+    boolean isIdle() {
+        return queue.isEmpty() && !draining.get();
+    }
+
+    void offer(SseFrame frame) {
+        if (closed.get()) {
+            return;
+        }
+        if (!queue.offer(frame)) {
+            queue.clear();
+            queue.offer(resync.get());
+        }
+        // Otherwise onWritePossible picks the frame up
+        if (writable) {
+            schedule();
+        }
+    }
+
+    /**
+     * Stops writing and completes the response. Completing is repeated on
+     * every call: an error or timeout after an earlier close needs it again,
+     * or the container dispatches to its error page.
+     */
+    void close() {
+        if (closed.compareAndSet(false, true)) {
+            queue.clear();
+            onClose.accept(this);
+        }
+        try {
+            async.complete();
+        } catch (IllegalStateException e) {
+            // Already completed
+        }
+    }
+
+    @Override
+    public void onWritePossible() {
+        writable = true;
+        schedule();
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        // The client went away, or a pending write timed out
+        close();
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+        close();
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+        close();
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+        close();
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+    }
+
+    private void schedule() {
+        if (draining.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+                close();
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            while (true) {
+                // Cleared before asking, so an onWritePossible that follows a full connection is not lost
+                writable = false;
+                if (out.isReady()) {
+                    writable = true;
+                    SseFrame frame = queue.poll();
+                    if (frame != null) {
+                        out.write(frame.getBytes());
+                        unflushed = true;
+                        continue;
+                    }
+                    if (unflushed) {
+                        unflushed = false;
+                        out.flush();
+                        continue;
+                    }
+                }
+                draining.set(false);
+                // Work that arrived between the checks and the reset would otherwise wait for the next offer
+                if (!writable || queue.isEmpty() && !unflushed || !draining.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // The client went away
+            draining.set(false);
+            close();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.profolix.resume.service;
+
+import com.profolix.resume.model.Profile;
+import com.profolix.resume.model.Skill;
+import com.profolix.resume.store.LogResumeStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * How {@link ResumeService#reload} follows writes: the default portfolio is
+ * rebuilt only when a write touched it, while other portfolios are dropped
+ * from the cache when they change.
+ */
+class ResumeServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<TenantsChangedEvent> events = new ArrayList<>();
+    private LogResumeStore store;
+    private ResumeService service;
+
+    @BeforeEach
+    void open() throws IOException {
+        store = new LogResumeStore(directory, DataSize.ofMegabytes(64), false);
+        store.open();
+        service = new ResumeService(store, event -> events.add((TenantsChangedEvent) event),
+                new SimpleMeterRegistry(), Optional.empty(), "", DataSize.ofMegabytes(16), 1000);
+    }
+
+    @AfterEach
+    void close() throws IOException {
+        store.close();
+    }
+
+    @Test
+    void writeToAnotherPortfolioKeepsTheDefaultSnapshot() {
+        long owner = addPortfolio("default", "Java");
+        long otherId = addPortfolio("other", "Kotlin");
+        service.reload();
+        ResumeSnapshot defaults = service.getSnapshot();
+        ResumeSnapshot other = service.findSnapshot("other").orElseThrow();
+        events.clear();
+
+        addSkill(otherId, "Scala");
+        long version = service.reload();
+
+        assertThat(service.getSnapshot()).isSameAs(defaults);
+        assertThat(service.getDataVersion()).isEqualTo(version).isGreaterThan(defaults.getVersion());
+        assertThat(service.findSnapshot("other").orElseThrow()).isNotSameAs(other)
+                .extracting(snapshot -> snapshot.getSkills().size()).isEqualTo(2);
+        assertThat(events).singleElement().satisfies(event -> {
+            assertThat(event.getVersion()).isEqualTo(version);
+            assertThat(event.getProfileIds()).containsExactly(otherId);
+        });
+
+        addSkill(owner, "Go");
+        service.reload();
+
+        assertThat(service.getSnapshot().getSkills()).extracting(Skill::getName).contains("Go");
+        assertThat(events).last().satisfies(event -> assertThat(event.getProfileIds()).containsExactly(owner));
+    }
+
+    @Test
+    void deletingTheDefaultPortfolioHandsDefaultToTheNextProfile() {
+        addPortfolio("first", "Java");
+        service.reload();
+
+        store.write(true, writer -> writer.insert(profile("second")));
+        service.reload();
+
+        assertThat(service.getSnapshot().getProfile()).map(Profile::getSlug).contains("second");
+    }
+
+    private long addPortfolio(String slug, String skillName) {
+        Profile profile = profile(slug);
+        store.write(false, writer -> writer.insert(profile));
+        addSkill(profile.getId(), skillName);
+        return profile.getId();
+    }
+
+    private void addSkill(long profileId, String name) {
+        store.write(false, writer -> {
+            Skill skill = new Skill(name, "Languages", 80, null);
+            skill.setProfileId(profileId);
+            writer.insert(skill);
+        });
+    }
+
+    private static Profile profile(String slug) {
+        Profile profile = new Profile();
+        profile.setSlug(slug);
+        profile.setFullName(slug);
+        return profile;
+    }
+}
@@ -0,0 +1,231 @@
+package com.profolix.resume.store;
+
+import com.profolix.resume.model.Profile;
+import com.profolix.resume.model.Skill;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Recovery of {@link LogResumeStore} from what a crash can leave in its
+ * directory: a torn or damaged log tail, a log already compacted into the
+ * snapshot, and a compaction stopped between its two steps. Deletes must
+ * survive compaction and a restart too, and a rejected write leave nothing
+ * behind.
+ */
+class LogResumeStoreTest {
+
+    // Large enough that nothing compacts unless a test asks for it
+    private static final DataSize NEVER = DataSize.ofMegabytes(64);
+    // Small enough that every write compacts
+    private static final DataSize ALWAYS = DataSize.ofBytes(1);
+
+    @TempDir
+    Path directory;
+
+    private final List<LogResumeStore> opened = new ArrayList<>();
+
+    @AfterEach
+    void closeStores() throws IOException {
+        for (LogResumeStore store : opened) {
+            store.close();
+        }
+    }
+
+    @Test
+    void logTruncatedMidFrameIsCutBackToTheLastCommit() throws IOException {
+        LogResumeStore store = open(NEVER);
+        addPortfolio(store, "first", "Java");
+        long committed = logLength();
+        addPortfolio(store, "second", "Kotlin");
+        store.close();
+
+        try (FileChannel log = FileChannel.open(log(), StandardOpenOption.WRITE)) {
+            log.truncate(logLength() - 3);
+        }
+
+        LogResumeStore reopened = open(NEVER);
+        assertThat(reopened.findProfileId("first")).isPresent();
+        assertThat(reopened.findProfileId("second")).isEmpty();
+        assertThat(reopened.currentVersion()).isEqualTo(1);
+        assertThat(logLength()).isEqualTo(committed);
+    }
+
+    @Test
+    void garbageAfterTheLastCommitIsCutOff() throws IOException {
+        LogResumeStore store = open(NEVER);
+        addPortfolio(store, "first", "Java");
+        long committed = logLength();
+        store.close();
+
+        byte[] garbage = new byte[100];
+        new Random(42).nextBytes(garbage);
+        Files.write(log(), garbage, StandardOpenOption.APPEND);
+
+        LogResumeStore reopened = open(NEVER);
+        assertThat(reopened.findProfileId("first")).isPresent();
+        assertThat(logLength()).isEqualTo(committed);
+
+        // The log takes writes again where the cut left it
+        addPortfolio(reopened, "second", "Kotlin");
+        reopened.close();
+        LogResumeStore again = open(NEVER);
+        assertThat(again.findProfileId("second")).isPresent();
+        assertThat(again.currentVersion()).isEqualTo(2);
+    }
+
+    @Test
+    void frameFailingItsChecksumEndsTheReplay() throws IOException {
+        LogResumeStore store = open(NEVER);
+        addPortfolio(store, "first", "Java");
+        long committed = logLength();
+        addPortfolio(store, "second", "Kotlin");
+        addPortfolio(store, "third", "Scala");
+        store.close();
+
+        // Inside the first frame of the second write; the third write after it goes too
+        flipByte(committed + 12);
+
+        LogResumeStore reopened = open(NEVER);
+        assertThat(reopened.findProfileId("first")).isPresent();
+        assertThat(reopened.findProfileId("second")).isEmpty();
+        assertThat(reopened.findProfileId("third")).isEmpty();
+        assertThat(reopened.currentVersion()).isEqualTo(1);
+        assertThat(logLength()).isEqualTo(committed);
+    }
+
+    @Test
+    void logIsReplayedOnTopOfTheCompactedSnapshot() throws IOException {
+        LogResumeStore compacting = open(ALWAYS);
+        long first = addPortfolio(compacting, "first", "Java");
+        compacting.close();
+        assertThat(logLength()).isZero();
+
+        LogResumeStore store = open(NEVER);
+        long second = addPortfolio(store, "second", "Kotlin");
+        store.close();
+
+        LogResumeStore reopened = open(NEVER);
+        assertThat(reopened.currentVersion()).isEqualTo(2);
+        assertThat(reopened.load(first).skills()).extracting(Skill::getName).containsExactly("Java");
+        assertThat(reopened.load(second).skills()).extracting(Skill::getName).containsExactly("Kotlin");
+        // Ids carry on from the snapshot's counters, not from 1
+        assertThat(second).isGreaterThan(first);
+    }
+
+    @Test
+    void crashAfterTheSnapshotRenameSkipsWritesItAlreadyHolds() throws IOException {
+        LogResumeStore store = open(NEVER);
+        long first = addPortfolio(store, "first", "Java");
+        long second = addPortfolio(store, "second", "Kotlin");
+        store.close();
+        Path uncompacted = directory.resolve("log.before-reset");
+        Files.copy(log(), uncompacted);
+
+        // Compacts on open, since the log is already past the threshold
+        open(ALWAYS).close();
+        assertThat(logLength()).isZero();
+        // As if the process died after the rename, before log.reset()
+        Files.move(uncompacted, log(), StandardCopyOption.REPLACE_EXISTING);
+
+        LogResumeStore reopened = open(NEVER);
+        assertThat(reopened.currentVersion()).isEqualTo(2);
+        assertThat(reopened.size()).isEqualTo(2);
+        assertThat(reopened.load(first).skills()).hasSize(1);
+        assertThat(reopened.load(second).skills()).hasSize(1);
+        addPortfolio(reopened, "third", "Scala");
+        assertThat(reopened.currentVersion()).isEqualTo(3);
+    }
+
+    @Test
+    void deletedProfilesAreReportedAfterCompactionAndRestart() throws IOException {
+        LogResumeStore store = open(NEVER);
+        long first = addPortfolio(store, "first", "Java");
+        long before = store.currentVersion();
+        store.write(true, writer -> writer.insert(profile("second")));
+        store.close();
+
+        // Compacts the delete into the snapshot and empties the log
+        open(ALWAYS).close();
+        assertThat(logLength()).isZero();
+
+        LogResumeStore reopened = open(NEVER);
+        assertThat(reopened.findProfileId("first")).isEmpty();
+        TenantChanges changes = reopened.tenantsChangedSince(before);
+        assertThat(changes.profileIds()).contains(first);
+        assertThat(changes.profilesChanged()).isTrue();
+    }
+
+    @Test
+    void skillWithoutACategoryIsRejectedAndRolledBack() throws IOException {
+        LogResumeStore store = open(NEVER);
+        long profileId = addPortfolio(store, "first", "Java");
+        long committed = logLength();
+
+        assertThatThrownBy(() -> store.write(false, writer -> {
+            Skill skill = new Skill("Uncategorized", null, 50, null);
+            skill.setProfileId(profileId);
+            writer.insert(skill);
+        })).isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Uncategorized");
+
+        assertThat(store.currentVersion()).isEqualTo(1);
+        assertThat(store.load(profileId).skills()).extracting(Skill::getName).containsExactly("Java");
+        store.close();
+        assertThat(logLength()).isEqualTo(committed);
+        assertThat(open(NEVER).load(profileId).skills()).extracting(Skill::getName).containsExactly("Java");
+    }
+
+    private LogResumeStore open(DataSize compactAfter) throws IOException {
+        LogResumeStore store = new LogResumeStore(directory, compactAfter, false);
+        store.open();
+        opened.add(store);
+        return store;
+    }
+
+    /** Adds a portfolio with one skill in one write, and returns its profile id. */
+    private static long addPortfolio(LogResumeStore store, String slug, String skillName) {
+        Profile profile = profile(slug);
+        store.write(false, writer -> {
+            writer.insert(profile);
+            Skill skill = new Skill(skillName, "Languages", 90, null);
+            skill.setProfileId(profile.getId());
+            writer.insert(skill);
+        });
+        return profile.getId();
+    }
+
+    private static Profile profile(String slug) {
+        Profile profile = new Profile();
+        profile.setSlug(slug);
+        profile.setFullName(slug);
+        return profile;
+    }
+
+    private Path log() {
+        return directory.resolve("log.dat");
+    }
+
+    private long logLength() throws IOException {
+        return Files.size(log());
+    }
+
+    private void flipByte(long position) throws IOException {
+        byte[] bytes = Files.readAllBytes(log());
+        bytes[(int) position] ^= 0x55;
+        Files.write(log(), bytes);
+    }
+}
@@ -20,14 +20,10 @@ export default function HomeScreen() {
 
   const loadData = async () => {
     try {
-      const [profileRes, achievementsRes, educationRes] = await Promise.all([
-        resumeApi.getProfile(),
-        resumeApi.getAchievements(),
-        resumeApi.getEducation(),
-      ]);
-      setProfile(profileRes.data);
-      setAchievements(achievementsRes.data);
-      setEducation(educationRes.data);
+      const { data } = await resumeApi.getResume();
+      setProfile(data.profile);
+      setAchievements(data.achievements);
+      setEducation(data.education);
     } catch (error) {
       console.error('Error loading profile:', error);
     } finally {
@@ -87,7 +87,17 @@ export interface Achievement {
     sortOrder: number;
 }
 
+export interface Resume {
+    profile: Profile | null;
+    experiences: Experience[];
+    skills: Record<string, Skill[]>;
+    projects: Project[];
+    education: Education[];
+    achievements: Achievement[];
+}
+
 export const resumeApi = {
+    getResume: () => api.get<Resume>('/resume'),
     getProfile: () => api.get<Profile>('/profile'),
     getExperiences: () => api.get<Experience[]>('/experiences'),
     getSkills: () => api.get<Skill[]>('/skills'),